@@ -0,0 +1,153 @@
+package net.netcoding.nifty.core.database.pooling;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Samples the time to borrow and close a connection of a pool shared by many
+ * more threads than it has connections, waiting up to the connection timeout
+ * as {@link SQLPooling#getConnection()} does.
+ * <p>
+ * Connections come from a driver that does nothing, so only the pool itself
+ * is measured. Compare with {@code BagBenchmark} for the cost added on top of
+ * the bag.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PoolBenchmark {
+
+	@Param({ "10" })
+	private int connections;
+
+	@Param({ "100" })
+	private int holdTokens;
+
+	private Pool pool;
+
+	@Setup
+	public void setup() throws SQLException {
+		this.pool = new Pool();
+		this.pool.setMaximumConnections(this.connections);
+	}
+
+	/**
+	 * Borrows a connection, holds it briefly and closes it.
+	 */
+	@Benchmark
+	public void borrowAndClose(Blackhole blackhole) throws SQLException {
+		try (Connection connection = this.pool.getConnection()) {
+			blackhole.consume(connection);
+			Blackhole.consumeCPU(this.holdTokens);
+		}
+	}
+
+	private static final class Pool extends SQLPooling {
+
+		Pool() throws SQLException {
+			super(NoopDriver.class.getName(), NoopDriver.URL, new Properties(), false);
+		}
+
+	}
+
+	/**
+	 * Driver of connections whose methods return default values, registered
+	 * when loaded by the pool.
+	 */
+	public static final class NoopDriver implements Driver {
+
+		static final String URL = "jdbc:noop:benchmark";
+
+		static {
+			try {
+				DriverManager.registerDriver(new NoopDriver());
+			} catch (SQLException sqlex) {
+				throw new ExceptionInInitializerError(sqlex);
+			}
+		}
+
+		@Override
+		public boolean acceptsURL(String url) {
+			return url.startsWith(URL);
+		}
+
+		@Override
+		public Connection connect(String url, Properties info) {
+			return this.acceptsURL(url) ? noop(Connection.class) : null;
+		}
+
+		@Override
+		public int getMajorVersion() {
+			return 1;
+		}
+
+		@Override
+		public int getMinorVersion() {
+			return 0;
+		}
+
+		@Override
+		public Logger getParentLogger() {
+			return Logger.getGlobal();
+		}
+
+		@Override
+		public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+			return new DriverPropertyInfo[0];
+		}
+
+		@Override
+		public boolean jdbcCompliant() {
+			return false;
+		}
+
+		private static <T> T noop(Class<T> type) {
+			return type.cast(Proxy.newProxyInstance(NoopDriver.class.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+				Class<?> returnType = method.getReturnType();
+
+				if (returnType == DatabaseMetaData.class || returnType == PreparedStatement.class || returnType == ResultSet.class)
+					return noop(returnType);
+				else if (returnType == String.class)
+					return "benchmark";
+				else if (returnType == boolean.class)
+					return "getAutoCommit".equals(method.getName());
+				else if (returnType == int.class)
+					return 0;
+				else if (returnType == long.class)
+					return 0L;
+
+				return null;
+			}));
+		}
+
+	}
+
+}
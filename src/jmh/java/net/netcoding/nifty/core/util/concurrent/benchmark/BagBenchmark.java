@@ -0,0 +1,66 @@
+package net.netcoding.nifty.core.util.concurrent.benchmark;
+
+import net.netcoding.nifty.core.util.concurrent.Concurrent;
+import net.netcoding.nifty.core.util.concurrent.ConcurrentBag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the time to borrow and return an entry of a bag shared by many
+ * more threads than it has entries, as a connection pool would be.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BagBenchmark {
+
+	@Param({ "10" })
+	private int entries;
+
+	@Param({ "100" })
+	private int holdTokens;
+
+	private ConcurrentBag<PooledEntry> bag;
+
+	@Setup
+	public void setup() {
+		this.bag = Concurrent.newBag();
+
+		for (int i = 0; i < this.entries; i++)
+			this.bag.add(new PooledEntry());
+	}
+
+	/**
+	 * Borrows an entry, holds it briefly and returns it.
+	 */
+	@Benchmark
+	public boolean borrowAndRequite() throws InterruptedException {
+		PooledEntry entry = this.bag.borrow(1, TimeUnit.SECONDS);
+
+		if (entry == null)
+			return false;
+
+		Blackhole.consumeCPU(this.holdTokens);
+		return this.bag.requite(entry);
+	}
+
+	private static final class PooledEntry extends ConcurrentBag.Entry { }
+
+}
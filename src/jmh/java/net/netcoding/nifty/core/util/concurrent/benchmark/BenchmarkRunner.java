@@ -0,0 +1,56 @@
+package net.netcoding.nifty.core.util.concurrent.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runs the collection benchmarks with allocation profiling enabled.
+ * <p>
+ * Build with {@code mvn -P benchmarks package} and run with
+ * {@code java -jar target/benchmarks.jar}, which accepts the usual JMH
+ * options. Thread count is varied with {@code -t}, for example {@code -t 1},
+ * {@code -t 16} or {@code -t 32} to measure contention, and a subset is
+ * selected with a regular expression such as {@code MapBenchmark}.
+ * <p>
+ * Unless {@code -rff} is given, results are written as JSON to
+ * {@code target/jmh-result.json}, to be kept as the baseline that later runs
+ * are compared against.
+ */
+public final class BenchmarkRunner {
+
+	private static final Path RESULT_FILE = Paths.get("target", "jmh-result.json");
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions options = new CommandLineOptions(args);
+
+		if (options.shouldHelp()) {
+			options.showHelp();
+			return;
+		}
+
+		Runner runner = new Runner(options);
+
+		if (options.shouldList()) {
+			runner.list();
+			return;
+		}
+
+		ChainedOptionsBuilder builder = new OptionsBuilder().parent(options).addProfiler(GCProfiler.class);
+
+		if (!options.getResult().hasValue()) {
+			Files.createDirectories(RESULT_FILE.getParent());
+			builder.result(RESULT_FILE.toString()).resultFormat(ResultFormatType.JSON);
+		}
+
+		new Runner(builder.build()).run();
+	}
+
+}
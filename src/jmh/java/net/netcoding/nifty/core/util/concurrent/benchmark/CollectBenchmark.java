@@ -0,0 +1,73 @@
+package net.netcoding.nifty.core.util.concurrent.benchmark;
+
+import net.netcoding.nifty.core.util.concurrent.Concurrent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compares the concurrent collectors against their {@link Collectors} equivalents
+ * when collecting a parallel stream.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollectBenchmark {
+
+	@Param({ "1000000" })
+	private int size;
+
+	private Stream<Integer> stream() {
+		return IntStream.range(0, this.size).boxed().parallel();
+	}
+
+	@Benchmark
+	public Collection<Integer> concurrentToList() {
+		return this.stream().collect(Concurrent.toList());
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> concurrentToMap() {
+		return this.stream().collect(Concurrent.toMap(Function.identity(), Function.identity()));
+	}
+
+	@Benchmark
+	public Collection<Integer> concurrentToSet() {
+		return this.stream().collect(Concurrent.toSet());
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> toConcurrentMap() {
+		return this.stream().collect(Collectors.toConcurrentMap(Function.identity(), Function.identity()));
+	}
+
+	@Benchmark
+	public Collection<Integer> toList() {
+		return this.stream().collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public Collection<Integer> toSet() {
+		return this.stream().collect(Collectors.toSet());
+	}
+
+}
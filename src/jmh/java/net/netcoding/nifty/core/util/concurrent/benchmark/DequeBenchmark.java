@@ -0,0 +1,69 @@
+package net.netcoding.nifty.core.util.concurrent.benchmark;
+
+import net.netcoding.nifty.core.util.concurrent.Concurrent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the concurrent deques against their {@code java.util.concurrent} equivalents.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DequeBenchmark {
+
+	@Param({ "ConcurrentDeque", "ConcurrentBlockingDeque", "ConcurrentLinkedDeque", "LinkedBlockingDeque" })
+	private String type;
+
+	@Param({ "0", "1000" })
+	private int size;
+
+	private Deque<Integer> deque;
+
+	@Setup
+	public void setup() {
+		switch (this.type) {
+			case "ConcurrentDeque":
+				this.deque = Concurrent.newDeque();
+				break;
+			case "ConcurrentBlockingDeque":
+				this.deque = Concurrent.newBlockingDeque();
+				break;
+			case "ConcurrentLinkedDeque":
+				this.deque = new ConcurrentLinkedDeque<>();
+				break;
+			default:
+				this.deque = new LinkedBlockingDeque<>();
+		}
+
+		for (int i = 0; i < this.size; i++)
+			this.deque.offerLast(i);
+	}
+
+	/**
+	 * Pushes an element onto the head and polls the tail, keeping the size constant.
+	 */
+	@Benchmark
+	public Integer offerFirstAndPollLast() {
+		this.deque.offerFirst(this.size);
+		return this.deque.pollLast();
+	}
+
+}
@@ -0,0 +1,82 @@
+package net.netcoding.nifty.core.util.concurrent.benchmark;
+
+import net.netcoding.nifty.core.util.concurrent.Concurrent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bounded concurrent linked map against a synchronized
+ * {@link LinkedHashMap} in access order and an unbounded {@link ConcurrentHashMap}.
+ * <p>
+ * Keys are drawn from twice the maximum size, so bounded maps keep evicting.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LinkedMapBenchmark {
+
+	@Param({ "ConcurrentLinkedMap", "SynchronizedLinkedHashMap", "ConcurrentHashMap" })
+	private String type;
+
+	@Param({ "1000", "10000", "100000" })
+	private int size;
+
+	@Param({ "0", "10", "50" })
+	private int writePercent;
+
+	private Map<Integer, Integer> map;
+
+	@Setup
+	public void setup() {
+		int maxSize = this.size;
+
+		switch (this.type) {
+			case "ConcurrentLinkedMap":
+				this.map = Concurrent.newLinkedMap(maxSize);
+				break;
+			case "SynchronizedLinkedHashMap":
+				this.map = Collections.synchronizedMap(new LinkedHashMap<Integer, Integer>(16, 0.75F, true) {
+
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+						return this.size() > maxSize;
+					}
+
+				});
+				break;
+			default:
+				this.map = new ConcurrentHashMap<>();
+		}
+
+		for (int i = 0; i < this.size; i++)
+			this.map.put(i << 1, i);
+	}
+
+	/**
+	 * Looks up or stores the value of a random key.
+	 */
+	@Benchmark
+	public Integer readWrite() {
+		Integer key = Workload.nextKey(this.size << 1);
+		return Workload.isWrite(this.writePercent) ? this.map.put(key, key) : this.map.get(key);
+	}
+
+}
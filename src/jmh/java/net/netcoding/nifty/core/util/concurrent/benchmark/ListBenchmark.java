@@ -0,0 +1,94 @@
+package net.netcoding.nifty.core.util.concurrent.benchmark;
+
+import net.netcoding.nifty.core.util.concurrent.Concurrent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the concurrent lists against their {@code java.util.concurrent} equivalents.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListBenchmark {
+
+	@Param({ "ConcurrentList", "ConcurrentVectorList", "ConcurrentStampedList", "CopyOnWriteArrayList", "SynchronizedList" })
+	private String type;
+
+	@Param({ "1000", "10000", "100000" })
+	private int size;
+
+	@Param({ "0", "10", "50" })
+	private int writePercent;
+
+	private List<Integer> list;
+
+	@Setup
+	public void setup() {
+		List<Integer> values = new ArrayList<>(this.size);
+
+		for (int i = 0; i < this.size; i++)
+			values.add(i);
+
+		switch (this.type) {
+			case "ConcurrentList":
+				this.list = Concurrent.newList(values);
+				break;
+			case "ConcurrentVectorList":
+				this.list = Concurrent.newVectorList(values);
+				break;
+			case "ConcurrentStampedList":
+				this.list = Concurrent.newStampedList(values);
+				break;
+			case "CopyOnWriteArrayList":
+				this.list = new CopyOnWriteArrayList<>(values);
+				break;
+			default:
+				this.list = Collections.synchronizedList(values);
+		}
+	}
+
+	/**
+	 * Reads an element at a random index, or appends an element and removes
+	 * the first, keeping the size constant.
+	 */
+	@Benchmark
+	public Integer readWriteEnds() {
+		int index = Workload.nextKey(this.size);
+
+		if (Workload.isWrite(this.writePercent)) {
+			this.list.add(index);
+			return this.list.remove(0);
+		}
+
+		return this.list.get(index);
+	}
+
+	/**
+	 * Reads or replaces an element at a random index.
+	 */
+	@Benchmark
+	public Integer readWrite() {
+		int index = Workload.nextKey(this.size);
+		return Workload.isWrite(this.writePercent) ? this.list.set(index, index) : this.list.get(index);
+	}
+
+}
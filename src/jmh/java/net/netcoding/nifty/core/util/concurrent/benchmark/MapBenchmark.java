@@ -0,0 +1,72 @@
+package net.netcoding.nifty.core.util.concurrent.benchmark;
+
+import net.netcoding.nifty.core.util.concurrent.Concurrent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the concurrent map against its {@code java.util.concurrent} equivalents.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapBenchmark {
+
+	@Param({ "ConcurrentMap", "ConcurrentHashMap", "SynchronizedMap" })
+	private String type;
+
+	@Param({ "1000", "10000", "100000" })
+	private int size;
+
+	@Param({ "0", "10", "50", "100" })
+	private int writePercent;
+
+	private Map<Integer, Integer> map;
+
+	@Setup
+	public void setup() {
+		Map<Integer, Integer> values = new HashMap<>(this.size);
+
+		for (int i = 0; i < this.size; i++)
+			values.put(i, i);
+
+		switch (this.type) {
+			case "ConcurrentMap":
+				this.map = Concurrent.newMap(values);
+				break;
+			case "ConcurrentHashMap":
+				this.map = new ConcurrentHashMap<>(values);
+				break;
+			default:
+				this.map = Collections.synchronizedMap(values);
+		}
+	}
+
+	/**
+	 * Looks up or replaces the value of a random key.
+	 */
+	@Benchmark
+	public Integer readWrite() {
+		Integer key = Workload.nextKey(this.size);
+		return Workload.isWrite(this.writePercent) ? this.map.put(key, key) : this.map.get(key);
+	}
+
+}
@@ -0,0 +1,69 @@
+package net.netcoding.nifty.core.util.concurrent.benchmark;
+
+import net.netcoding.nifty.core.util.concurrent.Concurrent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the concurrent queues against their {@code java.util.concurrent} equivalents.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueueBenchmark {
+
+	@Param({ "ConcurrentQueue", "ConcurrentBlockingQueue", "ConcurrentLinkedQueue", "LinkedBlockingQueue" })
+	private String type;
+
+	@Param({ "0", "1000" })
+	private int size;
+
+	private Queue<Integer> queue;
+
+	@Setup
+	public void setup() {
+		switch (this.type) {
+			case "ConcurrentQueue":
+				this.queue = Concurrent.newQueue();
+				break;
+			case "ConcurrentBlockingQueue":
+				this.queue = Concurrent.newBlockingQueue();
+				break;
+			case "ConcurrentLinkedQueue":
+				this.queue = new ConcurrentLinkedQueue<>();
+				break;
+			default:
+				this.queue = new LinkedBlockingQueue<>();
+		}
+
+		for (int i = 0; i < this.size; i++)
+			this.queue.offer(i);
+	}
+
+	/**
+	 * Offers an element and polls the head, keeping the size constant.
+	 */
+	@Benchmark
+	public Integer offerAndPoll() {
+		this.queue.offer(this.size);
+		return this.queue.poll();
+	}
+
+}
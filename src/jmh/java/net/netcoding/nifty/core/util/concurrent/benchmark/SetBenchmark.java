@@ -0,0 +1,77 @@
+package net.netcoding.nifty.core.util.concurrent.benchmark;
+
+import net.netcoding.nifty.core.util.concurrent.Concurrent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the concurrent set against its {@code java.util.concurrent} equivalents.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SetBenchmark {
+
+	@Param({ "ConcurrentSet", "ConcurrentHashMapKeySet", "SynchronizedSet" })
+	private String type;
+
+	@Param({ "1000", "10000", "100000" })
+	private int size;
+
+	@Param({ "0", "10", "50" })
+	private int writePercent;
+
+	private Set<Integer> set;
+
+	@Setup
+	public void setup() {
+		Set<Integer> values = new HashSet<>(this.size);
+
+		for (int i = 0; i < this.size; i++)
+			values.add(i << 1);
+
+		switch (this.type) {
+			case "ConcurrentSet":
+				this.set = Concurrent.newSet(values);
+				break;
+			case "ConcurrentHashMapKeySet":
+				this.set = ConcurrentHashMap.newKeySet(this.size);
+				this.set.addAll(values);
+				break;
+			default:
+				this.set = Collections.synchronizedSet(values);
+		}
+	}
+
+	/**
+	 * Looks up a random element, or toggles whether it is present.
+	 */
+	@Benchmark
+	public boolean readWrite() {
+		Integer element = Workload.nextKey(this.size << 1);
+
+		if (Workload.isWrite(this.writePercent))
+			return this.set.add(element) || this.set.remove(element);
+
+		return this.set.contains(element);
+	}
+
+}
@@ -0,0 +1,28 @@
+package net.netcoding.nifty.core.util.concurrent.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the operations of a mixed read and write workload.
+ */
+final class Workload {
+
+	private Workload() { }
+
+	/**
+	 * Gets a random index or key below the given bound.
+	 */
+	static int nextKey(int bound) {
+		return ThreadLocalRandom.current().nextInt(bound);
+	}
+
+	/**
+	 * Gets if the next operation should be a write.
+	 *
+	 * @param writePercent Percentage of operations that are writes.
+	 */
+	static boolean isWrite(int writePercent) {
+		return ThreadLocalRandom.current().nextInt(100) < writePercent;
+	}
+
+}
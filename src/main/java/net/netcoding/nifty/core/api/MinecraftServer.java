@@ -2,7 +2,8 @@ package net.netcoding.nifty.core.api;
 
 import net.netcoding.nifty.core.mojang.MojangProfile;
 import net.netcoding.nifty.core.util.concurrent.Concurrent;
-import net.netcoding.nifty.core.util.concurrent.ConcurrentSet;
+import net.netcoding.nifty.core.util.concurrent.ConcurrentIndexedSet;
+import net.netcoding.nifty.core.util.concurrent.trie.KeyIndex;
 
 import java.net.InetSocketAddress;
 import java.util.Collection;
@@ -11,11 +12,20 @@ import java.util.UUID;
 
 public abstract class MinecraftServer<T extends MojangProfile> implements IServer<T> {
 
+	private final KeyIndex<T, String> nameIndex = KeyIndex.ignoreCase(T::getName);
+	private final KeyIndex<T, UUID> uniqueIdIndex = KeyIndex.of(T::getUniqueId);
 	protected InetSocketAddress address;
 	protected int maxPlayers = 0;
 	protected String motd = "";
 	protected boolean online = false;
-	protected final ConcurrentSet<T> playerList = Concurrent.newSet();
+	/**
+	 * Players on this server, indexed by name ignoring case and by unique id.
+	 * <p>
+	 * This was a {@code ConcurrentSet<T>} before. It is still an
+	 * {@code AtomicSet} and a {@link java.util.Set}, but can no longer be
+	 * assigned or passed as a {@code ConcurrentSet}.
+	 */
+	protected final ConcurrentIndexedSet<T> playerList = Concurrent.newIndexedSet(this.nameIndex, this.uniqueIdIndex);
 	protected String serverName = "";
 	protected Version version = Version.DEFAULT;
 
@@ -59,22 +69,12 @@ public abstract class MinecraftServer<T extends MojangProfile> implements IServe
 
 	@Override
 	public final T getPlayer(String name) {
-		for (T profile : this.getPlayerList()) {
-			if (profile.getName().equalsIgnoreCase(name))
-				return profile;
-		}
-
-		return null;
+		return this.playerList.get(this.nameIndex, name);
 	}
 
 	@Override
 	public final T getPlayer(UUID uniqueId) {
-		for (T profile : this.getPlayerList()) {
-			if (profile.getUniqueId().equals(uniqueId))
-				return profile;
-		}
-
-		return null;
+		return this.playerList.get(this.uniqueIdIndex, uniqueId);
 	}
 
 	@Override
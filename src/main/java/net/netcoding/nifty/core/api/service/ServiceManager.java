@@ -6,7 +6,8 @@ import net.netcoding.nifty.core.api.service.exceptions.RegisteredServiceExceptio
 import net.netcoding.nifty.core.api.service.exceptions.UnknownServiceException;
 import net.netcoding.nifty.core.util.StringUtil;
 import net.netcoding.nifty.core.util.concurrent.Concurrent;
-import net.netcoding.nifty.core.util.concurrent.ConcurrentSet;
+import net.netcoding.nifty.core.util.concurrent.ConcurrentIndexedSet;
+import net.netcoding.nifty.core.util.concurrent.trie.KeyIndex;
 
 /**
  * Manager for containing services that assist in instance access.
@@ -18,7 +19,8 @@ import net.netcoding.nifty.core.util.concurrent.ConcurrentSet;
 @SuppressWarnings("unchecked")
 public class ServiceManager<P> {
 
-	private final transient ConcurrentSet<ServiceProvider> SERVICES = Concurrent.newSet();
+	private final transient KeyIndex<ServiceProvider<?, P>, String> SERVICE_INDEX = KeyIndex.of(provider -> provider.getService().getName());
+	private final transient ConcurrentIndexedSet<ServiceProvider<?, P>> SERVICES = Concurrent.newIndexedSet(SERVICE_INDEX);
 
 	/**
 	 * Checks if the given service class has a registered instance.
@@ -28,13 +30,7 @@ public class ServiceManager<P> {
 	 */
 	public final boolean isRegistered(Class<?> service) {
 		Preconditions.checkArgument(service != null, "Service cannot be NULL!");
-
-		for (ServiceProvider provider : SERVICES) {
-			if (provider.getService().getName().equals(service.getName()))
-				return true;
-		}
-
-		return false;
+		return SERVICES.containsKey(SERVICE_INDEX, service.getName());
 	}
 
 	/**
@@ -47,12 +43,8 @@ public class ServiceManager<P> {
 	 * @see #isRegistered(Class)
 	 */
 	public final <T> ServiceProvider<T, P> getServiceProvider(Class<T> service) throws UnknownServiceException {
-		if (this.isRegistered(service)) {
-			for (ServiceProvider provider : SERVICES) {
-				if (provider.getService().getName().equals(service.getName()))
-					return provider;
-			}
-		}
+		if (this.isRegistered(service))
+			return (ServiceProvider<T, P>)SERVICES.get(SERVICE_INDEX, service.getName());
 
 		for (ServiceProvider provider : SERVICES) {
 			if (provider.getService().isAssignableFrom(service)) {
@@ -4,6 +4,7 @@ import net.netcoding.nifty.core.database.factory.SQLWrapper;
 import net.netcoding.nifty.core.util.StringUtil;
 
 import java.sql.SQLException;
+import java.util.Properties;
 
 public class MySQL extends SQLWrapper {
 
@@ -14,7 +15,16 @@ public class MySQL extends SQLWrapper {
 	}
 
 	public MySQL(String host, int port, String user, String pass, String schema) throws SQLException {
-		super("com.mysql.jdbc.Driver", StringUtil.format("jdbc:mysql://{0}:{1,number,#}/{2}", host, port, schema), user, pass);
+		super("com.mysql.jdbc.Driver", StringUtil.format("jdbc:mysql://{0}:{1,number,#}/{2}", host, port, schema), newProperties(user, pass));
+		this.setFetchSize(Integer.MIN_VALUE);
+	}
+
+	private static Properties newProperties(String user, String pass) {
+		Properties properties = new Properties();
+		properties.setProperty("user", user);
+		properties.setProperty("password", pass);
+		properties.setProperty("rewriteBatchedStatements", "true");
+		return properties;
 	}
 
 	/**
@@ -0,0 +1,39 @@
+package net.netcoding.nifty.core.database.factory;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Represents what happens to asynchronous sql tasks submitted while the
+ * queue of a {@link SQLFactory} is full.
+ */
+public enum Backpressure implements RejectedExecutionHandler {
+
+	/**
+	 * Fails the returned future with a {@link RejectedExecutionException}.
+	 */
+	REJECT {
+		@Override
+		public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+			throw new RejectedExecutionException("Asynchronous sql queue is full!");
+		}
+	},
+	/**
+	 * Runs the task on the submitting thread, slowing it down to the pace of
+	 * the database.
+	 * <p>
+	 * Only use this when tasks are never submitted from the main thread of the
+	 * server, which would block on the database while it stalls.
+	 */
+	CALLER_RUNS {
+		@Override
+		public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+			if (executor.isShutdown())
+				throw new RejectedExecutionException("Asynchronous sql executor is shut down!");
+
+			task.run();
+		}
+	}
+
+}
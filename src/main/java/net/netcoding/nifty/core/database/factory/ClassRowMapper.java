@@ -0,0 +1,286 @@
+package net.netcoding.nifty.core.database.factory;
+
+import net.netcoding.nifty.core.database.factory.callbacks.RowMapper;
+import net.netcoding.nifty.core.util.StringUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Maps rows to new instances of a class, assigning each column to the setter
+ * or field of the same name.
+ * <p>
+ * Names are matched ignoring case and underscores, so the column
+ * {@code user_id} is assigned with {@code setUserId} or to {@code userId}, and
+ * columns without a match are skipped. Classes that are read from a single
+ * column, such as {@link String} or {@link UUID}, are mapped from the first
+ * column instead.
+ * <p>
+ * The mapping is compiled on first use from the metadata of the result into
+ * method handles that read each column by index, so a mapper must only be
+ * used for queries returning the same columns. See
+ * {@link SQLFactory#getRowMapper(String, Class)} for mappers cached per query.
+ */
+public final class ClassRowMapper<T> implements RowMapper<T> {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType COLUMN_TYPE = MethodType.methodType(void.class, Object.class, ResultSet.class);
+	private static final Map<Class<?>, MethodHandle> READERS = new HashMap<>();
+	private static final MethodHandle ENUM_READER;
+	private static final MethodHandle OBJECT_READER;
+	private final Class<T> type;
+	private final MethodHandle constructor;
+	private volatile MethodHandle[] columns;
+
+	static {
+		try {
+			reader(boolean.class, ResultSet.class, "getBoolean");
+			reader(byte.class, ResultSet.class, "getByte");
+			reader(short.class, ResultSet.class, "getShort");
+			reader(int.class, ResultSet.class, "getInt");
+			reader(long.class, ResultSet.class, "getLong");
+			reader(float.class, ResultSet.class, "getFloat");
+			reader(double.class, ResultSet.class, "getDouble");
+			reader(Boolean.class, ClassRowMapper.class, "getBoolean");
+			reader(Byte.class, ClassRowMapper.class, "getByte");
+			reader(Short.class, ClassRowMapper.class, "getShort");
+			reader(Integer.class, ClassRowMapper.class, "getInteger");
+			reader(Long.class, ClassRowMapper.class, "getLong");
+			reader(Float.class, ClassRowMapper.class, "getFloat");
+			reader(Double.class, ClassRowMapper.class, "getDouble");
+			reader(String.class, ResultSet.class, "getString");
+			reader(BigDecimal.class, ResultSet.class, "getBigDecimal");
+			reader(byte[].class, ResultSet.class, "getBytes");
+			reader(java.sql.Date.class, ResultSet.class, "getDate");
+			reader(Time.class, ResultSet.class, "getTime");
+			reader(Timestamp.class, ResultSet.class, "getTimestamp");
+			READERS.put(java.util.Date.class, READERS.get(Timestamp.class));
+			reader(Instant.class, ClassRowMapper.class, "getInstant");
+			reader(LocalDate.class, ClassRowMapper.class, "getLocalDate");
+			reader(LocalDateTime.class, ClassRowMapper.class, "getLocalDateTime");
+			reader(UUID.class, ClassRowMapper.class, "getUUID");
+			ENUM_READER = LOOKUP.findStatic(ClassRowMapper.class, "getEnum", MethodType.methodType(Enum.class, ResultSet.class, int.class, Class.class));
+			OBJECT_READER = LOOKUP.findVirtual(ResultSet.class, "getObject", MethodType.methodType(Object.class, int.class));
+		} catch (ReflectiveOperationException roex) {
+			throw new ExceptionInInitializerError(roex);
+		}
+	}
+
+	/**
+	 * Create a new mapper for the given class.
+	 *
+	 * @param type Class to create an instance of for each row.
+	 * @throws IllegalArgumentException When the class cannot be read from a
+	 * column and has no constructor without parameters.
+	 */
+	public ClassRowMapper(Class<T> type) {
+		this.type = Objects.requireNonNull(type);
+
+		if (isColumnType(type))
+			this.constructor = null;
+		else {
+			if (type.isInterface() || Modifier.isAbstract(type.getModifiers()))
+				throw new IllegalArgumentException(StringUtil.format("Cannot map rows to abstract class {0}!", type.getName()));
+
+			try {
+				Constructor<T> constructor = type.getDeclaredConstructor();
+				constructor.setAccessible(true);
+				this.constructor = LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+			} catch (ReflectiveOperationException roex) {
+				throw new IllegalArgumentException(StringUtil.format("Cannot map rows to {0} without a constructor without parameters!", type.getName()), roex);
+			}
+		}
+	}
+
+	private MethodHandle[] compile(ResultSetMetaData metaData) throws SQLException {
+		if (this.constructor == null)
+			return new MethodHandle[] { MethodHandles.insertArguments(readerOf(this.type), 1, 1).asType(MethodType.methodType(Object.class, ResultSet.class)) };
+
+		Map<String, MethodHandle> setters = this.findSetters();
+		List<MethodHandle> columns = new ArrayList<>();
+
+		for (int i = 1; i <= metaData.getColumnCount(); i++) {
+			MethodHandle setter = setters.get(normalize(metaData.getColumnLabel(i)));
+
+			if (setter != null) {
+				Class<?> parameter = setter.type().parameterType(1);
+				MethodHandle reader = MethodHandles.insertArguments(readerOf(parameter), 1, i).asType(MethodType.methodType(parameter, ResultSet.class));
+				columns.add(MethodHandles.collectArguments(setter, 1, reader).asType(COLUMN_TYPE));
+			}
+		}
+
+		return columns.toArray(new MethodHandle[columns.size()]);
+	}
+
+	private Map<String, MethodHandle> findSetters() {
+		Map<String, MethodHandle> setters = new HashMap<>();
+
+		for (Class<?> current = this.type; current != null && current != Object.class; current = current.getSuperclass()) {
+			for (Field field : current.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+
+				if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic())
+					continue;
+
+				try {
+					field.setAccessible(true);
+					setters.putIfAbsent(normalize(field.getName()), LOOKUP.unreflectSetter(field));
+				} catch (ReflectiveOperationException | RuntimeException ignore) { }
+			}
+		}
+
+		for (Method method : this.type.getMethods()) {
+			if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1 || method.getName().length() <= 3 || !method.getName().startsWith("set"))
+				continue;
+
+			try {
+				setters.put(normalize(method.getName().substring(3)), LOOKUP.unreflect(method).asType(MethodType.methodType(void.class, this.type, method.getParameterTypes()[0])));
+			} catch (ReflectiveOperationException | RuntimeException ignore) { }
+		}
+
+		return setters;
+	}
+
+	/**
+	 * Gets the class rows are mapped to.
+	 *
+	 * @return Class created for each row.
+	 */
+	public Class<T> getType() {
+		return this.type;
+	}
+
+	private static boolean isColumnType(Class<?> type) {
+		return READERS.containsKey(type) || type.isEnum();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T map(ResultSet result) throws SQLException {
+		MethodHandle[] columns = this.columns;
+
+		if (columns == null)
+			this.columns = columns = this.compile(result.getMetaData());
+
+		try {
+			if (this.constructor == null)
+				return (T)(Object)columns[0].invokeExact(result);
+
+			Object instance = (Object)this.constructor.invokeExact();
+
+			for (MethodHandle column : columns)
+				column.invokeExact(instance, result);
+
+			return (T)instance;
+		} catch (SQLException | RuntimeException | Error ex) {
+			throw ex;
+		} catch (Throwable throwable) {
+			throw new SQLException(StringUtil.format("Unable to map row to {0}!", this.type.getName()), throwable);
+		}
+	}
+
+	private static String normalize(String name) {
+		return name.replace("_", "").toLowerCase(Locale.ENGLISH);
+	}
+
+	private static void reader(Class<?> type, Class<?> owner, String name) throws ReflectiveOperationException {
+		if (owner == ResultSet.class)
+			READERS.put(type, LOOKUP.findVirtual(owner, name, MethodType.methodType(type, int.class)));
+		else
+			READERS.put(type, LOOKUP.findStatic(owner, name, MethodType.methodType(type, ResultSet.class, int.class)));
+	}
+
+	private static MethodHandle readerOf(Class<?> type) {
+		MethodHandle reader = READERS.get(type);
+
+		if (reader != null)
+			return reader;
+		else if (type.isEnum())
+			return MethodHandles.insertArguments(ENUM_READER, 2, type).asType(MethodType.methodType(type, ResultSet.class, int.class));
+		else
+			return OBJECT_READER.asType(MethodType.methodType(type, ResultSet.class, int.class));
+	}
+
+	private static Boolean getBoolean(ResultSet result, int column) throws SQLException {
+		boolean value = result.getBoolean(column);
+		return result.wasNull() ? null : value;
+	}
+
+	private static Byte getByte(ResultSet result, int column) throws SQLException {
+		byte value = result.getByte(column);
+		return result.wasNull() ? null : value;
+	}
+
+	private static Double getDouble(ResultSet result, int column) throws SQLException {
+		double value = result.getDouble(column);
+		return result.wasNull() ? null : value;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Enum getEnum(ResultSet result, int column, Class type) throws SQLException {
+		String value = result.getString(column);
+		return value == null ? null : Enum.valueOf(type, value);
+	}
+
+	private static Float getFloat(ResultSet result, int column) throws SQLException {
+		float value = result.getFloat(column);
+		return result.wasNull() ? null : value;
+	}
+
+	private static Instant getInstant(ResultSet result, int column) throws SQLException {
+		Timestamp value = result.getTimestamp(column);
+		return value == null ? null : value.toInstant();
+	}
+
+	private static Integer getInteger(ResultSet result, int column) throws SQLException {
+		int value = result.getInt(column);
+		return result.wasNull() ? null : value;
+	}
+
+	private static LocalDate getLocalDate(ResultSet result, int column) throws SQLException {
+		java.sql.Date value = result.getDate(column);
+		return value == null ? null : value.toLocalDate();
+	}
+
+	private static LocalDateTime getLocalDateTime(ResultSet result, int column) throws SQLException {
+		Timestamp value = result.getTimestamp(column);
+		return value == null ? null : value.toLocalDateTime();
+	}
+
+	private static Long getLong(ResultSet result, int column) throws SQLException {
+		long value = result.getLong(column);
+		return result.wasNull() ? null : value;
+	}
+
+	private static Short getShort(ResultSet result, int column) throws SQLException {
+		short value = result.getShort(column);
+		return result.wasNull() ? null : value;
+	}
+
+	private static UUID getUUID(ResultSet result, int column) throws SQLException {
+		String value = result.getString(column);
+		return value == null ? null : UUID.fromString(value);
+	}
+
+}
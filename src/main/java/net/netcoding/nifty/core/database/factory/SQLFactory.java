@@ -1,14 +1,16 @@
 package net.netcoding.nifty.core.database.factory;
 
 import net.netcoding.nifty.core.database.factory.callbacks.ResultCallback;
+import net.netcoding.nifty.core.database.factory.callbacks.RowMapper;
+import net.netcoding.nifty.core.database.metrics.SQLMetrics;
 import net.netcoding.nifty.core.util.StringUtil;
 import net.netcoding.nifty.core.database.factory.callbacks.VoidResultCallback;
-import net.netcoding.nifty.core.api.scheduler.MinecraftScheduler;
 
 import java.io.File;
 import java.io.IOException;
 import java.sql.Blob;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.Date;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -17,16 +19,49 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Factory sql classes to be inherited from when creating a wrapper.
+ * <p>
+ * Asynchronous methods run on an executor owned by this factory rather than
+ * the shared scheduler of the server, so a stalled database cannot starve
+ * other plugins. Its queue is bounded, see {@link Backpressure} for what
+ * happens when it is full, and failures complete the returned future.
  */
 public abstract class SQLFactory {
 
+	private static final int DEFAULT_ASYNC_QUEUE_CAPACITY = 1024;
+	private static final int DEFAULT_FETCH_SIZE = 1000;
+	private static final int INITIAL_BATCH_COUNTS = 256;
+	private static final int MAXIMUM_ROW_MAPPERS = 256;
+	private static final long DEFAULT_METADATA_CACHE_TIME = TimeUnit.MINUTES.toMillis(5);
+	private static final String MYSQL_METADATA = "SELECT c.TABLE_NAME, c.COLUMN_NAME, s.INDEX_NAME, s.SEQ_IN_INDEX, s.NON_UNIQUE FROM INFORMATION_SCHEMA.COLUMNS c LEFT JOIN INFORMATION_SCHEMA.STATISTICS s ON s.TABLE_SCHEMA = c.TABLE_SCHEMA AND s.TABLE_NAME = c.TABLE_NAME AND s.COLUMN_NAME = c.COLUMN_NAME WHERE c.TABLE_SCHEMA = ? ORDER BY c.TABLE_NAME, c.ORDINAL_POSITION;";
+	private static final long ASYNC_KEEP_ALIVE_SECONDS = 60;
+	private static final AtomicInteger ASYNC_THREAD_ID = new AtomicInteger();
 	private final String driver;
 	private final boolean driverAvailable;
 	private final String url;
@@ -35,6 +70,16 @@ public abstract class SQLFactory {
 	private String product;
 	private String schema;
 	private String quote = " ";
+	private volatile SQLMetrics metrics = SQLMetrics.DISABLED;
+	private volatile ThreadPoolExecutor executor;
+	private volatile Backpressure backpressure = Backpressure.REJECT;
+	private int asyncQueueCapacity = DEFAULT_ASYNC_QUEUE_CAPACITY;
+	private volatile int fetchSize = DEFAULT_FETCH_SIZE;
+	private final ConcurrentHashMap<MapperKey, ClassRowMapper<?>> rowMappers = new ConcurrentHashMap<>();
+	private final Object metadataLock = new Object();
+	private final AtomicInteger metadataGeneration = new AtomicInteger();
+	private volatile SchemaMetadata metadata;
+	private volatile long metadataCacheTime = DEFAULT_METADATA_CACHE_TIME;
 
 	/**
 	 * Create a new factory instance.
@@ -150,41 +195,40 @@ public abstract class SQLFactory {
 		}
 	}
 
+	private static int[] appendCounts(int[] counts, int size, int[] chunk) {
+		if (size + chunk.length > counts.length)
+			counts = Arrays.copyOf(counts, Math.max(counts.length << 1, size + chunk.length));
+
+		System.arraycopy(chunk, 0, counts, size, chunk.length);
+		return counts;
+	}
+
 	/**
 	 * Gets if the given column name exists in the given table for the current DBMS.
+	 * <p>
+	 * Names are matched ignoring case, {@code %} and {@code _} are not
+	 * treated as patterns.
 	 *
 	 * @param tableName Table name to use.
 	 * @param columnName Column name to check existence of.
 	 * @return True if column exists.
 	 */
 	public final boolean checkColumnExists(String tableName, String columnName) throws SQLException {
-		boolean exists;
-
-		try (Connection connection = this.getConnection()) {
-			try (ResultSet result = connection.getMetaData().getColumns((this.fileStorage ? null : this.schema), null, tableName, columnName)) {
-				exists = result.next();
-			}
-		}
-
-		return exists;
+		TableMetadata table = this.getTableMetadata(tableName);
+		return table != null && table.hasColumn(columnName);
 	}
 
 	/**
 	 * Gets if the given table name exists for the current DBMS.
+	 * <p>
+	 * Names are matched ignoring case, {@code %} and {@code _} are not
+	 * treated as patterns.
 	 *
 	 * @param tableName Table name to check existence of.
 	 * @return True if table exists.
 	 */
 	public final boolean checkTableExists(String tableName) throws SQLException {
-		boolean exists;
-
-		try (Connection connection = this.getConnection()) {
-			try (ResultSet result = connection.getMetaData().getTables((this.fileStorage ? null : this.schema), null, tableName, null)) {
-				exists = result.next();
-			}
-		}
-
-		return exists;
+		return this.getTableMetadata(tableName) != null;
 	}
 
 	/**
@@ -196,10 +240,14 @@ public abstract class SQLFactory {
 	 */
 	@SuppressWarnings("JDBCExecuteWithNonConstantString")
 	public final boolean createTable(String tableName, String sql) throws SQLException {
-		try (Connection connection = this.getConnection()) {
-			try (Statement statement = connection.createStatement()) {
-				return statement.executeUpdate(StringUtil.format("CREATE TABLE IF NOT EXISTS {0}{1}{2}{1} ({3}){4};", (this.fileStorage ? "" : StringUtil.format("{0}{1}{0}.", this.getIdentifierQuoteString(), this.getSchema())), this.getIdentifierQuoteString(), tableName, sql, ("MySQL".equalsIgnoreCase(this.getProduct()) ? " ENGINE=InnoDB" : ""))) > 0;
+		try {
+			try (Connection connection = this.getConnection()) {
+				try (Statement statement = connection.createStatement()) {
+					return statement.executeUpdate(StringUtil.format("CREATE TABLE IF NOT EXISTS {0}{1}{2}{1} ({3}){4};", (this.fileStorage ? "" : StringUtil.format("{0}{1}{0}.", this.getIdentifierQuoteString(), this.getSchema())), this.getIdentifierQuoteString(), tableName, sql, ("MySQL".equalsIgnoreCase(this.getProduct()) ? " ENGINE=InnoDB" : ""))) > 0;
+				}
 			}
+		} finally {
+			this.invalidateMetadata();
 		}
 	}
 
@@ -208,13 +256,10 @@ public abstract class SQLFactory {
 	 *
 	 * @param tableName Name of the table.
 	 * @param sql Table fields and constraints.
+	 * @return Future completed with true if the table was created.
 	 */
-	public final void createTableAsync(final String tableName, final String sql) {
-		MinecraftScheduler.getInstance().runAsync(() -> {
-			try {
-				createTable(tableName, sql);
-			} catch (SQLException ignore) { }
-		});
+	public final CompletableFuture<Boolean> createTableAsync(final String tableName, final String sql) {
+		return this.submitAsync(() -> this.createTable(tableName, sql));
 	}
 
 	/**
@@ -223,26 +268,92 @@ public abstract class SQLFactory {
 	 * @param tableName Name of the table.
 	 */
 	public final void dropTable(String tableName) throws SQLException {
-		this.update("DROP TABLE IF EXISTS ?;", tableName);
+		try {
+			this.update("DROP TABLE IF EXISTS ?;", tableName);
+		} finally {
+			this.invalidateMetadata();
+		}
 	}
 
 	/**
 	 * Get all columns belonging to a table.
+	 * <p>
+	 * The table name is matched ignoring case, {@code %} and {@code _} are
+	 * not treated as patterns.
 	 *
 	 * @param tableName Table name to get columns from.
 	 * @return All columns belonging to the passed table name.
 	 */
 	public final Set<String> getColumns(String tableName) throws SQLException {
-		Set<String> columns = new HashSet<>();
+		TableMetadata table = this.getTableMetadata(tableName);
+		return table == null ? new HashSet<>() : new HashSet<>(table.getColumns());
+	}
 
-		try (Connection connection = this.getConnection()) {
-			try (ResultSet result = connection.getMetaData().getColumns((this.fileStorage ? null : this.schema), null, tableName, null)) {
-				while (result.next())
-					columns.add(result.getString("COLUMN_NAME"));
+	/**
+	 * Runs the given query once per row on the given connection, without
+	 * committing, sending the rows in batches of the given size.
+	 */
+	final int[] executeBatch(Connection connection, String sql, Iterable<Object[]> rows, int chunkSize) throws SQLException {
+		SQLMetrics metrics = this.metrics;
+		long start = metrics.isEnabled() ? System.nanoTime() : 0;
+
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			int[] counts = new int[Math.min(chunkSize, INITIAL_BATCH_COUNTS)];
+			int size = 0;
+			int pending = 0;
+
+			for (Object[] args : rows) {
+				assignArgs(statement, args);
+				statement.addBatch();
+
+				if (++pending == chunkSize) {
+					int[] chunk = statement.executeBatch();
+					counts = appendCounts(counts, size, chunk);
+					size += chunk.length;
+					pending = 0;
+				}
 			}
+
+			if (pending > 0) {
+				int[] chunk = statement.executeBatch();
+				counts = appendCounts(counts, size, chunk);
+				size += chunk.length;
+			}
+
+			return Arrays.copyOf(counts, size);
+		} finally {
+			if (metrics.isEnabled())
+				metrics.recordExecution(sql, System.nanoTime() - start);
 		}
+	}
 
-		return columns;
+	/**
+	 * Gets the number of asynchronous tasks that can wait for a thread
+	 * before {@link #getBackpressure() backpressure} applies.
+	 *
+	 * @return Capacity of the asynchronous queue.
+	 */
+	public final int getAsyncQueueCapacity() {
+		return this.asyncQueueCapacity;
+	}
+
+	/**
+	 * Gets the number of threads running asynchronous tasks, read once when
+	 * the first asynchronous task is submitted.
+	 *
+	 * @return Maximum number of asynchronous threads.
+	 */
+	protected int getAsyncThreads() {
+		return 1;
+	}
+
+	/**
+	 * Gets what happens to asynchronous tasks submitted while the queue is full.
+	 *
+	 * @return Current backpressure, {@link Backpressure#REJECT} by default.
+	 */
+	public final Backpressure getBackpressure() {
+		return this.backpressure;
 	}
 
 	/**
@@ -273,6 +384,54 @@ public abstract class SQLFactory {
 		return this.quote;
 	}
 
+	private ThreadPoolExecutor getExecutor() {
+		ThreadPoolExecutor executor = this.executor;
+
+		if (executor == null) {
+			synchronized (this) {
+				if ((executor = this.executor) == null) {
+					int threads = Math.max(1, this.getAsyncThreads());
+					executor = new ThreadPoolExecutor(threads, threads, ASYNC_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<>(this.getAsyncQueueCapacity()), task -> {
+						Thread thread = new Thread(task, StringUtil.format("SQLFactory Worker #{0,number,#}", ASYNC_THREAD_ID.incrementAndGet()));
+						thread.setDaemon(true);
+						return thread;
+					}, this.getBackpressure());
+					executor.allowCoreThreadTimeOut(true);
+					this.executor = executor;
+				}
+			}
+		}
+
+		return executor;
+	}
+
+	/**
+	 * Gets the time table metadata is cached for before being loaded again.
+	 *
+	 * @return Metadata cache time in milliseconds, 0 if disabled.
+	 */
+	public final long getMetadataCacheTime() {
+		return this.metadataCacheTime;
+	}
+
+	/**
+	 * Gets the metrics receiving the timings of this DBMS.
+	 *
+	 * @return Current metrics, {@link SQLMetrics#DISABLED} by default.
+	 */
+	public final SQLMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * Gets the number of rows fetched at once by streamed queries.
+	 *
+	 * @return Fetch size of streamed queries.
+	 */
+	public final int getFetchSize() {
+		return this.fetchSize;
+	}
+
 	/**
 	 * Gets the current DBMS product name.
 	 *
@@ -291,6 +450,30 @@ public abstract class SQLFactory {
 		return this.properties;
 	}
 
+	/**
+	 * Gets a mapper of the rows returned by the given query to the given
+	 * class, compiled once and cached per query and class.
+	 *
+	 * @param sql Query the mapper is used for.
+	 * @param type Class to create an instance of for each row.
+	 * @return Mapper of the rows to the given class.
+	 * @see ClassRowMapper
+	 */
+	@SuppressWarnings("unchecked")
+	public final <T> RowMapper<T> getRowMapper(String sql, Class<T> type) {
+		MapperKey key = new MapperKey(sql, type);
+		ClassRowMapper<?> mapper = this.rowMappers.get(key);
+
+		if (mapper == null) {
+			if (this.rowMappers.size() < MAXIMUM_ROW_MAPPERS)
+				mapper = this.rowMappers.computeIfAbsent(key, k -> new ClassRowMapper<>(type));
+			else
+				mapper = new ClassRowMapper<>(type);
+		}
+
+		return (RowMapper<T>)mapper;
+	}
+
 	/**
 	 * Gets the schema for this DBMS.
 	 *
@@ -300,22 +483,40 @@ public abstract class SQLFactory {
 		return this.schema;
 	}
 
+	private Map<String, TableMetadata> getSchemaMetadata() throws SQLException {
+		SchemaMetadata metadata = this.metadata;
+
+		if (this.isCurrent(metadata))
+			return metadata.tables;
+
+		synchronized (this.metadataLock) {
+			if (this.isCurrent(metadata = this.metadata))
+				return metadata.tables;
+
+			int generation = this.metadataGeneration.get();
+			this.metadata = metadata = new SchemaMetadata(this.loadMetadata(), generation);
+			return metadata.tables;
+		}
+	}
+
 	/**
 	 * Get all tables in the current schema.
 	 *
 	 * @return All tables names in the current schema.
 	 */
 	public final Set<String> getTables() throws SQLException {
-		Set<String> tables = new HashSet<>();
-
-		try (Connection connection = this.getConnection()) {
-			try (ResultSet result = connection.getMetaData().getTables((this.fileStorage ? null : this.schema), null, "%", null)) {
-				while (result.next())
-					tables.add(result.getString("TABLE_NAME"));
-			}
-		}
+		return new HashSet<>(this.getSchemaMetadata().keySet());
+	}
 
-		return tables;
+	/**
+	 * Gets the columns, primary key and indexes of the given table, matching
+	 * its name ignoring case.
+	 *
+	 * @param tableName Table name to get metadata of.
+	 * @return Metadata of the table, or null if it does not exist.
+	 */
+	public final TableMetadata getTableMetadata(String tableName) throws SQLException {
+		return this.getSchemaMetadata().get(tableName);
 	}
 
 	/**
@@ -327,6 +528,20 @@ public abstract class SQLFactory {
 		return StringUtil.format("{0}{1}", this.url, (this.fileStorage ? "" : "?autoReconnectForPools=true&useUnicode=true&characterEncoding=UTF-8"));
 	}
 
+	/**
+	 * Discards all cached table metadata, so it is loaded again on next use.
+	 * <p>
+	 * Tables created and dropped through this factory do this already, call
+	 * it after altering tables with other queries.
+	 */
+	public final void invalidateMetadata() {
+		this.metadataGeneration.incrementAndGet();
+	}
+
+	private boolean isCurrent(SchemaMetadata metadata) {
+		return metadata != null && metadata.generation == this.metadataGeneration.get() && System.nanoTime() - metadata.loaded < TimeUnit.MILLISECONDS.toNanos(this.metadataCacheTime);
+	}
+
 	/**
 	 * Gets if the given jdbc driver is available.
 	 *
@@ -353,6 +568,73 @@ public abstract class SQLFactory {
 			throw new SQLException("Unable to determine schema!");
 	}
 
+	/**
+	 * Loads the metadata of all tables in the current schema, in a single
+	 * INFORMATION_SCHEMA query for MySQL and through the jdbc metadata of a
+	 * single connection otherwise.
+	 */
+	private Map<String, TableMetadata> loadMetadata() throws SQLException {
+		Map<String, TableMetadata> tables = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+		try (Connection connection = this.getConnection()) {
+			if ("MySQL".equalsIgnoreCase(this.getProduct()) || "MariaDB".equalsIgnoreCase(this.getProduct())) {
+				this.query(connection, MYSQL_METADATA, result -> {
+					while (result.next()) {
+						TableMetadata table = tables.computeIfAbsent(result.getString("TABLE_NAME"), TableMetadata::new);
+						String column = result.getString("COLUMN_NAME");
+						String index = result.getString("INDEX_NAME");
+						table.addColumn(column);
+
+						if (index != null) {
+							int position = result.getInt("SEQ_IN_INDEX");
+							table.addIndexColumn(index, position, column, result.getInt("NON_UNIQUE") == 0);
+
+							if ("PRIMARY".equals(index))
+								table.addPrimaryKeyColumn(position, column);
+						}
+					}
+
+					return null;
+				}, this.schema);
+			} else {
+				DatabaseMetaData metaData = connection.getMetaData();
+				String catalog = (this.fileStorage ? null : this.schema);
+
+				try (ResultSet result = metaData.getTables(catalog, null, "%", null)) {
+					while (result.next())
+						tables.computeIfAbsent(result.getString("TABLE_NAME"), TableMetadata::new);
+				}
+
+				try (ResultSet result = metaData.getColumns(catalog, null, "%", "%")) {
+					while (result.next()) {
+						TableMetadata table = tables.get(result.getString("TABLE_NAME"));
+
+						if (table != null)
+							table.addColumn(result.getString("COLUMN_NAME"));
+					}
+				}
+
+				for (TableMetadata table : tables.values()) {
+					try (ResultSet result = metaData.getPrimaryKeys(catalog, null, table.getName())) {
+						while (result.next())
+							table.addPrimaryKeyColumn(result.getInt("KEY_SEQ"), result.getString("COLUMN_NAME"));
+					}
+
+					try (ResultSet result = metaData.getIndexInfo(catalog, null, table.getName(), false, true)) {
+						while (result.next()) {
+							String index = result.getString("INDEX_NAME");
+
+							if (index != null)
+								table.addIndexColumn(index, result.getInt("ORDINAL_POSITION"), result.getString("COLUMN_NAME"), !result.getBoolean("NON_UNIQUE"));
+						}
+					}
+				}
+			}
+		}
+
+		return Collections.unmodifiableMap(tables);
+	}
+
 	/**
 	 * Run SELECT query against the DBMS.
 	 *
@@ -376,6 +658,9 @@ public abstract class SQLFactory {
 	 */
 	public final void query(String sql, VoidResultCallback callback, Object... args) throws SQLException {
 		try (Connection connection = this.getConnection()) {
+			SQLMetrics metrics = this.metrics;
+			long start = metrics.isEnabled() ? System.nanoTime() : 0;
+
 			try (PreparedStatement statement = connection.prepareStatement(sql)) {
 				assignArgs(statement, args);
 
@@ -383,11 +668,17 @@ public abstract class SQLFactory {
 					if (callback != null)
 						callback.handle(result);
 				}
+			} finally {
+				if (metrics.isEnabled())
+					metrics.recordExecution(sql, System.nanoTime() - start);
 			}
 		}
 	}
 
 	protected final <T> T query(Connection connection, String sql, ResultCallback<T> callback, Object... args) throws SQLException {
+		SQLMetrics metrics = this.metrics;
+		long start = metrics.isEnabled() ? System.nanoTime() : 0;
+
 		try (PreparedStatement statement = connection.prepareStatement(sql)) {
 			assignArgs(statement, args);
 
@@ -395,26 +686,200 @@ public abstract class SQLFactory {
 				if (callback != null)
 					return callback.handle(result);
 			}
+		} finally {
+			if (metrics.isEnabled())
+				metrics.recordExecution(sql, System.nanoTime() - start);
 		}
 
 		return null;
 	}
 
+	/**
+	 * Run SELECT query against the DBMS, mapping each row to the given class.
+	 *
+	 * @param sql Query to run.
+	 * @param type Class to create an instance of for each row.
+	 * @param args Arguments to pass to the query.
+	 * @return Mapped rows in the order returned.
+	 * @see #getRowMapper(String, Class)
+	 */
+	public final <T> List<T> queryList(String sql, Class<T> type, Object... args) throws SQLException {
+		RowMapper<T> mapper = this.getRowMapper(sql, type);
+
+		return this.query(sql, result -> {
+			List<T> rows = new ArrayList<>();
+
+			while (result.next())
+				rows.add(mapper.map(result));
+
+			return rows;
+		}, args);
+	}
+
+	/**
+	 * Run SELECT query against the DBMS, fetching and mapping rows lazily as
+	 * the returned stream is consumed, see
+	 * {@link #queryStream(String, RowMapper, Object...)}.
+	 *
+	 * @param sql Query to run.
+	 * @param type Class to create an instance of for each row.
+	 * @param args Arguments to pass to the query.
+	 * @return Stream of the mapped rows.
+	 * @see #getRowMapper(String, Class)
+	 */
+	public final <T> Stream<T> queryStream(String sql, Class<T> type, Object... args) throws SQLException {
+		return this.queryStream(sql, this.getRowMapper(sql, type), args);
+	}
+
+	/**
+	 * Run SELECT query against the DBMS, fetching and mapping rows lazily as
+	 * the returned stream is consumed.
+	 * <p>
+	 * The result set is forward-only and read-only, and rows are fetched
+	 * {@link #getFetchSize() fetch size} at a time rather than all at once.
+	 * The stream holds its connection until it is closed or fully consumed,
+	 * so always use it within a try-with-resources statement. Errors while
+	 * fetching rows are rethrown as a {@link RuntimeException} caused by the
+	 * {@link SQLException}.
+	 *
+	 * @param sql Query to run.
+	 * @param mapper Mapper to create an element from each row with.
+	 * @param args Arguments to pass to the query.
+	 * @return Stream of the mapped rows.
+	 */
+	public final <T> Stream<T> queryStream(String sql, RowMapper<T> mapper, Object... args) throws SQLException {
+		Objects.requireNonNull(mapper);
+		SQLMetrics metrics = this.metrics;
+		long start = metrics.isEnabled() ? System.nanoTime() : 0;
+		Connection connection = this.getConnection();
+		PreparedStatement statement = null;
+		boolean autoCommit = true;
+
+		try {
+			// Some drivers, like PostgreSQL, only use cursors within a transaction
+			autoCommit = connection.getAutoCommit();
+
+			if (autoCommit)
+				connection.setAutoCommit(false);
+
+			statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			statement.setFetchSize(this.getFetchSize());
+			assignArgs(statement, args);
+			Cursor<T> cursor = new Cursor<>(connection, statement, statement.executeQuery(), mapper, autoCommit, sql, metrics, start);
+			return StreamSupport.stream(cursor, false).onClose(cursor::close);
+		} catch (SQLException | RuntimeException ex) {
+			try {
+				if (statement != null)
+					statement.close();
+
+				if (autoCommit)
+					connection.setAutoCommit(true);
+			} catch (SQLException close) {
+				ex.addSuppressed(close);
+			}
+
+			try {
+				connection.close();
+			} catch (SQLException close) {
+				ex.addSuppressed(close);
+			}
+
+			if (metrics.isEnabled())
+				metrics.recordExecution(sql, System.nanoTime() - start);
+
+			throw ex;
+		}
+	}
+
 	/**
 	 * Run SELECT query against the DBMS asynchronously.
 	 *
 	 * @param sql Query to run.
 	 * @param callback Callback to process results with.
 	 * @param args Arguments to pass to the query.
+	 * @return Future completed once the results were processed.
 	 */
-	public final void queryAsync(final String sql, final VoidResultCallback callback, final Object... args) {
-		MinecraftScheduler.getInstance().runAsync(() -> {
-			try {
-				this.query(sql, callback, args);
-			} catch (SQLException ignore) { }
+	public final CompletableFuture<Void> queryAsync(final String sql, final VoidResultCallback callback, final Object... args) {
+		return this.submitAsync(() -> {
+			this.query(sql, callback, args);
+			return null;
 		});
 	}
 
+	/**
+	 * Run SELECT query against the DBMS asynchronously, returning a value
+	 * from the results. Named apart from
+	 * {@link #queryAsync(String, VoidResultCallback, Object...)} so lambdas
+	 * are never ambiguous between the two.
+	 *
+	 * @param sql Query to run.
+	 * @param callback Callback to process results with.
+	 * @param args Arguments to pass to the query.
+	 * @return Future completed with whatever you decide to return in the callback.
+	 */
+	public final <T> CompletableFuture<T> queryAsyncResult(final String sql, final ResultCallback<T> callback, final Object... args) {
+		return this.submitAsync(() -> this.query(sql, callback, args));
+	}
+
+	/**
+	 * Sets the number of asynchronous tasks that can wait for a thread
+	 * before {@link #getBackpressure() backpressure} applies.
+	 * <p>
+	 * Only applies before the first asynchronous task is submitted.
+	 *
+	 * @param capacity Capacity of the asynchronous queue.
+	 */
+	public final void setAsyncQueueCapacity(int capacity) {
+		this.asyncQueueCapacity = capacity <= 0 ? DEFAULT_ASYNC_QUEUE_CAPACITY : capacity;
+	}
+
+	/**
+	 * Sets what happens to asynchronous tasks submitted while the queue is full.
+	 *
+	 * @param backpressure Backpressure to apply.
+	 */
+	public final void setBackpressure(Backpressure backpressure) {
+		this.backpressure = backpressure == null ? Backpressure.REJECT : backpressure;
+		ThreadPoolExecutor executor = this.executor;
+
+		if (executor != null)
+			executor.setRejectedExecutionHandler(this.backpressure);
+	}
+
+	/**
+	 * Sets the number of rows fetched at once by streamed queries.
+	 * <p>
+	 * Zero lets the driver decide, and MySQL uses {@link Integer#MIN_VALUE}
+	 * to stream rows one by one.
+	 *
+	 * @param fetchSize Fetch size of streamed queries.
+	 */
+	public final void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * Sets the time table metadata is cached for before being loaded again.
+	 *
+	 * @param milliseconds Metadata cache time, 0 to load it on every use.
+	 */
+	public final void setMetadataCacheTime(long milliseconds) {
+		this.metadataCacheTime = Math.max(0, milliseconds);
+	}
+
+	/**
+	 * Sets the metrics to receive the timings of this DBMS, see
+	 * {@link net.netcoding.nifty.core.database.metrics.SQLMetricsRegistry}
+	 * to record and scrape them.
+	 *
+	 * @param metrics Metrics to report to, or null to disable.
+	 */
+	public final void setMetrics(SQLMetrics metrics) {
+		metrics = metrics == null ? SQLMetrics.DISABLED : metrics;
+		metrics.bind(this);
+		this.metrics = metrics;
+	}
+
 	/**
 	 * Changes the schema currently in use.
 	 *
@@ -430,14 +895,48 @@ public abstract class SQLFactory {
 				assignArgs(statement, schema);
 				boolean result = statement.executeUpdate() > 0;
 
-				if (result)
+				if (result) {
 					this.schema = schema;
+					this.invalidateMetadata();
+				}
 
 				return result;
 			}
 		}
 	}
 
+	/**
+	 * Stops accepting asynchronous tasks, running those already submitted.
+	 * <p>
+	 * Further asynchronous calls fail with a {@link RejectedExecutionException}.
+	 */
+	public final void shutdownAsync() {
+		synchronized (this) {
+			if (this.executor == null)
+				this.getExecutor();
+
+			this.executor.shutdown();
+		}
+	}
+
+	final <T> CompletableFuture<T> submitAsync(Callable<T> task) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+
+		try {
+			this.getExecutor().execute(() -> {
+				try {
+					future.complete(task.call());
+				} catch (Throwable throwable) {
+					future.completeExceptionally(throwable);
+				}
+			});
+		} catch (RejectedExecutionException rex) {
+			future.completeExceptionally(rex);
+		}
+
+		return future;
+	}
+
 	/**
 	 * Run INSERT, UPDATE or DELETE query against this DBMS.
 	 *
@@ -447,28 +946,208 @@ public abstract class SQLFactory {
 	 */
 	public final boolean update(String sql, Object... args) throws SQLException {
 		try (Connection connection = this.getConnection()) {
+			SQLMetrics metrics = this.metrics;
+			long start = metrics.isEnabled() ? System.nanoTime() : 0;
+
 			try (PreparedStatement statement = connection.prepareStatement(sql)) {
 				assignArgs(statement, args);
 				return statement.executeUpdate() > 0;
+			} finally {
+				if (metrics.isEnabled())
+					metrics.recordExecution(sql, System.nanoTime() - start);
+			}
+		}
+	}
+
+	/**
+	 * Run INSERT, UPDATE or DELETE query against this DBMS once per row,
+	 * sending the rows to the DBMS in batches within a single transaction.
+	 * <p>
+	 * If any row fails, the whole transaction is rolled back.
+	 *
+	 * @param sql Query to run.
+	 * @param rows Arguments to pass to the query, one array per row.
+	 * @param chunkSize Maximum number of rows to send at once.
+	 * @return Number of rows changed by each row, or {@link Statement#SUCCESS_NO_INFO}
+	 * if the driver rewrote the batch into a single statement.
+	 */
+	public final int[] updateBatch(String sql, Iterable<Object[]> rows, int chunkSize) throws SQLException {
+		if (chunkSize <= 0)
+			throw new IllegalArgumentException("Chunk size must be positive!");
+
+		try (Connection connection = this.getConnection()) {
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+
+			try {
+				int[] counts = this.executeBatch(connection, sql, rows, chunkSize);
+				connection.commit();
+				return counts;
+			} catch (SQLException | RuntimeException ex) {
+				try {
+					connection.rollback();
+				} catch (SQLException rollback) {
+					ex.addSuppressed(rollback);
+				}
+
+				throw ex;
+			} finally {
+				connection.setAutoCommit(autoCommit);
 			}
 		}
 	}
 
+	/**
+	 * Run INSERT, UPDATE or DELETE query against this DBMS once per row
+	 * asynchronously, see {@link #updateBatch(String, Iterable, int)}.
+	 *
+	 * @param sql Query to run.
+	 * @param rows Arguments to pass to the query, one array per row.
+	 * @param chunkSize Maximum number of rows to send at once.
+	 * @return Future completed with the number of rows changed by each row.
+	 */
+	public final CompletableFuture<int[]> updateBatchAsync(final String sql, final Iterable<Object[]> rows, final int chunkSize) {
+		return this.submitAsync(() -> this.updateBatch(sql, rows, chunkSize));
+	}
+
 	/**
 	 * Run INSERT, UPDATE or DELETE query against this DBMS asynchronously.
 	 *
 	 * @param sql Query to run.
 	 * @param args Arguments to pass to the query.
+	 * @return Future completed with true if query was successful.
 	 */
-	public final void updateAsync(final String sql, final Object... args) {
-		MinecraftScheduler.getInstance().runAsync(() -> {
-			try (Connection connection = this.getConnection()) {
-				try (PreparedStatement statement = connection.prepareStatement(sql)) {
-					assignArgs(statement, args);
-					statement.executeUpdate();
+	public final CompletableFuture<Boolean> updateAsync(final String sql, final Object... args) {
+		return this.submitAsync(() -> this.update(sql, args));
+	}
+
+	private static final class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+
+		private final Connection connection;
+		private final PreparedStatement statement;
+		private final ResultSet result;
+		private final RowMapper<T> mapper;
+		private final boolean autoCommit;
+		private final String sql;
+		private final SQLMetrics metrics;
+		private final long start;
+		private boolean closed = false;
+
+		Cursor(Connection connection, PreparedStatement statement, ResultSet result, RowMapper<T> mapper, boolean autoCommit, String sql, SQLMetrics metrics, long start) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED);
+			this.connection = connection;
+			this.statement = statement;
+			this.result = result;
+			this.mapper = mapper;
+			this.autoCommit = autoCommit;
+			this.sql = sql;
+			this.metrics = metrics;
+			this.start = start;
+		}
+
+		/**
+		 * Closes the result set and returns the connection, once.
+		 */
+		void close() {
+			if (this.closed)
+				return;
+
+			this.closed = true;
+			SQLException exception = null;
+
+			try {
+				this.result.close();
+				this.statement.close();
+
+				if (this.autoCommit) {
+					this.connection.commit();
+					this.connection.setAutoCommit(true);
 				}
-			} catch (SQLException ignore) { }
-		});
+			} catch (SQLException sqlex) {
+				exception = sqlex;
+			}
+
+			try {
+				this.connection.close();
+			} catch (SQLException sqlex) {
+				if (exception == null)
+					exception = sqlex;
+				else
+					exception.addSuppressed(sqlex);
+			}
+
+			if (this.metrics.isEnabled())
+				this.metrics.recordExecution(this.sql, System.nanoTime() - this.start);
+
+			if (exception != null)
+				throw new RuntimeException("Unable to close streamed query!", exception);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (this.closed)
+				return false;
+
+			try {
+				if (!this.result.next()) {
+					this.close();
+					return false;
+				}
+
+				action.accept(this.mapper.map(this.result));
+				return true;
+			} catch (SQLException sqlex) {
+				try {
+					this.close();
+				} catch (RuntimeException close) {
+					sqlex.addSuppressed(close);
+				}
+
+				throw new RuntimeException("Unable to fetch next row!", sqlex);
+			}
+		}
+
+	}
+
+	private static final class SchemaMetadata {
+
+		private final Map<String, TableMetadata> tables;
+		private final int generation;
+		private final long loaded = System.nanoTime();
+
+		SchemaMetadata(Map<String, TableMetadata> tables, int generation) {
+			this.tables = tables;
+			this.generation = generation;
+		}
+
+	}
+
+	private static final class MapperKey {
+
+		private final String sql;
+		private final Class<?> type;
+
+		MapperKey(String sql, Class<?> type) {
+			this.sql = Objects.requireNonNull(sql);
+			this.type = Objects.requireNonNull(type);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			else if (!(obj instanceof MapperKey))
+				return false;
+
+			MapperKey that = (MapperKey)obj;
+			return this.type == that.type && this.sql.equals(that.sql);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * this.sql.hashCode() + this.type.hashCode();
+		}
+
 	}
 
-}
\ No newline at end of file
+}
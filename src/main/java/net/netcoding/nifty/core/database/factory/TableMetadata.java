@@ -0,0 +1,124 @@
+package net.netcoding.nifty.core.database.factory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Columns, primary key and indexes of a table, as cached by
+ * {@link SQLFactory#getTableMetadata(String)}.
+ * <p>
+ * Column and index names are matched ignoring case, like MySQL does for
+ * columns. Instances are filled while loading the schema and never change
+ * once returned.
+ */
+public final class TableMetadata {
+
+	private final String name;
+	private final Set<String> columns = new LinkedHashSet<>();
+	private final Set<String> columnLookup = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+	private final List<String> primaryKey = new ArrayList<>();
+	private final Map<String, List<String>> indexes = new LinkedHashMap<>();
+	private final Set<String> uniqueIndexes = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+	TableMetadata(String name) {
+		this.name = name;
+	}
+
+	void addColumn(String column) {
+		if (this.columnLookup.add(column))
+			this.columns.add(column);
+	}
+
+	void addIndexColumn(String index, int position, String column, boolean unique) {
+		set(this.indexes.computeIfAbsent(index, key -> new ArrayList<>()), position, column);
+
+		if (unique)
+			this.uniqueIndexes.add(index);
+	}
+
+	void addPrimaryKeyColumn(int position, String column) {
+		set(this.primaryKey, position, column);
+	}
+
+	/**
+	 * Gets the columns of this table.
+	 *
+	 * @return Names of the columns in table order.
+	 */
+	public Set<String> getColumns() {
+		return Collections.unmodifiableSet(this.columns);
+	}
+
+	/**
+	 * Gets the indexes of this table, including that of the primary key if
+	 * reported by the DBMS.
+	 *
+	 * @return Columns of each index in index order, by index name.
+	 */
+	public Map<String, List<String>> getIndexes() {
+		return Collections.unmodifiableMap(this.indexes);
+	}
+
+	/**
+	 * Gets the name of this table.
+	 *
+	 * @return Name of the table.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Gets the primary key of this table.
+	 *
+	 * @return Columns of the primary key in key order, empty if there is none.
+	 */
+	public List<String> getPrimaryKey() {
+		return Collections.unmodifiableList(this.primaryKey);
+	}
+
+	/**
+	 * Gets if the given column exists in this table, ignoring case.
+	 *
+	 * @param column Column name to check existence of.
+	 * @return True if column exists.
+	 */
+	public boolean hasColumn(String column) {
+		return this.columnLookup.contains(column);
+	}
+
+	/**
+	 * Gets if the given index of this table only allows unique values,
+	 * ignoring case.
+	 *
+	 * @param index Name of the index.
+	 * @return True if the index exists and is unique.
+	 */
+	public boolean isUnique(String index) {
+		return this.uniqueIndexes.contains(index);
+	}
+
+	private static void set(List<String> columns, int position, String column) {
+		if (position <= 0) {
+			columns.add(column);
+			return;
+		}
+
+		while (columns.size() < position)
+			columns.add(null);
+
+		columns.set(position - 1, column);
+	}
+
+	@Override
+	public String toString() {
+		return "TableMetadata{name=" + this.name + ", columns=" + this.columns + ", primaryKey=" + this.primaryKey + ", indexes=" + this.indexes + "}";
+	}
+
+}
@@ -0,0 +1,417 @@
+package net.netcoding.nifty.core.database.factory;
+
+import net.netcoding.nifty.core.NiftyCore;
+import net.netcoding.nifty.core.database.metrics.SQLMetrics;
+import net.netcoding.nifty.core.util.StringUtil;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BinaryOperator;
+import java.util.logging.Level;
+
+/**
+ * Buffers INSERT, UPDATE and DELETE queries of a {@link SQLFactory}, keyed by
+ * table and primary key, and writes them behind in batches.
+ * <p>
+ * Each key only ever holds its latest write, so repeated writes of the same
+ * row between flushes reach the database once. Use upserts, such as
+ * {@code INSERT ... ON DUPLICATE KEY UPDATE}, for rows that may not exist
+ * yet, as only the last query of a key is kept.
+ * <p>
+ * Pending writes are flushed in a single transaction, in the order they were
+ * last queued, once there are at least the maximum number of them, at a fixed
+ * interval and when closed, which flushes synchronously. When that
+ * transaction fails, each write is retried on its own, so a write the
+ * database rejects is dropped and logged after failing 3 times without
+ * holding back the others. Writes are kept queued without counting an
+ * attempt while the database cannot be reached, and are combined with any
+ * later write of the same key.
+ */
+public class WriteBehindQueue implements AutoCloseable {
+
+	private static final int CHUNK_SIZE = 500;
+	private static final int MAX_ATTEMPTS = 3;
+	private static final ScheduledThreadPoolExecutor FLUSHER;
+	private final ConcurrentHashMap<Key, Write> pending = new ConcurrentHashMap<>();
+	private final ReentrantLock flushLock = new ReentrantLock();
+	private final ReentrantReadWriteLock closeLock = new ReentrantReadWriteLock();
+	private final AtomicLong sequence = new AtomicLong();
+	private final LongAdder coalesced = new LongAdder();
+	private final SQLFactory factory;
+	private final int maximumPending;
+	private final ScheduledFuture<?> timer;
+	private volatile boolean closed = false;
+
+	static {
+		FLUSHER = new ScheduledThreadPoolExecutor(1, task -> {
+			Thread thread = new Thread(task, "WriteBehindQueue Flusher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		FLUSHER.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Create a new write-behind queue.
+	 *
+	 * @param factory Factory to write to.
+	 * @param maximumPending Number of pending writes that triggers a flush.
+	 * @param interval Time between flushes.
+	 * @param unit Unit of the time between flushes.
+	 */
+	public WriteBehindQueue(SQLFactory factory, int maximumPending, long interval, TimeUnit unit) {
+		if (maximumPending <= 0)
+			throw new IllegalArgumentException("Maximum pending writes must be positive!");
+
+		if (interval <= 0)
+			throw new IllegalArgumentException("Flush interval must be positive!");
+
+		this.factory = Objects.requireNonNull(factory);
+		this.maximumPending = maximumPending;
+		this.timer = FLUSHER.scheduleWithFixedDelay(this::flushAsync, interval, interval, unit);
+	}
+
+	/**
+	 * Stops accepting writes, stops the timer and flushes all pending writes,
+	 * waiting for any flush already in progress.
+	 *
+	 * @throws SQLException When the database cannot be reached, the writes
+	 * stay queued and can be flushed again.
+	 */
+	@Override
+	public final void close() throws SQLException {
+		this.closeLock.writeLock().lock();
+
+		try {
+			this.closed = true;
+		} finally {
+			this.closeLock.writeLock().unlock();
+		}
+
+		this.timer.cancel(false);
+
+		do {
+			this.flush();
+		} while (!this.pending.isEmpty());
+	}
+
+	private void execute(Connection connection, List<Write> writes) throws SQLException {
+		List<Object[]> batch = new ArrayList<>();
+		String sql = writes.get(0).sql;
+
+		for (Write write : writes) {
+			if (!write.sql.equals(sql)) {
+				this.factory.executeBatch(connection, sql, batch, CHUNK_SIZE);
+				batch = new ArrayList<>();
+				sql = write.sql;
+			}
+
+			batch.add(write.args);
+		}
+
+		this.factory.executeBatch(connection, sql, batch, CHUNK_SIZE);
+		connection.commit();
+	}
+
+	private void fail(Write write, Exception ex) {
+		if (++write.attempts < MAX_ATTEMPTS)
+			this.requeue(write);
+		else
+			NiftyCore.getNiftyLogger().log(Level.WARNING, StringUtil.format("Dropped write to {0} after {1,number,#} failed attempts: {2}", write.key.table, write.attempts, write.sql), ex);
+	}
+
+	/**
+	 * Writes all pending writes in a single transaction, waiting for any
+	 * flush already in progress.
+	 * <p>
+	 * When the transaction fails, each write is retried on its own and those
+	 * that fail again are queued for the next flush, or dropped once they
+	 * have failed 3 times.
+	 *
+	 * @return Number of writes flushed.
+	 * @throws SQLException When the database cannot be reached, the writes
+	 * not yet flushed stay queued.
+	 */
+	public final int flush() throws SQLException {
+		this.flushLock.lock();
+
+		try {
+			return this.flushPending();
+		} finally {
+			this.flushLock.unlock();
+		}
+	}
+
+	private void flushAsync() {
+		if (this.pending.isEmpty() || this.flushLock.isLocked())
+			return;
+
+		this.factory.submitAsync(() -> {
+			if (this.flushLock.tryLock()) {
+				try {
+					this.flushPending();
+				} catch (SQLException sqlex) {
+					NiftyCore.getNiftyLogger().log(Level.WARNING, "Unable to flush pending writes, they will be retried!", sqlex);
+				} finally {
+					this.flushLock.unlock();
+				}
+			}
+
+			return null;
+		});
+	}
+
+	private int flushPending() throws SQLException {
+		List<Write> writes = new ArrayList<>();
+
+		for (Map.Entry<Key, Write> entry : this.pending.entrySet()) {
+			if (this.pending.remove(entry.getKey(), entry.getValue()))
+				writes.add(entry.getValue());
+		}
+
+		if (writes.isEmpty())
+			return 0;
+
+		writes.sort(Comparator.comparingLong(write -> write.sequence));
+		SQLMetrics metrics = this.factory.getMetrics();
+		metrics.recordPendingWrites(-writes.size());
+		long start = System.nanoTime();
+		int flushed = 0;
+
+		try (Connection connection = this.factory.getConnection()) {
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+
+			try {
+				try {
+					this.execute(connection, writes);
+					flushed = writes.size();
+					writes.clear();
+				} catch (SQLException | RuntimeException ex) {
+					rollback(connection, ex);
+
+					if (isUnreachable(ex))
+						throw ex;
+					else if (writes.size() == 1)
+						this.fail(writes.remove(0), ex);
+				}
+
+				for (Iterator<Write> iterator = writes.iterator(); iterator.hasNext(); ) {
+					Write write = iterator.next();
+
+					try {
+						this.execute(connection, Collections.singletonList(write));
+						flushed++;
+					} catch (SQLException | RuntimeException ex) {
+						rollback(connection, ex);
+
+						if (isUnreachable(ex))
+							throw ex;
+
+						this.fail(write, ex);
+					}
+
+					iterator.remove();
+				}
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		} catch (SQLException | RuntimeException ex) {
+			for (Write write : writes)
+				this.requeue(write);
+
+			throw ex;
+		}
+
+		if (flushed > 0)
+			metrics.recordFlush(flushed, System.nanoTime() - start);
+
+		return flushed;
+	}
+
+	/**
+	 * Gets the number of writes replaced by a later write of the same key
+	 * before being flushed.
+	 *
+	 * @return Number of coalesced writes.
+	 */
+	public final long getCoalescedWrites() {
+		return this.coalesced.sum();
+	}
+
+	/**
+	 * Gets the number of writes waiting to be flushed.
+	 *
+	 * @return Number of pending writes.
+	 */
+	public final int getPendingWrites() {
+		return this.pending.size();
+	}
+
+	/**
+	 * Gets if the given failure means the database cannot be reached, rather
+	 * than that it rejected the writes.
+	 */
+	private static boolean isUnreachable(Exception ex) {
+		if (ex instanceof SQLTransientException || ex instanceof SQLRecoverableException)
+			return true;
+		else if (!(ex instanceof SQLException))
+			return false;
+
+		String state = ((SQLException)ex).getSQLState();
+		return state != null && state.startsWith("08");
+	}
+
+	/**
+	 * Queues a query for the given row, combining its arguments with those of
+	 * a pending write of the same row and query, such as to add up counters.
+	 *
+	 * @param table Table of the row.
+	 * @param key Primary key of the row.
+	 * @param sql Query to run.
+	 * @param merger Combines the pending arguments with the given arguments.
+	 * @param args Arguments to pass to the query.
+	 */
+	public final void merge(String table, Object key, String sql, BinaryOperator<Object[]> merger, Object... args) {
+		Objects.requireNonNull(merger);
+		this.queue(new Key(table, key), sql, args, (current, write) -> current.sql.equals(write.sql) ? write.merge(current, merger.apply(current.args, write.args)) : write);
+	}
+
+	private void queue(Key key, String sql, Object[] args, BinaryOperator<Write> combiner) {
+		boolean[] added = { true };
+		this.closeLock.readLock().lock();
+
+		try {
+			if (this.closed)
+				throw new IllegalStateException("Write-behind queue is closed!");
+
+			this.pending.merge(key, new Write(key, sql, args, combiner, this.sequence.incrementAndGet()), (current, next) -> {
+				added[0] = false;
+				return next.combiner.apply(current, next);
+			});
+		} finally {
+			this.closeLock.readLock().unlock();
+		}
+
+		if (added[0])
+			this.factory.getMetrics().recordPendingWrites(1);
+		else
+			this.coalesced.increment();
+
+		if (this.pending.size() >= this.maximumPending)
+			this.flushAsync();
+	}
+
+	/**
+	 * Queues a write that failed to flush, combined with any write of the same
+	 * key queued since as if it had been queued before it.
+	 */
+	private void requeue(Write failed) {
+		boolean[] added = { true };
+
+		this.pending.merge(failed.key, failed, (newer, old) -> {
+			added[0] = false;
+			return newer.combiner.apply(old, newer);
+		});
+
+		if (added[0])
+			this.factory.getMetrics().recordPendingWrites(1);
+		else
+			this.coalesced.increment();
+	}
+
+	private static void rollback(Connection connection, Exception ex) {
+		try {
+			connection.rollback();
+		} catch (SQLException rollback) {
+			ex.addSuppressed(rollback);
+		}
+	}
+
+	/**
+	 * Queues a query for the given row, replacing any pending write of it.
+	 *
+	 * @param table Table of the row.
+	 * @param key Primary key of the row.
+	 * @param sql Query to run.
+	 * @param args Arguments to pass to the query.
+	 */
+	public final void write(String table, Object key, String sql, Object... args) {
+		this.queue(new Key(table, key), sql, args, (current, write) -> write);
+	}
+
+	private static final class Key {
+
+		private final String table;
+		private final Object key;
+
+		Key(String table, Object key) {
+			this.table = Objects.requireNonNull(table);
+			this.key = Objects.requireNonNull(key);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			else if (!(obj instanceof Key))
+				return false;
+
+			Key that = (Key)obj;
+			return this.table.equals(that.table) && this.key.equals(that.key);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * this.table.hashCode() + this.key.hashCode();
+		}
+
+	}
+
+	private static final class Write {
+
+		private final Key key;
+		private final String sql;
+		private final Object[] args;
+		private final BinaryOperator<Write> combiner;
+		private final long sequence;
+		private int attempts;
+
+		Write(Key key, String sql, Object[] args, BinaryOperator<Write> combiner, long sequence) {
+			this.key = key;
+			this.sql = Objects.requireNonNull(sql);
+			this.args = args;
+			this.combiner = combiner;
+			this.sequence = sequence;
+		}
+
+		/**
+		 * Creates a copy of this write with the given arguments, which include
+		 * those of the given earlier write, keeping its failed attempts.
+		 */
+		Write merge(Write earlier, Object[] args) {
+			Write write = new Write(this.key, this.sql, args, this.combiner, this.sequence);
+			write.attempts = Math.max(this.attempts, earlier.attempts);
+			return write;
+		}
+
+	}
+
+}
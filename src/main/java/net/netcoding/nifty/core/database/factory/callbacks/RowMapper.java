@@ -0,0 +1,10 @@
+package net.netcoding.nifty.core.database.factory.callbacks;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public interface RowMapper<T> {
+
+	T map(ResultSet result) throws SQLException;
+
+}
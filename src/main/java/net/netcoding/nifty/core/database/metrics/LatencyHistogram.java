@@ -0,0 +1,135 @@
+package net.netcoding.nifty.core.database.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds.
+ * <p>
+ * Values are counted in buckets of 8 per power of two, so any percentile is
+ * reported within 12.5% of the recorded value, using a fixed 4KB regardless
+ * of how many values are recorded.
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BITS = 3;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	LatencyHistogram() { }
+
+	private static int bucketOf(long value) {
+		if (value < SUB_COUNT)
+			return (int)value;
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int)(value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+		return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+	}
+
+	private static long highestValueOf(int bucket) {
+		if (bucket < SUB_COUNT)
+			return bucket;
+
+		int exponent = bucket / SUB_COUNT + SUB_BITS - 1;
+		int sub = bucket % SUB_COUNT;
+		long width = 1L << (exponent - SUB_BITS);
+		return ((SUB_COUNT + sub) * width) + width - 1;
+	}
+
+	/**
+	 * Gets the number of recorded values.
+	 *
+	 * @return Number of values.
+	 */
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	/**
+	 * Gets the highest recorded value.
+	 *
+	 * @return Highest value in nanoseconds.
+	 */
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * Gets the average of the recorded values.
+	 *
+	 * @return Average value in nanoseconds.
+	 */
+	public double getMean() {
+		long count = this.getCount();
+		return count == 0 ? 0.0 : (double)this.getSum() / count;
+	}
+
+	/**
+	 * Gets the value that the given ratio of recorded values are at or below.
+	 *
+	 * @param quantile Ratio between 0 and 1, such as 0.99.
+	 * @return Value in nanoseconds, or 0 if nothing was recorded.
+	 */
+	public long getPercentile(double quantile) {
+		long total = 0;
+		long[] counts = new long[BUCKETS];
+
+		for (int i = 0; i < BUCKETS; i++)
+			total += counts[i] = this.buckets.get(i);
+
+		if (total == 0)
+			return 0;
+
+		long rank = Math.max(1, (long)Math.ceil(Math.min(1.0, Math.max(0.0, quantile)) * total));
+
+		for (int i = 0; i < BUCKETS; i++) {
+			if ((rank -= counts[i]) <= 0)
+				return Math.min(highestValueOf(i), this.getMax());
+		}
+
+		return this.getMax();
+	}
+
+	/**
+	 * Gets the total of the recorded values.
+	 *
+	 * @return Total in nanoseconds.
+	 */
+	public long getSum() {
+		return this.sum.sum();
+	}
+
+	void record(long nanos) {
+		if (nanos < 0)
+			nanos = 0;
+
+		this.buckets.incrementAndGet(bucketOf(nanos));
+		this.count.increment();
+		this.sum.add(nanos);
+		this.max.accumulate(nanos);
+	}
+
+	/**
+	 * Clears all recorded values.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			this.buckets.set(i, 0);
+
+		this.count.reset();
+		this.sum.reset();
+		this.max.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "LatencyHistogram{count=" + this.getCount() + ", mean=" + (long)this.getMean() + ", p99=" + this.getPercentile(0.99) + ", max=" + this.getMax() + "}";
+	}
+
+}
@@ -0,0 +1,99 @@
+package net.netcoding.nifty.core.database.metrics;
+
+import net.netcoding.nifty.core.database.factory.SQLFactory;
+
+/**
+ * Receives timings of a {@link SQLFactory} and its connection pool.
+ * <p>
+ * Every method does nothing by default, implement only those of interest to
+ * forward them to any metrics library. Durations are only measured while
+ * {@link #isEnabled()} returns true, so {@link #DISABLED} costs a single
+ * check per call.
+ *
+ * @see SQLMetricsRegistry
+ */
+public interface SQLMetrics {
+
+	/**
+	 * Metrics that record nothing and skip all timing.
+	 */
+	SQLMetrics DISABLED = new SQLMetrics() {
+		@Override
+		public boolean isEnabled() {
+			return false;
+		}
+	};
+
+	/**
+	 * Called when metrics are set on a factory.
+	 *
+	 * @param factory Factory reporting to these metrics.
+	 */
+	default void bind(SQLFactory factory) { }
+
+	/**
+	 * Gets if durations should be measured and reported.
+	 *
+	 * @return True if enabled.
+	 */
+	default boolean isEnabled() {
+		return true;
+	}
+
+	/**
+	 * Called when a connection was borrowed from the pool.
+	 *
+	 * @param nanos Time spent waiting for the connection.
+	 */
+	default void recordBorrow(long nanos) { }
+
+	/**
+	 * Called when a new connection was opened by the pool.
+	 *
+	 * @param nanos Time spent opening the connection.
+	 */
+	default void recordCreation(long nanos) { }
+
+	/**
+	 * Called when a query or update finished, successfully or not.
+	 *
+	 * @param sql Statement that was executed.
+	 * @param nanos Time spent executing and handling the results.
+	 */
+	default void recordExecution(String sql, long nanos) { }
+
+	/**
+	 * Called when a write-behind queue flushed its pending writes.
+	 *
+	 * @param writes Number of writes flushed.
+	 * @param nanos Time spent flushing the writes.
+	 */
+	default void recordFlush(int writes, long nanos) { }
+
+	/**
+	 * Called when a borrowed connection was returned to the pool.
+	 *
+	 * @param nanos Time the connection was borrowed for.
+	 */
+	default void recordHold(long nanos) { }
+
+	/**
+	 * Called when writes were added to or taken from a write-behind queue.
+	 *
+	 * @param delta Change in the number of pending writes.
+	 */
+	default void recordPendingWrites(int delta) { }
+
+	/**
+	 * Called when no connection could be borrowed in time.
+	 */
+	default void recordTimeout() { }
+
+	/**
+	 * Called when a connection was tested before being borrowed.
+	 *
+	 * @param nanos Time spent running the validation query.
+	 */
+	default void recordValidation(long nanos) { }
+
+}
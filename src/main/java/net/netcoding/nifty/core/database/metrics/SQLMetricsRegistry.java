@@ -0,0 +1,171 @@
+package net.netcoding.nifty.core.database.metrics;
+
+import net.netcoding.nifty.core.database.factory.SQLFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Collects the {@link SQLStats} of all factories instrumented by name, and
+ * exposes them in the Prometheus text format for scraping.
+ * <p>
+ * Factories that are not registered keep {@link SQLMetrics#DISABLED} and
+ * measure nothing.
+ */
+public final class SQLMetricsRegistry {
+
+	private static final Map<String, SQLStats> STATS = new ConcurrentHashMap<>();
+	private static final String PREFIX = "nifty_sql_";
+	private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+	private SQLMetricsRegistry() { }
+
+	private static void appendLabels(StringBuilder builder, String pool, String name, String value) {
+		builder.append("{pool=\"").append(escape(pool)).append('"');
+
+		if (name != null)
+			builder.append(',').append(name).append("=\"").append(escape(value)).append('"');
+
+		builder.append('}');
+	}
+
+	private static void appendSample(StringBuilder builder, String metric, String pool, String name, String value, Object sample) {
+		builder.append(PREFIX).append(metric);
+		appendLabels(builder, pool, name, value);
+		builder.append(' ').append(sample).append('\n');
+	}
+
+	private static void appendSummary(StringBuilder builder, String metric, String pool, String name, String value, LatencyHistogram histogram) {
+		for (double quantile : QUANTILES) {
+			builder.append(PREFIX).append(metric);
+			appendLabels(builder, pool, name, value);
+			builder.setLength(builder.length() - 1);
+			builder.append(",quantile=\"").append(quantile).append("\"} ").append(histogram.getPercentile(quantile) / 1e9).append('\n');
+		}
+
+		appendSample(builder, metric + "_sum", pool, name, value, histogram.getSum() / 1e9);
+		appendSample(builder, metric + "_count", pool, name, value, histogram.getCount());
+	}
+
+	private static void appendSummaries(StringBuilder builder, List<SQLStats> stats, String metric, String help, Function<SQLStats, LatencyHistogram> histogram) {
+		appendType(builder, metric, help, "summary");
+
+		for (SQLStats stat : stats)
+			appendSummary(builder, metric, stat.getName(), null, null, histogram.apply(stat));
+	}
+
+	private static void appendType(StringBuilder builder, String metric, String help, String type) {
+		builder.append("# HELP ").append(PREFIX).append(metric).append(' ').append(help).append('\n');
+		builder.append("# TYPE ").append(PREFIX).append(metric).append(' ').append(type).append('\n');
+	}
+
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	/**
+	 * Gets the stats registered under the given name.
+	 *
+	 * @param name Name of the factory.
+	 * @return Stats of the factory, or null if none are registered.
+	 */
+	public static SQLStats get(String name) {
+		return STATS.get(name);
+	}
+
+	/**
+	 * Gets the stats of all registered factories.
+	 *
+	 * @return Unmodifiable collection of stats.
+	 */
+	public static Collection<SQLStats> getStats() {
+		return Collections.unmodifiableCollection(new ArrayList<>(STATS.values()));
+	}
+
+	/**
+	 * Starts recording the timings of the given factory under the given name,
+	 * replacing any factory registered under it before.
+	 *
+	 * @param name Name of the factory, used as the pool label.
+	 * @param factory Factory to record.
+	 * @return Stats of the factory.
+	 */
+	public static SQLStats register(String name, SQLFactory factory) {
+		SQLStats stats = new SQLStats(name);
+		unregister(name);
+		STATS.put(name, stats);
+		factory.setMetrics(stats);
+		return stats;
+	}
+
+	/**
+	 * Writes all registered stats in the Prometheus text exposition format.
+	 * <p>
+	 * Durations are exported as summaries in seconds.
+	 *
+	 * @return Scrape output.
+	 */
+	public static String scrape() {
+		List<SQLStats> stats = new ArrayList<>(STATS.values());
+		StringBuilder builder = new StringBuilder();
+
+		appendType(builder, "connections", "Connections in the pool by state.", "gauge");
+
+		for (SQLStats stat : stats) {
+			appendSample(builder, "connections", stat.getName(), "state", "active", stat.getActiveConnections());
+			appendSample(builder, "connections", stat.getName(), "state", "idle", stat.getIdleConnections());
+		}
+
+		appendType(builder, "pending_threads", "Threads waiting to borrow a connection.", "gauge");
+
+		for (SQLStats stat : stats)
+			appendSample(builder, "pending_threads", stat.getName(), null, null, stat.getPendingThreads());
+
+		appendType(builder, "timeouts_total", "Connections that could not be borrowed in time.", "counter");
+
+		for (SQLStats stat : stats)
+			appendSample(builder, "timeouts_total", stat.getName(), null, null, stat.getTimeouts());
+
+		appendType(builder, "pending_writes", "Writes waiting in write-behind queues.", "gauge");
+
+		for (SQLStats stat : stats)
+			appendSample(builder, "pending_writes", stat.getName(), null, null, stat.getPendingWrites());
+
+		appendType(builder, "flushed_writes_total", "Writes flushed by write-behind queues.", "counter");
+
+		for (SQLStats stat : stats)
+			appendSample(builder, "flushed_writes_total", stat.getName(), null, null, stat.getFlushedWrites());
+
+		appendSummaries(builder, stats, "borrow_seconds", "Time spent waiting to borrow a connection.", SQLStats::getBorrowTimes);
+		appendSummaries(builder, stats, "hold_seconds", "Time connections were borrowed for.", SQLStats::getHoldTimes);
+		appendSummaries(builder, stats, "creation_seconds", "Time spent opening connections.", SQLStats::getCreationTimes);
+		appendSummaries(builder, stats, "validation_seconds", "Time spent validating connections.", SQLStats::getValidationTimes);
+		appendSummaries(builder, stats, "flush_seconds", "Time spent flushing write-behind queues.", SQLStats::getFlushTimes);
+		appendType(builder, "execution_seconds", "Time spent executing statements by shape.", "summary");
+
+		for (SQLStats stat : stats) {
+			for (Map.Entry<String, LatencyHistogram> entry : stat.getExecutionTimes().entrySet())
+				appendSummary(builder, "execution_seconds", stat.getName(), "shape", entry.getKey(), entry.getValue());
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Stops recording the factory registered under the given name.
+	 *
+	 * @param name Name of the factory.
+	 */
+	public static void unregister(String name) {
+		SQLStats stats = STATS.remove(name);
+
+		if (stats != null)
+			stats.unbind();
+	}
+
+}
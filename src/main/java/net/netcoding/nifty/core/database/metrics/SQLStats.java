@@ -0,0 +1,306 @@
+package net.netcoding.nifty.core.database.metrics;
+
+import net.netcoding.nifty.core.database.factory.SQLFactory;
+import net.netcoding.nifty.core.database.pooling.SQLPooling;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Live histograms and counters of a single factory registered in the
+ * {@link SQLMetricsRegistry}.
+ * <p>
+ * Executions are grouped by the shape of their statement, which replaces
+ * literals with {@code ?}, collapses {@code IN} lists and whitespace, so
+ * statements built with inlined values are still counted together.
+ */
+public final class SQLStats implements SQLMetrics {
+
+	static final String OTHER_SHAPE = "other";
+	private static final int MAX_SHAPES = 256;
+	private static final int MAX_STATEMENTS = 1024;
+	private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN ?\\( ?\\?(?: ?, ?\\?)+ ?\\)");
+	private final String name;
+	private final LatencyHistogram borrowTimes = new LatencyHistogram();
+	private final LatencyHistogram holdTimes = new LatencyHistogram();
+	private final LatencyHistogram creationTimes = new LatencyHistogram();
+	private final LatencyHistogram validationTimes = new LatencyHistogram();
+	private final LatencyHistogram flushTimes = new LatencyHistogram();
+	private final LongAdder timeouts = new LongAdder();
+	private final LongAdder flushedWrites = new LongAdder();
+	private final LongAdder pendingWrites = new LongAdder();
+	private final Map<String, LatencyHistogram> shapes = new ConcurrentHashMap<>();
+	private final Map<String, LatencyHistogram> statements = new ConcurrentHashMap<>();
+	private volatile SQLFactory factory;
+
+	SQLStats(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public void bind(SQLFactory factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Gets the number of connections currently borrowed from the pool.
+	 *
+	 * @return Number of active connections, or 0 if the factory does not pool.
+	 */
+	public int getActiveConnections() {
+		SQLFactory factory = this.factory;
+		return factory instanceof SQLPooling ? ((SQLPooling)factory).getActiveConnections() : 0;
+	}
+
+	/**
+	 * Gets the time threads waited to borrow a connection.
+	 *
+	 * @return Histogram of borrow times.
+	 */
+	public LatencyHistogram getBorrowTimes() {
+		return this.borrowTimes;
+	}
+
+	/**
+	 * Gets the time taken to open new connections.
+	 *
+	 * @return Histogram of creation times.
+	 */
+	public LatencyHistogram getCreationTimes() {
+		return this.creationTimes;
+	}
+
+	/**
+	 * Gets the execution times of queries and updates by statement shape.
+	 *
+	 * @return Unmodifiable map of shapes to their histograms.
+	 */
+	public Map<String, LatencyHistogram> getExecutionTimes() {
+		return Collections.unmodifiableMap(this.shapes);
+	}
+
+	/**
+	 * Gets the number of writes flushed by write-behind queues.
+	 *
+	 * @return Number of flushed writes.
+	 */
+	public long getFlushedWrites() {
+		return this.flushedWrites.sum();
+	}
+
+	/**
+	 * Gets the time write-behind queues took to flush.
+	 *
+	 * @return Histogram of flush times.
+	 */
+	public LatencyHistogram getFlushTimes() {
+		return this.flushTimes;
+	}
+
+	/**
+	 * Gets the time connections were borrowed for.
+	 *
+	 * @return Histogram of hold times.
+	 */
+	public LatencyHistogram getHoldTimes() {
+		return this.holdTimes;
+	}
+
+	/**
+	 * Gets the number of connections waiting in the pool.
+	 *
+	 * @return Number of idle connections, or 0 if the factory does not pool.
+	 */
+	public int getIdleConnections() {
+		SQLFactory factory = this.factory;
+		return factory instanceof SQLPooling ? ((SQLPooling)factory).getIdleConnections() : 0;
+	}
+
+	/**
+	 * Gets the name the factory was registered with.
+	 *
+	 * @return Name of the factory.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Gets the number of threads waiting to borrow a connection.
+	 *
+	 * @return Number of pending threads, or 0 if the factory does not pool.
+	 */
+	public int getPendingThreads() {
+		SQLFactory factory = this.factory;
+		return factory instanceof SQLPooling ? ((SQLPooling)factory).getPendingThreads() : 0;
+	}
+
+	/**
+	 * Gets the number of writes waiting in write-behind queues.
+	 *
+	 * @return Number of pending writes.
+	 */
+	public long getPendingWrites() {
+		return this.pendingWrites.sum();
+	}
+
+	/**
+	 * Gets the number of times no connection could be borrowed in time.
+	 *
+	 * @return Number of timeouts.
+	 */
+	public long getTimeouts() {
+		return this.timeouts.sum();
+	}
+
+	/**
+	 * Gets the time taken to validate connections before borrowing them.
+	 *
+	 * @return Histogram of validation times.
+	 */
+	public LatencyHistogram getValidationTimes() {
+		return this.validationTimes;
+	}
+
+	@Override
+	public void recordBorrow(long nanos) {
+		this.borrowTimes.record(nanos);
+	}
+
+	@Override
+	public void recordCreation(long nanos) {
+		this.creationTimes.record(nanos);
+	}
+
+	@Override
+	public void recordExecution(String sql, long nanos) {
+		LatencyHistogram histogram = this.statements.get(sql);
+
+		if (histogram == null) {
+			histogram = this.shapeHistogram(shapeOf(sql));
+
+			if (this.statements.size() < MAX_STATEMENTS)
+				this.statements.put(sql, histogram);
+		}
+
+		histogram.record(nanos);
+	}
+
+	@Override
+	public void recordFlush(int writes, long nanos) {
+		this.flushTimes.record(nanos);
+		this.flushedWrites.add(writes);
+	}
+
+	@Override
+	public void recordHold(long nanos) {
+		this.holdTimes.record(nanos);
+	}
+
+	@Override
+	public void recordPendingWrites(int delta) {
+		this.pendingWrites.add(delta);
+	}
+
+	@Override
+	public void recordTimeout() {
+		this.timeouts.increment();
+	}
+
+	@Override
+	public void recordValidation(long nanos) {
+		this.validationTimes.record(nanos);
+	}
+
+	/**
+	 * Resets all histograms and counters, forgetting all statement shapes.
+	 * The number of pending writes is kept.
+	 */
+	public void reset() {
+		this.borrowTimes.reset();
+		this.holdTimes.reset();
+		this.creationTimes.reset();
+		this.validationTimes.reset();
+		this.flushTimes.reset();
+		this.timeouts.reset();
+		this.flushedWrites.reset();
+		this.statements.clear();
+		this.shapes.clear();
+	}
+
+	private LatencyHistogram shapeHistogram(String shape) {
+		LatencyHistogram histogram = this.shapes.get(shape);
+
+		if (histogram != null)
+			return histogram;
+
+		return this.shapes.computeIfAbsent(this.shapes.size() < MAX_SHAPES ? shape : OTHER_SHAPE, key -> new LatencyHistogram());
+	}
+
+	/**
+	 * Gets the shape of the given statement, with string and number literals
+	 * replaced by {@code ?}, {@code IN} lists collapsed and whitespace
+	 * trimmed.
+	 *
+	 * @param sql Statement to get the shape of.
+	 * @return Shape of the statement.
+	 */
+	public static String shapeOf(String sql) {
+		StringBuilder shape = new StringBuilder(sql.length());
+		int length = sql.length();
+
+		for (int i = 0; i < length; i++) {
+			char current = sql.charAt(i);
+
+			if (Character.isWhitespace(current)) {
+				if (shape.length() > 0 && shape.charAt(shape.length() - 1) != ' ')
+					shape.append(' ');
+			} else if (current == '\'') {
+				for (i++; i < length; i++) {
+					if (sql.charAt(i) == '\'') {
+						if (i + 1 < length && sql.charAt(i + 1) == '\'')
+							i++;
+						else
+							break;
+					}
+				}
+
+				shape.append('?');
+			} else if (Character.isDigit(current) && (shape.length() == 0 || !isIdentifierPart(shape.charAt(shape.length() - 1)))) {
+				while (i + 1 < length && (Character.isDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.'))
+					i++;
+
+				shape.append('?');
+			} else
+				shape.append(current);
+		}
+
+		int end = shape.length();
+
+		while (end > 0 && shape.charAt(end - 1) == ' ')
+			end--;
+
+		shape.setLength(end);
+		return IN_LIST.matcher(shape).replaceAll("IN (?)");
+	}
+
+	void unbind() {
+		SQLFactory factory = this.factory;
+
+		if (factory != null && factory.getMetrics() == this)
+			factory.setMetrics(SQLMetrics.DISABLED);
+	}
+
+	private static boolean isIdentifierPart(char current) {
+		return Character.isLetterOrDigit(current) || current == '_' || current == '`' || current == '"' || current == '?';
+	}
+
+	@Override
+	public String toString() {
+		return "SQLStats{name=" + this.name + ", borrow=" + this.borrowTimes + ", timeouts=" + this.getTimeouts() + ", shapes=" + this.shapes.size() + "}";
+	}
+
+}
@@ -9,6 +9,8 @@ import net.netcoding.nifty.core.util.concurrent.ConcurrentList;
 import net.netcoding.nifty.core.util.concurrent.ConcurrentMap;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 
@@ -172,12 +174,16 @@ public class DatabaseNotification {
 	}
 
 	private void loadPrimaryKeys() throws SQLException {
-		this.primaryColumnNames.clear();
-		this.primaryColumnNames.addAll(this.sql.query("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ? AND COLUMN_KEY = ?;", result -> {
-			ConcurrentList<String> keyNames = Concurrent.newList();
-			while (result.next()) keyNames.add(result.getString("COLUMN_NAME"));
-			return keyNames;
-		}, this.getSchema(), this.getTable(), "PRI"));
+		List<String> keyNames = this.sql.query("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ? AND COLUMN_KEY = ?;", result -> {
+			List<String> names = new ArrayList<>();
+			while (result.next()) names.add(result.getString("COLUMN_NAME"));
+			return names;
+		}, this.getSchema(), this.getTable(), "PRI");
+
+		this.primaryColumnNames.mutate(names -> {
+			names.clear();
+			names.addAll(keyNames);
+		});
 	}
 
 	boolean pulse() {
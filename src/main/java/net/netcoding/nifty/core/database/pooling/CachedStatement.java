@@ -0,0 +1,664 @@
+package net.netcoding.nifty.core.database.pooling;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * Wraps a prepared statement cached by a {@link PoolEntry}, closing it
+ * returns it to the cache of the connection instead.
+ * <p>
+ * Each prepare hands out a new instance for the cached statement, so closing
+ * it more than once, or after the statement was prepared again, never
+ * returns the statement twice. Any other use once closed throws.
+ * <p>
+ * Changing any setting of the statement, such as its fetch size or timeout,
+ * excludes it from being reused, so the next borrower never inherits it.
+ *
+ * @see StatementCache
+ */
+final class CachedStatement implements PreparedStatement {
+
+	private final transient StatementCache.Entry entry;
+	private final transient StatementCache cache;
+	private volatile boolean closed;
+	private boolean reusable = true;
+	private boolean batched;
+	private ResultSet result;
+
+	CachedStatement(StatementCache.Entry entry, StatementCache cache) {
+		this.entry = entry;
+		this.cache = cache;
+	}
+
+	@Override
+	public void addBatch() throws SQLException {
+		this.batched = true;
+		this.open().addBatch();
+	}
+
+	@Override
+	public void addBatch(String sql) throws SQLException {
+		this.batched = true;
+		this.open().addBatch(sql);
+	}
+
+	@Override
+	public void cancel() throws SQLException {
+		this.open().cancel();
+	}
+
+	@Override
+	public void clearBatch() throws SQLException {
+		this.open().clearBatch();
+	}
+
+	@Override
+	public void clearParameters() throws SQLException {
+		this.open().clearParameters();
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException {
+		this.open().clearWarnings();
+	}
+
+	/**
+	 * Return statement to the statement cache of its connection.
+	 */
+	@Override
+	public void close() throws SQLException {
+		this.release();
+	}
+
+	@Override
+	public void closeOnCompletion() throws SQLException {
+		this.reusable = false;
+		this.open().closeOnCompletion();
+	}
+
+	@Override
+	public boolean execute() throws SQLException {
+		return this.open().execute();
+	}
+
+	@Override
+	public boolean execute(String sql) throws SQLException {
+		return this.open().execute(sql);
+	}
+
+	@Override
+	public boolean execute(String sql, String[] columnNames) throws SQLException {
+		return this.open().execute(sql, columnNames);
+	}
+
+	@Override
+	public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+		return this.open().execute(sql, autoGeneratedKeys);
+	}
+
+	@Override
+	public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+		return this.open().execute(sql, columnIndexes);
+	}
+
+	@Override
+	public int[] executeBatch() throws SQLException {
+		return this.open().executeBatch();
+	}
+
+	@Override
+	public long[] executeLargeBatch() throws SQLException {
+		return this.open().executeLargeBatch();
+	}
+
+	@Override
+	public long executeLargeUpdate() throws SQLException {
+		return this.open().executeLargeUpdate();
+	}
+
+	@Override
+	public long executeLargeUpdate(String sql) throws SQLException {
+		return this.open().executeLargeUpdate(sql);
+	}
+
+	@Override
+	public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+		return this.open().executeLargeUpdate(sql, columnNames);
+	}
+
+	@Override
+	public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+		return this.open().executeLargeUpdate(sql, autoGeneratedKeys);
+	}
+
+	@Override
+	public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+		return this.open().executeLargeUpdate(sql, columnIndexes);
+	}
+
+	@Override
+	public ResultSet executeQuery() throws SQLException {
+		return this.result = this.open().executeQuery();
+	}
+
+	@Override
+	public ResultSet executeQuery(String sql) throws SQLException {
+		return this.result = this.open().executeQuery(sql);
+	}
+
+	@Override
+	public int executeUpdate() throws SQLException {
+		return this.open().executeUpdate();
+	}
+
+	@Override
+	public int executeUpdate(String sql) throws SQLException {
+		return this.open().executeUpdate(sql);
+	}
+
+	@Override
+	public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+		return this.open().executeUpdate(sql, columnNames);
+	}
+
+	@Override
+	public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+		return this.open().executeUpdate(sql, autoGeneratedKeys);
+	}
+
+	@Override
+	public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+		return this.open().executeUpdate(sql, columnIndexes);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		this.open();
+		return this.cache.getConnection();
+	}
+
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return this.open().getFetchDirection();
+	}
+
+	@Override
+	public int getFetchSize() throws SQLException {
+		return this.open().getFetchSize();
+	}
+
+	@Override
+	public ResultSet getGeneratedKeys() throws SQLException {
+		return this.open().getGeneratedKeys();
+	}
+
+	@Override
+	public long getLargeMaxRows() throws SQLException {
+		return this.open().getLargeMaxRows();
+	}
+
+	@Override
+	public long getLargeUpdateCount() throws SQLException {
+		return this.open().getLargeUpdateCount();
+	}
+
+	@Override
+	public int getMaxFieldSize() throws SQLException {
+		return this.open().getMaxFieldSize();
+	}
+
+	@Override
+	public int getMaxRows() throws SQLException {
+		return this.open().getMaxRows();
+	}
+
+	@Override
+	public ResultSetMetaData getMetaData() throws SQLException {
+		return this.open().getMetaData();
+	}
+
+	@Override
+	public boolean getMoreResults() throws SQLException {
+		return this.open().getMoreResults();
+	}
+
+	@Override
+	public boolean getMoreResults(int current) throws SQLException {
+		return this.open().getMoreResults(current);
+	}
+
+	@Override
+	public ParameterMetaData getParameterMetaData() throws SQLException {
+		return this.open().getParameterMetaData();
+	}
+
+	@Override
+	public int getQueryTimeout() throws SQLException {
+		return this.open().getQueryTimeout();
+	}
+
+	@Override
+	public ResultSet getResultSet() throws SQLException {
+		return this.result = this.open().getResultSet();
+	}
+
+	@Override
+	public int getResultSetConcurrency() throws SQLException {
+		return this.open().getResultSetConcurrency();
+	}
+
+	@Override
+	public int getResultSetHoldability() throws SQLException {
+		return this.open().getResultSetHoldability();
+	}
+
+	@Override
+	public int getResultSetType() throws SQLException {
+		return this.open().getResultSetType();
+	}
+
+	@Override
+	public int getUpdateCount() throws SQLException {
+		return this.open().getUpdateCount();
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		return this.open().getWarnings();
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return this.closed || this.entry.statement.isClosed();
+	}
+
+	@Override
+	public boolean isCloseOnCompletion() throws SQLException {
+		return this.open().isCloseOnCompletion();
+	}
+
+	@Override
+	public boolean isPoolable() throws SQLException {
+		return this.open().isPoolable();
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return this.open().isWrapperFor(iface);
+	}
+
+	private PreparedStatement open() throws SQLException {
+		if (this.closed)
+			throw new SQLException("Statement has already been returned to the cache!");
+
+		return this.entry.statement;
+	}
+
+	/**
+	 * Returns this statement to the cache of its connection, once.
+	 */
+	void release() {
+		if (this.closed)
+			return;
+
+		boolean reusable = this.reset();
+		this.closed = true;
+		this.cache.release(this.entry, reusable);
+	}
+
+	/**
+	 * Closes the last result, clears the parameters and batch of this statement.
+	 *
+	 * @return True if this statement can be reused.
+	 */
+	private boolean reset() {
+		try {
+			if (this.result != null)
+				this.result.close();
+
+			this.entry.statement.clearParameters();
+
+			if (this.batched)
+				this.entry.statement.clearBatch();
+
+			return this.reusable;
+		} catch (SQLException sqlex) {
+			return false;
+		} finally {
+			this.result = null;
+			this.batched = false;
+		}
+	}
+
+	@Override
+	public void setArray(int parameterIndex, Array x) throws SQLException {
+		this.open().setArray(parameterIndex, x);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+		this.open().setAsciiStream(parameterIndex, x);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		this.open().setAsciiStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+		this.open().setAsciiStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+		this.open().setBigDecimal(parameterIndex, x);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+		this.open().setBinaryStream(parameterIndex, x);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		this.open().setBinaryStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+		this.open().setBinaryStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, Blob x) throws SQLException {
+		this.open().setBlob(parameterIndex, x);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+		this.open().setBlob(parameterIndex, inputStream);
+	}
+
+	@Override
+	public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+		this.open().setBlob(parameterIndex, inputStream, length);
+	}
+
+	@Override
+	public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+		this.open().setBoolean(parameterIndex, x);
+	}
+
+	@Override
+	public void setByte(int parameterIndex, byte x) throws SQLException {
+		this.open().setByte(parameterIndex, x);
+	}
+
+	@Override
+	public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+		this.open().setBytes(parameterIndex, x);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+		this.open().setCharacterStream(parameterIndex, reader);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+		this.open().setCharacterStream(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+		this.open().setCharacterStream(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Clob x) throws SQLException {
+		this.open().setClob(parameterIndex, x);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Reader reader) throws SQLException {
+		this.open().setClob(parameterIndex, reader);
+	}
+
+	@Override
+	public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+		this.open().setClob(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setCursorName(String name) throws SQLException {
+		this.reusable = false;
+		this.open().setCursorName(name);
+	}
+
+	@Override
+	public void setDate(int parameterIndex, Date x) throws SQLException {
+		this.open().setDate(parameterIndex, x);
+	}
+
+	@Override
+	public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+		this.open().setDate(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setDouble(int parameterIndex, double x) throws SQLException {
+		this.open().setDouble(parameterIndex, x);
+	}
+
+	@Override
+	public void setEscapeProcessing(boolean enable) throws SQLException {
+		this.reusable = false;
+		this.open().setEscapeProcessing(enable);
+	}
+
+	@Override
+	public void setFetchDirection(int direction) throws SQLException {
+		this.reusable = false;
+		this.open().setFetchDirection(direction);
+	}
+
+	@Override
+	public void setFetchSize(int rows) throws SQLException {
+		this.reusable = false;
+		this.open().setFetchSize(rows);
+	}
+
+	@Override
+	public void setFloat(int parameterIndex, float x) throws SQLException {
+		this.open().setFloat(parameterIndex, x);
+	}
+
+	@Override
+	public void setInt(int parameterIndex, int x) throws SQLException {
+		this.open().setInt(parameterIndex, x);
+	}
+
+	@Override
+	public void setLargeMaxRows(long max) throws SQLException {
+		this.reusable = false;
+		this.open().setLargeMaxRows(max);
+	}
+
+	@Override
+	public void setLong(int parameterIndex, long x) throws SQLException {
+		this.open().setLong(parameterIndex, x);
+	}
+
+	@Override
+	public void setMaxFieldSize(int max) throws SQLException {
+		this.reusable = false;
+		this.open().setMaxFieldSize(max);
+	}
+
+	@Override
+	public void setMaxRows(int max) throws SQLException {
+		this.reusable = false;
+		this.open().setMaxRows(max);
+	}
+
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+		this.open().setNCharacterStream(parameterIndex, value);
+	}
+
+	@Override
+	public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+		this.open().setNCharacterStream(parameterIndex, value, length);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, NClob value) throws SQLException {
+		this.open().setNClob(parameterIndex, value);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+		this.open().setNClob(parameterIndex, reader);
+	}
+
+	@Override
+	public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+		this.open().setNClob(parameterIndex, reader, length);
+	}
+
+	@Override
+	public void setNString(int parameterIndex, String value) throws SQLException {
+		this.open().setNString(parameterIndex, value);
+	}
+
+	@Override
+	public void setNull(int parameterIndex, int sqlType) throws SQLException {
+		this.open().setNull(parameterIndex, sqlType);
+	}
+
+	@Override
+	public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+		this.open().setNull(parameterIndex, sqlType, typeName);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x) throws SQLException {
+		this.open().setObject(parameterIndex, x);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+		this.open().setObject(parameterIndex, x, targetSqlType);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+		this.open().setObject(parameterIndex, x, targetSqlType);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+		this.open().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+	}
+
+	@Override
+	public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+		this.open().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+	}
+
+	@Override
+	public void setPoolable(boolean poolable) throws SQLException {
+		this.reusable = false;
+		this.open().setPoolable(poolable);
+	}
+
+	@Override
+	public void setQueryTimeout(int seconds) throws SQLException {
+		this.reusable = false;
+		this.open().setQueryTimeout(seconds);
+	}
+
+	@Override
+	public void setRef(int parameterIndex, Ref x) throws SQLException {
+		this.open().setRef(parameterIndex, x);
+	}
+
+	@Override
+	public void setRowId(int parameterIndex, RowId x) throws SQLException {
+		this.open().setRowId(parameterIndex, x);
+	}
+
+	@Override
+	public void setShort(int parameterIndex, short x) throws SQLException {
+		this.open().setShort(parameterIndex, x);
+	}
+
+	@Override
+	public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+		this.open().setSQLXML(parameterIndex, xmlObject);
+	}
+
+	@Override
+	public void setString(int parameterIndex, String x) throws SQLException {
+		this.open().setString(parameterIndex, x);
+	}
+
+	@Override
+	public void setTime(int parameterIndex, Time x) throws SQLException {
+		this.open().setTime(parameterIndex, x);
+	}
+
+	@Override
+	public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+		this.open().setTime(parameterIndex, x, cal);
+	}
+
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+		this.open().setTimestamp(parameterIndex, x);
+	}
+
+	@Override
+	public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+		this.open().setTimestamp(parameterIndex, x, cal);
+	}
+
+	@Override
+	@Deprecated
+	public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+		this.open().setUnicodeStream(parameterIndex, x, length);
+	}
+
+	@Override
+	public void setURL(int parameterIndex, URL x) throws SQLException {
+		this.open().setURL(parameterIndex, x);
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		return this.open().unwrap(iface);
+	}
+
+}
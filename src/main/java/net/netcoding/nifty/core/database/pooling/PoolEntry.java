@@ -0,0 +1,45 @@
+package net.netcoding.nifty.core.database.pooling;
+
+import net.netcoding.nifty.core.util.concurrent.ConcurrentBag;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A physical connection kept in the {@link ConcurrentBag} of a
+ * {@link SQLPooling}, along with its statement cache and lifecycle times.
+ * <p>
+ * Each borrow hands out a new {@link RecoverableConnection} for this entry,
+ * so closing it more than once, or after the entry was borrowed again, never
+ * returns the entry twice.
+ */
+final class PoolEntry extends ConcurrentBag.Entry {
+
+	final Connection connection;
+	final StatementCache statements;
+	volatile RecoverableConnection handle;
+	volatile long lastAccess = System.nanoTime();
+	volatile long borrowed;
+	volatile Exception borrower;
+	volatile boolean leaked;
+	long expires;
+
+	PoolEntry(Connection connection, SQLPooling pool) {
+		this.connection = connection;
+		this.statements = new StatementCache(this, connection, pool);
+	}
+
+	void closeOnly() throws SQLException {
+		this.statements.clear();
+		this.connection.close();
+	}
+
+	boolean isExpired(long now) {
+		return this.expires != 0 && now - this.expires >= 0;
+	}
+
+	void releaseStatements() {
+		this.statements.releaseAll();
+	}
+
+}
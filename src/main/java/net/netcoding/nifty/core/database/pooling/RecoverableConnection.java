@@ -18,19 +18,26 @@ import java.sql.Struct;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Wraps any object implementing Connection interface and makes it manageable by any implementation of ConnectionPoolmanager
+ * <p>
+ * A new instance is handed out for every borrow, only its first close
+ * returns the connection to the pool.
  *
  * @see Connection
  */
 public final class RecoverableConnection implements Connection {
 
+	private final transient PoolEntry entry;
 	private final transient Connection connection;
 	private final transient SQLPooling pool;
+	private final AtomicBoolean closed = new AtomicBoolean();
 
-	public RecoverableConnection(Connection connection, SQLPooling pool) {
-		this.connection = connection;
+	RecoverableConnection(PoolEntry entry, SQLPooling pool) {
+		this.entry = entry;
+		this.connection = entry.connection;
 		this.pool = pool;
 	}
 
@@ -49,11 +56,8 @@ public final class RecoverableConnection implements Connection {
 	 */
 	@Override
 	public void close() throws SQLException {
-		this.pool.recycle(this);
-	}
-
-	void closeOnly() throws SQLException {
-		this.connection.close();
+		if (this.closed.compareAndSet(false, true))
+			this.pool.recycle(this.entry);
 	}
 
 	@Override
@@ -109,7 +113,7 @@ public final class RecoverableConnection implements Connection {
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj)
-			return false;
+			return true;
 		else if (obj == null || !RecoverableConnection.class.isAssignableFrom(obj.getClass()))
 			return false;
 		else {
@@ -186,9 +190,16 @@ public final class RecoverableConnection implements Connection {
 		return result;
 	}
 
+	/**
+	 * Marks this borrow as closed without returning the connection.
+	 */
+	void discard() {
+		this.closed.set(true);
+	}
+
 	@Override
 	public boolean isClosed() throws SQLException {
-		return this.connection == null;
+		return this.closed.get() || this.connection.isClosed();
 	}
 
 	@Override
@@ -211,6 +222,13 @@ public final class RecoverableConnection implements Connection {
 		return this.connection.nativeSQL(sql);
 	}
 
+	private StatementCache open() throws SQLException {
+		if (this.closed.get())
+			throw new SQLException("Connection has already been returned to the pool!");
+
+		return this.entry.statements;
+	}
+
 	@Override
 	public CallableStatement prepareCall(String sql) throws SQLException {
 		return this.connection.prepareCall(sql);
@@ -228,7 +246,7 @@ public final class RecoverableConnection implements Connection {
 
 	@Override
 	public PreparedStatement prepareStatement(String sql) throws SQLException {
-		return this.connection.prepareStatement(sql);
+		return this.open().prepare(sql);
 	}
 
 	@Override
@@ -238,12 +256,12 @@ public final class RecoverableConnection implements Connection {
 
 	@Override
 	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
-		return this.connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+		return this.open().prepare(sql, resultSetType, resultSetConcurrency);
 	}
 
 	@Override
 	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
-		return this.connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+		return this.open().prepare(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
 	}
 
 	@Override
@@ -3,27 +3,58 @@ package net.netcoding.nifty.core.database.pooling;
 import net.netcoding.nifty.core.NiftyCore;
 import net.netcoding.nifty.core.api.scheduler.MinecraftScheduler;
 import net.netcoding.nifty.core.database.factory.SQLFactory;
+import net.netcoding.nifty.core.database.metrics.SQLMetrics;
+import net.netcoding.nifty.core.util.StringUtil;
 import net.netcoding.nifty.core.util.concurrent.Concurrent;
-import net.netcoding.nifty.core.util.concurrent.ConcurrentDeque;
+import net.netcoding.nifty.core.util.concurrent.ConcurrentBag;
 
 import java.io.File;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 
 /**
  * Handles database connections with connection pooling functionality.
+ * <p>
+ * Connections are kept in a {@link ConcurrentBag}, borrowing one never takes
+ * a lock and threads that have to wait are handed returned connections in
+ * the order they started waiting.
+ * <p>
+ * Borrow, hold, creation and validation times are reported to the
+ * {@link #getMetrics() metrics} of this pool when enabled.
+ * <p>
+ * Every second, idle connections past their lifetime or idle timeout are
+ * closed, the pool is refilled up to the minimum number of connections and
+ * connections borrowed for longer than the leak detection threshold are
+ * logged with the stack trace of their borrower.
+ * <p>
+ * Each connection keeps its most recently used prepared statements open,
+ * statements closed by the borrower are reset and reused by the next.
  */
 public abstract class SQLPooling extends SQLFactory {
 
 	private static final int DEFAULT_MIN_CONNECTIONS = 2;
 	private static final int DEFAULT_MAX_CONNECTIONS = 10;
-	private final transient ConcurrentDeque<Connection> availableConnections = Concurrent.newDeque();
-	private final transient ConcurrentDeque<Connection> usedConnections = Concurrent.newDeque();
-	private final Object lock = new Object();
+	private static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+	private static final long DEFAULT_MAX_LIFETIME = TimeUnit.MINUTES.toMillis(30);
+	private static final long DEFAULT_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+	private static final long DEFAULT_CONNECTION_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+	private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+	private static final int LIFETIME_JITTER_DIVISOR = 40;
+	private final transient ConcurrentBag<PoolEntry> connections = Concurrent.newBag();
+	private final transient AtomicInteger totalConnections = new AtomicInteger();
 	private String validationQuery = "SELECT 1;";
 	private int minimumConnections = DEFAULT_MIN_CONNECTIONS;
 	private int maximumConnections = DEFAULT_MAX_CONNECTIONS;
+	private long maxLifetime = DEFAULT_MAX_LIFETIME;
+	private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+	private long leakDetectionThreshold = 0;
+	private volatile long connectionTimeout = DEFAULT_CONNECTION_TIMEOUT;
+	private int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
 	private boolean testOnBorrow = true;
 	private boolean firstConnect = true;
 
@@ -64,27 +95,137 @@ public abstract class SQLPooling extends SQLFactory {
 		this.initializeTimer();
 	}
 
+	/**
+	 * Create a new pooling instance that is not cleaned on a server
+	 * scheduler, for measuring the pool outside of a server.
+	 *
+	 * @param driver Database driver.
+	 * @param url Database connection url.
+	 * @param properties Properties of the database connection.
+	 * @param cleaner False to skip scheduling the connection cleaner.
+	 */
+	SQLPooling(String driver, String url, Properties properties, boolean cleaner) throws SQLException {
+		super(driver, url, properties);
+
+		if (cleaner)
+			this.initializeTimer();
+	}
+
 	private void initializeTimer() {
-		MinecraftScheduler.getInstance().runAsync(new ConnectionCleaner(), 0, 200 * (NiftyCore.isBungee() ? 50 : 1));
+		MinecraftScheduler.getInstance().runAsync(new ConnectionCleaner(), 0, 20 * (NiftyCore.isBungee() ? 50 : 1));
 	}
 
 	/**
-	 * Gets a connection from connection pool.
+	 * Gets a connection from connection pool, waiting up to the
+	 * {@link #getConnectionTimeout() connection timeout} for one to be
+	 * returned when all are in use.
 	 *
 	 * @return Connection to the database.
-	 * @throws SQLException When connection is not available immediately.
+	 * @throws SQLException When connection is not available within the connection timeout.
 	 */
 	@Override
 	protected final Connection getConnection() throws SQLException {
-		return this.getConnection(WaitTime.IMMEDIATELY);
+		return this.borrow(this.getConnectionTimeout());
+	}
+
+	private Connection borrow(long milliseconds) throws SQLException {
+		if (this.connections == null)
+			return super.getConnection();
+
+		this.initializeConnections();
+		long timeout = TimeUnit.MILLISECONDS.toNanos(milliseconds);
+		long start = System.nanoTime();
+
+		try {
+			while (true) {
+				PoolEntry entry = this.connections.borrow(0, TimeUnit.NANOSECONDS);
+
+				if (entry == null) {
+					if (this.createConnection())
+						continue;
+
+					entry = this.connections.borrow(timeout - (System.nanoTime() - start), TimeUnit.NANOSECONDS);
+
+					if (entry == null)
+						break;
+				}
+
+				RecoverableConnection connection = new RecoverableConnection(entry, this);
+				entry.handle = connection;
+
+				if (this.isUsable(entry, connection)) {
+					SQLMetrics metrics = this.getMetrics();
+					boolean detectLeaks = this.getLeakDetectionThreshold() > 0;
+
+					if (metrics.isEnabled() || detectLeaks) {
+						entry.borrowed = System.nanoTime();
+						metrics.recordBorrow(entry.borrowed - start);
+					}
+
+					if (detectLeaks)
+						entry.borrower = new Exception("Connection borrowed here");
+
+					return connection;
+				}
+
+				connection.discard();
+				entry.handle = null;
+				this.retire(entry);
+			}
+		} catch (InterruptedException iex) {
+			Thread.currentThread().interrupt();
+		}
+
+		this.getMetrics().recordTimeout();
+
+		if (milliseconds <= 0)
+			throw new SQLException("Failed to borrow connection from the available pool!");
+
+		throw new SQLException(StringUtil.format("Failed to borrow connection from the available pool within {0,number,#}ms!", milliseconds));
+	}
+
+	private boolean createConnection() throws SQLException {
+		int total;
+
+		do {
+			total = this.totalConnections.get();
+
+			if (total >= this.getMaximumConnections())
+				return false;
+		} while (!this.totalConnections.compareAndSet(total, total + 1));
+
+		try {
+			SQLMetrics metrics = this.getMetrics();
+			long start = metrics.isEnabled() ? System.nanoTime() : 0;
+			Connection connection = super.getConnection();
+
+			if (metrics.isEnabled())
+				metrics.recordCreation(System.nanoTime() - start);
+
+			PoolEntry entry = new PoolEntry(connection, this);
+			long lifetime = TimeUnit.MILLISECONDS.toNanos(this.getMaxLifetime());
+
+			if (lifetime > 0) {
+				long jitter = lifetime / LIFETIME_JITTER_DIVISOR;
+				entry.expires = entry.lastAccess + lifetime - (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter) : 0);
+			}
+
+			this.connections.add(entry);
+			return true;
+		} catch (SQLException sqlex) {
+			this.totalConnections.decrementAndGet();
+			throw sqlex;
+		}
 	}
 
 	private void initializeConnections() throws SQLException {
 		if (!this.firstConnect) return;
 		this.firstConnect = false;
 
-		for (int i = 0; i < this.getMinimumConnections(); i++)
-			this.availableConnections.offer(this.getConnection());
+		while (this.totalConnections.get() < this.getMinimumConnections()) {
+			if (!this.createConnection())
+				break;
+		}
 	}
 
 	/**
@@ -95,47 +236,77 @@ public abstract class SQLPooling extends SQLFactory {
 	 * @throws SQLException When connection is not available within given wait time.
 	 */
 	protected final Connection getConnection(WaitTime waitTime) throws SQLException {
-		Connection connection;
+		return this.borrow(waitTime.getWaitTime());
+	}
 
-		if (this.availableConnections != null) {
-			this.initializeConnections();
+	/**
+	 * Gets the number of threads running asynchronous tasks, one for each
+	 * connection the pool can open.
+	 *
+	 * @return Maximum number of connections.
+	 */
+	@Override
+	protected final int getAsyncThreads() {
+		return this.getMaximumConnections();
+	}
 
-			synchronized (this.lock) {
-				if (this.availableConnections.isEmpty()) {
-					if (this.usedConnections.size() < this.getMaximumConnections())
-						this.usedConnections.offer(connection = new RecoverableConnection(super.getConnection(), this));
-					else {
-						if (waitTime == WaitTime.IMMEDIATELY)
-							throw new SQLException("Failed to borrow connection from the available pool!");
+	/**
+	 * Gets the number of connections currently borrowed.
+	 *
+	 * @return Number of active connections.
+	 */
+	public final int getActiveConnections() {
+		return this.connections.getCount(ConcurrentBag.State.IN_USE);
+	}
 
-						try {
-							Thread.sleep(waitTime.getWaitTime());
-						} catch (InterruptedException ignore) { }
+	/**
+	 * Gets the time to wait for a connection to be returned when all are in
+	 * use and no more can be opened.
+	 *
+	 * @return Connection timeout in milliseconds, 0 to fail immediately.
+	 */
+	public final long getConnectionTimeout() {
+		return this.connectionTimeout;
+	}
 
-						connection = this.getConnection();
-					}
-				} else {
-					connection = this.availableConnections.remove();
-					this.usedConnections.offer(connection);
-				}
-			}
+	/**
+	 * Gets the time a connection may sit unused before being closed, while
+	 * there are more than the minimum number of connections.
+	 *
+	 * @return Idle timeout in milliseconds, 0 if disabled.
+	 */
+	public final long getIdleTimeout() {
+		return this.idleTimeout;
+	}
 
-			if (connection.isClosed())
-				connection = new RecoverableConnection(super.getConnection(), this);
-			else {
-				if (this.isTestingOnBorrow()) {
-					try {
-						this.query(connection, this.getValidationQuery(), null);
-					} catch (SQLException sqlex) {
-						this.usedConnections.remove(connection);
-						connection = this.getConnection(WaitTime.IMMEDIATELY);
-					}
-				}
-			}
-		} else
-			connection = super.getConnection();
+	/**
+	 * Gets the number of connections waiting to be borrowed.
+	 *
+	 * @return Number of idle connections.
+	 */
+	public final int getIdleConnections() {
+		return this.connections.getCount(ConcurrentBag.State.NOT_IN_USE);
+	}
 
-		return connection;
+	/**
+	 * Gets the time a connection may be borrowed before it is logged as a
+	 * possible leak.
+	 *
+	 * @return Leak detection threshold in milliseconds, 0 if disabled.
+	 */
+	public final long getLeakDetectionThreshold() {
+		return this.leakDetectionThreshold;
+	}
+
+	/**
+	 * Gets the maximum time a connection is kept open, connections are
+	 * closed at a random point within the last 2.5% of this time so they
+	 * do not all expire together.
+	 *
+	 * @return Maximum lifetime in milliseconds, 0 if disabled.
+	 */
+	public final long getMaxLifetime() {
+		return this.maxLifetime;
 	}
 
 	/**
@@ -156,6 +327,33 @@ public abstract class SQLPooling extends SQLFactory {
 		return this.maximumConnections;
 	}
 
+	/**
+	 * Gets the number of threads waiting to borrow a connection.
+	 *
+	 * @return Number of pending threads.
+	 */
+	public final int getPendingThreads() {
+		return this.connections.getWaitingThreads();
+	}
+
+	/**
+	 * Gets the number of prepared statements kept open per connection.
+	 *
+	 * @return Maximum number of cached statements, 0 if disabled.
+	 */
+	public final int getStatementCacheSize() {
+		return this.statementCacheSize;
+	}
+
+	/**
+	 * Gets the number of connections opened by the pool.
+	 *
+	 * @return Number of active and idle connections.
+	 */
+	public final int getTotalConnections() {
+		return this.totalConnections.get();
+	}
+
 	/**
 	 * Gets the query used to test for valid connections
 	 * before returning them from the pool.
@@ -176,9 +374,118 @@ public abstract class SQLPooling extends SQLFactory {
 		return this.testOnBorrow;
 	}
 
-	void recycle(Connection connection) {
-		this.usedConnections.remove(connection);
-		this.availableConnections.offer(connection);
+	private boolean isUsable(PoolEntry entry, RecoverableConnection connection) {
+		try {
+			long now = System.nanoTime();
+
+			if (entry.isExpired(now) || connection.isClosed())
+				return false;
+
+			if (this.isTestingOnBorrow() && now - entry.lastAccess > VALIDATION_BYPASS_NANOS) {
+				SQLMetrics metrics = this.getMetrics();
+				long start = metrics.isEnabled() ? System.nanoTime() : 0;
+
+				try {
+					this.query(connection, this.getValidationQuery(), null);
+				} finally {
+					if (metrics.isEnabled())
+						metrics.recordValidation(System.nanoTime() - start);
+				}
+			}
+
+			return true;
+		} catch (SQLException sqlex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the given entry to the pool, called once per borrow by the
+	 * first close of its {@link RecoverableConnection}.
+	 */
+	void recycle(PoolEntry entry) {
+		if (entry.getState() != ConcurrentBag.State.IN_USE)
+			return;
+
+		entry.lastAccess = System.nanoTime();
+		entry.handle = null;
+
+		if (entry.borrowed != 0) {
+			this.getMetrics().recordHold(entry.lastAccess - entry.borrowed);
+
+			if (entry.leaked)
+				NiftyCore.getNiftyLogger().info(StringUtil.format("Connection previously reported as leaked was returned after {0,number,#}ms.", TimeUnit.NANOSECONDS.toMillis(entry.lastAccess - entry.borrowed)));
+
+			entry.borrowed = 0;
+			entry.borrower = null;
+			entry.leaked = false;
+		}
+
+		entry.releaseStatements();
+
+		if (entry.isExpired(entry.lastAccess))
+			this.retire(entry);
+		else
+			this.connections.requite(entry);
+	}
+
+	private void retire(PoolEntry entry) {
+		if (this.connections.remove(entry)) {
+			this.totalConnections.decrementAndGet();
+
+			try {
+				entry.closeOnly();
+			} catch (SQLException ignore) { }
+		}
+	}
+
+	/**
+	 * Sets the time to wait for a connection to be returned when all are in
+	 * use and no more can be opened.
+	 * <p>
+	 * Synchronous queries block the calling thread for up to this long while
+	 * the pool is exhausted, use their asynchronous variants from the main
+	 * thread of the server.
+	 *
+	 * @param milliseconds Connection timeout, 0 to fail immediately.
+	 */
+	public final void setConnectionTimeout(long milliseconds) {
+		this.connectionTimeout = Math.max(0, milliseconds);
+	}
+
+	/**
+	 * Sets the time a connection may sit unused before being closed, while
+	 * there are more than the minimum number of connections.
+	 *
+	 * @param milliseconds Idle timeout, 0 to keep idle connections open.
+	 */
+	public final void setIdleTimeout(long milliseconds) {
+		this.idleTimeout = Math.max(0, milliseconds);
+	}
+
+	/**
+	 * Sets the time a connection may be borrowed before it is logged as a
+	 * possible leak, along with the stack trace of its borrower.
+	 * <p>
+	 * Capturing the stack trace makes borrowing slower, only enable this
+	 * while looking for leaks.
+	 *
+	 * @param milliseconds Leak detection threshold, 0 to disable.
+	 */
+	public final void setLeakDetectionThreshold(long milliseconds) {
+		this.leakDetectionThreshold = Math.max(0, milliseconds);
+	}
+
+	/**
+	 * Sets the maximum time a connection is kept open, this should be
+	 * shorter than any timeout the database closes connections after.
+	 * <p>
+	 * Only applies to connections opened afterwards.
+	 *
+	 * @param milliseconds Maximum lifetime, 0 to keep connections open.
+	 */
+	public final void setMaxLifetime(long milliseconds) {
+		this.maxLifetime = Math.max(0, milliseconds);
 	}
 
 	/**
@@ -202,6 +509,16 @@ public abstract class SQLPooling extends SQLFactory {
 		this.maximumConnections = count;
 	}
 
+	/**
+	 * Sets the number of prepared statements kept open per connection,
+	 * keyed by their sql and result set options.
+	 *
+	 * @param count Maximum number of cached statements, 0 to disable.
+	 */
+	public final void setStatementCacheSize(int count) {
+		this.statementCacheSize = Math.max(0, count);
+	}
+
 	/**
 	 * Sets whether or not to test the connection when it
 	 * is requested from the pool.
@@ -224,18 +541,59 @@ public abstract class SQLPooling extends SQLFactory {
 
 	private class ConnectionCleaner implements Runnable {
 
+		private void detectLeaks(long now) {
+			long threshold = TimeUnit.MILLISECONDS.toNanos(SQLPooling.this.getLeakDetectionThreshold());
+
+			if (threshold == 0)
+				return;
+
+			for (PoolEntry entry : SQLPooling.this.connections.getEntries(ConcurrentBag.State.IN_USE)) {
+				Exception borrower = entry.borrower;
+				long borrowed = entry.borrowed;
+
+				if (borrower != null && !entry.leaked && borrowed != 0 && now - borrowed > threshold) {
+					entry.leaked = true;
+					NiftyCore.getNiftyLogger().log(Level.WARNING, StringUtil.format("Connection has been borrowed for {0,number,#}ms, it may have been leaked!", TimeUnit.NANOSECONDS.toMillis(now - borrowed)), borrower);
+				}
+			}
+		}
+
+		private void evict(long now) {
+			long idleTimeout = TimeUnit.MILLISECONDS.toNanos(SQLPooling.this.getIdleTimeout());
+			int idle = SQLPooling.this.connections.getCount(ConcurrentBag.State.NOT_IN_USE);
+
+			for (PoolEntry entry : SQLPooling.this.connections.getEntries(ConcurrentBag.State.NOT_IN_USE)) {
+				boolean expired = entry.isExpired(now);
+				boolean unused = idleTimeout > 0 && idle > SQLPooling.this.getMinimumConnections() && now - entry.lastAccess > idleTimeout;
+
+				if ((expired || unused) && SQLPooling.this.connections.reserve(entry)) {
+					SQLPooling.this.retire(entry);
+					idle--;
+				}
+			}
+		}
+
+		private void replenish() {
+			try {
+				while (SQLPooling.this.getTotalConnections() < SQLPooling.this.getMinimumConnections()) {
+					if (!SQLPooling.this.createConnection())
+						break;
+				}
+			} catch (SQLException sqlex) {
+				NiftyCore.getNiftyLogger().log(Level.WARNING, "Unable to replenish the connection pool!", sqlex);
+			}
+		}
+
 		@Override
 		public void run() {
-			while (SQLPooling.this.availableConnections.size() > SQLPooling.this.getMinimumConnections()) {
-				Connection connection = SQLPooling.this.availableConnections.removeLast();
+			long now = System.nanoTime();
+			this.evict(now);
+			this.detectLeaks(now);
 
-				try {
-					if (!connection.isClosed())
-						((RecoverableConnection)connection).closeOnly();
-				} catch (SQLException ignore) { }
-			}
+			if (!SQLPooling.this.firstConnect)
+				this.replenish();
 		}
 
 	}
 
-}
\ No newline at end of file
+}
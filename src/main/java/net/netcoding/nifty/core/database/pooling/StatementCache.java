@@ -0,0 +1,191 @@
+package net.netcoding.nifty.core.database.pooling;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of the prepared statements of a single
+ * {@link PoolEntry}, keyed by their sql and result set options.
+ * <p>
+ * Like the connection itself, this is only ever used by one thread at a time
+ * and is not thread-safe. The number of statements kept is read from
+ * {@link SQLPooling#getStatementCacheSize()} on every prepare.
+ */
+final class StatementCache {
+
+	private static final int DEFAULT = -1;
+	private final Map<Key, Entry> statements = new LinkedHashMap<>(16, 0.75f, true);
+	private final PoolEntry owner;
+	private final Connection connection;
+	private final SQLPooling pool;
+
+	StatementCache(PoolEntry owner, Connection connection, SQLPooling pool) {
+		this.owner = owner;
+		this.connection = connection;
+		this.pool = pool;
+	}
+
+	/**
+	 * Closes all cached statements.
+	 */
+	void clear() {
+		for (Entry entry : this.statements.values())
+			entry.closeOnly();
+
+		this.statements.clear();
+	}
+
+	private PreparedStatement create(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		if (resultSetType == DEFAULT)
+			return this.connection.prepareStatement(sql);
+		else if (resultSetHoldability == DEFAULT)
+			return this.connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+		else
+			return this.connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+	}
+
+	/**
+	 * Gets the connection handed to the current borrower of the owner.
+	 */
+	Connection getConnection() {
+		return this.owner.handle;
+	}
+
+	PreparedStatement prepare(String sql) throws SQLException {
+		return this.prepare(sql, DEFAULT, DEFAULT, DEFAULT);
+	}
+
+	PreparedStatement prepare(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		return this.prepare(sql, resultSetType, resultSetConcurrency, DEFAULT);
+	}
+
+	/**
+	 * Gets a cached statement that is not in use, or prepares a new one.
+	 * <p>
+	 * A statement that is already in use, for example by a nested query,
+	 * gets an uncached copy instead.
+	 */
+	PreparedStatement prepare(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		int size = this.pool.getStatementCacheSize();
+
+		if (size <= 0) {
+			if (!this.statements.isEmpty())
+				this.trim(0);
+
+			return this.create(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+		}
+
+		Key key = new Key(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+		Entry entry = this.statements.get(key);
+
+		if (entry == null) {
+			entry = new Entry(this.create(sql, resultSetType, resultSetConcurrency, resultSetHoldability), key);
+			this.statements.put(key, entry);
+			this.trim(size);
+		} else if (entry.lease != null)
+			return this.create(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+
+		return entry.lease = new CachedStatement(entry, this);
+	}
+
+	/**
+	 * Returns the given statement to this cache, closing it if it was evicted
+	 * or cannot be reused. Called once per lease by its first close.
+	 */
+	void release(Entry entry, boolean reusable) {
+		entry.lease = null;
+
+		if (entry.evicted || !reusable) {
+			this.statements.remove(entry.key, entry);
+			entry.closeOnly();
+		}
+	}
+
+	/**
+	 * Returns all statements left open by the borrower of the connection.
+	 */
+	void releaseAll() {
+		for (Entry entry : new ArrayList<>(this.statements.values())) {
+			if (entry.lease != null)
+				entry.lease.release();
+		}
+	}
+
+	private void trim(int size) {
+		Iterator<Entry> iterator = this.statements.values().iterator();
+
+		while (this.statements.size() > size && iterator.hasNext()) {
+			Entry eldest = iterator.next();
+			iterator.remove();
+
+			if (eldest.lease != null)
+				eldest.evicted = true;
+			else
+				eldest.closeOnly();
+		}
+	}
+
+	/**
+	 * A prepared statement kept in this cache, handed out through a new
+	 * {@link CachedStatement} each time it is prepared.
+	 */
+	static final class Entry {
+
+		final PreparedStatement statement;
+		final Key key;
+		CachedStatement lease;
+		boolean evicted;
+
+		Entry(PreparedStatement statement, Key key) {
+			this.statement = statement;
+			this.key = key;
+		}
+
+		void closeOnly() {
+			try {
+				this.statement.close();
+			} catch (SQLException ignore) { }
+		}
+
+	}
+
+	static final class Key {
+
+		private final String sql;
+		private final int resultSetType;
+		private final int resultSetConcurrency;
+		private final int resultSetHoldability;
+		private final int hash;
+
+		Key(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) {
+			this.sql = sql;
+			this.resultSetType = resultSetType;
+			this.resultSetConcurrency = resultSetConcurrency;
+			this.resultSetHoldability = resultSetHoldability;
+			this.hash = 31 * (31 * (31 * sql.hashCode() + resultSetType) + resultSetConcurrency) + resultSetHoldability;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			else if (!(obj instanceof Key))
+				return false;
+
+			Key that = (Key)obj;
+			return this.hash == that.hash && this.resultSetType == that.resultSetType && this.resultSetConcurrency == that.resultSetConcurrency && this.resultSetHoldability == that.resultSetHoldability && this.sql.equals(that.sql);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+	}
+
+}
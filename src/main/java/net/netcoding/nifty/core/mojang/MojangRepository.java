@@ -14,7 +14,7 @@ import net.netcoding.nifty.core.util.ListUtil;
 import net.netcoding.nifty.core.util.StringUtil;
 import net.netcoding.nifty.core.util.concurrent.Concurrent;
 import net.netcoding.nifty.core.util.concurrent.ConcurrentList;
-import net.netcoding.nifty.core.util.concurrent.ConcurrentSet;
+import net.netcoding.nifty.core.util.concurrent.expiring.ConcurrentExpiringMap;
 import net.netcoding.nifty.core.util.misc.Callback;
 
 import java.lang.reflect.Array;
@@ -22,6 +22,7 @@ import java.lang.reflect.ParameterizedType;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A collection of methods to query UniqueIDs and Names.
@@ -33,7 +34,13 @@ public abstract class MojangRepository<T extends MojangProfile, P> {
 	protected static final int PROFILES_PER_REQUEST = 100;
 	protected static long LAST_HTTP_REQUEST = System.currentTimeMillis();
 	protected static boolean API_AVAILABLE = true;
-	protected final transient ConcurrentSet<T> cache = Concurrent.newSet();
+	/**
+	 * Profiles looked up from the Mojang API by unique id, kept for 30 minutes.
+	 * <p>
+	 * This was a {@code ConcurrentSet<T>} before, subclasses adding profiles
+	 * must now put them by {@link MojangProfile#getUniqueId()}.
+	 */
+	protected final transient ConcurrentExpiringMap<UUID, T> cache = Concurrent.newExpiringMap(30, TimeUnit.MINUTES);
 
 	static {
 		MinecraftScheduler.getInstance().runAsync(() -> {
@@ -262,15 +269,14 @@ public abstract class MojangRepository<T extends MojangProfile, P> {
 			// Check Online Servers
 			this.processOnlineUsernames(profiles, userList);
 
-			// Remove Expired Cache Profiles
-			this.cache.stream().filter(T::hasExpired).forEach(this.cache::remove);
-
 			// Check Cache Profiles
 			if (!this.cache.isEmpty()) {
+				Collection<T> cached = this.cache.values();
+
 				for (String name : userList) {
 					String criteriaName = name.toLowerCase();
 
-					for (T profile : this.cache) {
+					for (T profile : cached) {
 						if (profile.getName().equalsIgnoreCase(criteriaName)) {
 							profiles.add(profile);
 							userList.remove(name);
@@ -278,7 +284,7 @@ public abstract class MojangRepository<T extends MojangProfile, P> {
 						}
 					}
 
-					for (T profile : this.cache) {
+					for (T profile : cached) {
 						if (profile.getName().toLowerCase().startsWith(criteriaName)) {
 							profiles.add(profile);
 							userList.remove(name);
@@ -314,7 +320,8 @@ public abstract class MojangRepository<T extends MojangProfile, P> {
 
 							if (result != null && result.length > 0) {
 								profiles.addAll(Arrays.asList(result));
-								this.cache.addAll(Arrays.asList(result));
+								for (T profile : result)
+									this.cache.put(profile.getUniqueId(), profile);
 							}
 						}
 					} catch (HttpConnectionException hcex) {
@@ -329,8 +336,7 @@ public abstract class MojangRepository<T extends MojangProfile, P> {
 					}
 				} while (start < userList.size());
 
-				for (T profile : profiles)
-					userList.remove(profile.getName());
+				userList.mutate(list -> profiles.forEach(profile -> list.remove(profile.getName())));
 
 				for (String user : userList) {
 					long wait = LAST_HTTP_REQUEST + 100 - System.currentTimeMillis();
@@ -344,7 +350,7 @@ public abstract class MojangRepository<T extends MojangProfile, P> {
 
 							if (result != null) {
 								profiles.add(result);
-								this.cache.add(result);
+								this.cache.put(result.getUniqueId(), result);
 							}
 						}
 					} catch (HttpConnectionException hcex) {
@@ -357,8 +363,7 @@ public abstract class MojangRepository<T extends MojangProfile, P> {
 					}
 				}
 
-				for (T profile : profiles)
-					userList.remove(profile.getName());
+				userList.mutate(list -> profiles.forEach(profile -> list.remove(profile.getName())));
 
 				for (String user : userList) {
 					long wait = LAST_HTTP_REQUEST + 100 - System.currentTimeMillis();
@@ -372,7 +377,7 @@ public abstract class MojangRepository<T extends MojangProfile, P> {
 
 							if (result != null) {
 								profiles.add(result);
-								this.cache.add(result);
+								this.cache.put(result.getUniqueId(), result);
 							}
 						}
 					} catch (HttpConnectionException hcex) {
@@ -440,18 +445,9 @@ public abstract class MojangRepository<T extends MojangProfile, P> {
 			// Check Online Servers
 			found = this.processOnlineUniqueId(uniqueId);
 
-			// Remove Expired Cache Profiles
-			this.cache.stream().filter(MojangProfile::hasExpired).forEach(this.cache::remove);
-
 			// Check Cache Profiles
-			if (found == null) {
-				for (T profile : this.cache) {
-					if (profile.getUniqueId().equals(uniqueId)) {
-						found = profile;
-						break;
-					}
-				}
-			}
+			if (found == null)
+				found = this.cache.get(uniqueId);
 
 			// Check Offline Player Cache
 			if (found == null)
@@ -472,7 +468,7 @@ public abstract class MojangRepository<T extends MojangProfile, P> {
 							json.addProperty("id", uniqueId.toString());
 							json.addProperty("name", result.getName());
 							found = GSON.fromJson(json.toString(), this.getSuperClass());
-							this.cache.add(found);
+							this.cache.put(found.getUniqueId(), found);
 						}
 					}
 				} catch (HttpConnectionException hcex) {
@@ -71,10 +71,12 @@ public class RegexUtil {
 	 * @return The cached filtered message.
 	 */
 	public static String replaceColor(String message, Pattern pattern) {
-		if (!ORDERED_MESSAGES.containsKey(message)) {
+		String newMessage = ORDERED_MESSAGES.get(message);
+
+		if (newMessage == null) {
 			Pattern patternx = Pattern.compile(StringUtil.format("(((?:[&{0}]{1}){2})+)([^&{0}]*)", SECTOR_SYMBOL, "{1,2}", ALL_PATTERN));
 			String[] parts = StringUtil.split(" ", message);
-			String newMessage = message;
+			newMessage = message;
 
 			for (String part : parts) {
 				Matcher matcher = patternx.matcher(part);
@@ -93,7 +95,7 @@ public class RegexUtil {
 			ORDERED_MESSAGES.put(message, newMessage);
 		}
 
-		return replace(replace(ORDERED_MESSAGES.get(message), pattern, RegexUtil.SECTOR_SYMBOL + "$1"), REPLACE_PATTERN, "&");
+		return replace(replace(newMessage, pattern, RegexUtil.SECTOR_SYMBOL + "$1"), REPLACE_PATTERN, "&");
 	}
 
 	/**
@@ -69,8 +69,9 @@ public class StringUtil {
 	 * @return a formatted string
 	 */
 	public static String format(String format, ChatColor logColor, ChatColor logImportant, Object... objects) {
-		if (!MESSAGE_CACHE.containsKey(format)) {
-			MessageFormat messageFormat = null;
+		MessageFormat messageFormat = MESSAGE_CACHE.get(format);
+
+		if (messageFormat == null) {
 			String newFormat = RegexUtil.replace(format, RegexUtil.LOG_PATTERN, (logImportant + "$1" + logColor));
 
 			try {
@@ -86,7 +87,6 @@ public class StringUtil {
 			MESSAGE_CACHE.put(format, messageFormat);
 		}
 
-		MessageFormat messageFormat = MESSAGE_CACHE.get(format);
 		return (messageFormat != null ? messageFormat.format(objects) : format);
 	}
 
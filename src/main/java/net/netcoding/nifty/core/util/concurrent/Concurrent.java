@@ -1,13 +1,20 @@
 package net.netcoding.nifty.core.util.concurrent;
 
 import net.netcoding.nifty.core.util.StringUtil;
+import net.netcoding.nifty.core.util.concurrent.expiring.ConcurrentExpiringMap;
 import net.netcoding.nifty.core.util.concurrent.linked.ConcurrentLinkedList;
 import net.netcoding.nifty.core.util.concurrent.linked.ConcurrentLinkedMap;
 import net.netcoding.nifty.core.util.concurrent.linked.ConcurrentLinkedSet;
+import net.netcoding.nifty.core.util.concurrent.trie.KeyIndex;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
@@ -16,18 +23,51 @@ import java.util.stream.Collector;
 
 public final class Concurrent {
 
-	private static final ConcurrentSet<Collector.Characteristics> CHARACTERISTICS = Concurrent.newSet(Collector.Characteristics.CONCURRENT, Collector.Characteristics.IDENTITY_FINISH);
-	private static final ConcurrentSet<Collector.Characteristics> UN_CHARACTERISTICS = Concurrent.newSet(Collector.Characteristics.CONCURRENT, Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
-
-	@SuppressWarnings("unchecked")
-	private static <I, R> Function<I, R> castingIdentity() {
-		return i -> (R)i;
-	}
+	private static final ConcurrentSet<Collector.Characteristics> CHARACTERISTICS = Concurrent.newSet();
+	private static final ConcurrentSet<Collector.Characteristics> UN_CHARACTERISTICS = Concurrent.newSet(Collector.Characteristics.UNORDERED);
 
 	private static <T> BinaryOperator<T> throwingMerger() {
 		return (key, value) -> { throw new IllegalStateException(StringUtil.format("Duplicate key {0}", key)); };
 	}
 
+	public static <T extends ConcurrentBag.Entry> ConcurrentBag<T> newBag() {
+		return new ConcurrentBag<>();
+	}
+
+	public static <E> ConcurrentBlockingDeque<E> newBlockingDeque() {
+		return new ConcurrentBlockingDeque<>();
+	}
+
+	public static <E> ConcurrentBlockingDeque<E> newBlockingDeque(int capacity) {
+		return new ConcurrentBlockingDeque<>(capacity);
+	}
+
+	@SafeVarargs
+	public static <E> ConcurrentBlockingDeque<E> newBlockingDeque(E... array) {
+		return new ConcurrentBlockingDeque<>(array);
+	}
+
+	public static <E> ConcurrentBlockingDeque<E> newBlockingDeque(Collection<? extends E> collection) {
+		return new ConcurrentBlockingDeque<>(collection);
+	}
+
+	public static <E> ConcurrentBlockingQueue<E> newBlockingQueue() {
+		return new ConcurrentBlockingQueue<>();
+	}
+
+	public static <E> ConcurrentBlockingQueue<E> newBlockingQueue(int capacity) {
+		return new ConcurrentBlockingQueue<>(capacity);
+	}
+
+	@SafeVarargs
+	public static <E> ConcurrentBlockingQueue<E> newBlockingQueue(E... array) {
+		return new ConcurrentBlockingQueue<>(array);
+	}
+
+	public static <E> ConcurrentBlockingQueue<E> newBlockingQueue(Collection<? extends E> collection) {
+		return new ConcurrentBlockingQueue<>(collection);
+	}
+
 	public static <E> ConcurrentDeque<E> newDeque() {
 		return new ConcurrentDeque<>();
 	}
@@ -41,6 +81,36 @@ public final class Concurrent {
 		return new ConcurrentDeque<>(collection);
 	}
 
+	public static <K, V> ConcurrentExpiringMap<K, V> newExpiringMap(long duration, TimeUnit unit) {
+		return new ConcurrentExpiringMap<>(duration, unit);
+	}
+
+	public static <K, V> ConcurrentExpiringMap.Builder<K, V> newExpiringMapBuilder() {
+		return new ConcurrentExpiringMap.Builder<>();
+	}
+
+	@SafeVarargs
+	public static <E> ConcurrentIndexedSet<E> newIndexedSet(KeyIndex<? super E, ?>... indexes) {
+		return new ConcurrentIndexedSet<>(indexes);
+	}
+
+	@SafeVarargs
+	public static <E> ConcurrentIndexedSet<E> newIndexedSet(Collection<? extends E> collection, KeyIndex<? super E, ?>... indexes) {
+		return new ConcurrentIndexedSet<>(collection, indexes);
+	}
+
+	public static <V> ConcurrentIntObjectMap<V> newIntObjectMap() {
+		return new ConcurrentIntObjectMap<>();
+	}
+
+	public static ConcurrentIntSet newIntSet() {
+		return new ConcurrentIntSet();
+	}
+
+	public static ConcurrentIntSet newIntSet(int... array) {
+		return new ConcurrentIntSet(array);
+	}
+
 	public static <E> ConcurrentList<E> newList() {
 		return new ConcurrentList<>();
 	}
@@ -54,6 +124,18 @@ public final class Concurrent {
 		return new ConcurrentList<>(collection);
 	}
 
+	public static <V> ConcurrentLongObjectMap<V> newLongObjectMap() {
+		return new ConcurrentLongObjectMap<>();
+	}
+
+	public static ConcurrentLongSet newLongSet() {
+		return new ConcurrentLongSet();
+	}
+
+	public static ConcurrentLongSet newLongSet(long... array) {
+		return new ConcurrentLongSet(array);
+	}
+
 	public static <K, V> ConcurrentMap<K, V> newMap() {
 		return new ConcurrentMap<>();
 	}
@@ -88,6 +170,44 @@ public final class Concurrent {
 		return new ConcurrentSet<>(collection);
 	}
 
+	public static <E> ConcurrentStampedList<E> newStampedList() {
+		return new ConcurrentStampedList<>();
+	}
+
+	@SafeVarargs
+	public static <E> ConcurrentStampedList<E> newStampedList(E... array) {
+		return new ConcurrentStampedList<>(array);
+	}
+
+	public static <E> ConcurrentStampedList<E> newStampedList(Collection<? extends E> collection) {
+		return new ConcurrentStampedList<>(collection);
+	}
+
+	public static <V> ConcurrentUUIDMap<V> newUUIDMap() {
+		return new ConcurrentUUIDMap<>();
+	}
+
+	public static ConcurrentUUIDSet newUUIDSet() {
+		return new ConcurrentUUIDSet();
+	}
+
+	public static ConcurrentUUIDSet newUUIDSet(Collection<UUID> collection) {
+		return new ConcurrentUUIDSet(collection);
+	}
+
+	public static <E> ConcurrentVectorList<E> newVectorList() {
+		return new ConcurrentVectorList<>();
+	}
+
+	@SafeVarargs
+	public static <E> ConcurrentVectorList<E> newVectorList(E... array) {
+		return new ConcurrentVectorList<>(array);
+	}
+
+	public static <E> ConcurrentVectorList<E> newVectorList(Collection<? extends E> collection) {
+		return new ConcurrentVectorList<>(collection);
+	}
+
 	public static <E> ConcurrentLinkedList<E> newLinkedList() {
 		return new ConcurrentLinkedList<>();
 	}
@@ -117,6 +237,10 @@ public final class Concurrent {
 		return new ConcurrentLinkedMap<>(map, maxSize);
 	}
 
+	public static <K, V> ConcurrentLinkedMap.Builder<K, V> newLinkedMapBuilder() {
+		return new ConcurrentLinkedMap.Builder<>();
+	}
+
 	public static <E> ConcurrentLinkedSet<E> newLinkedSet() {
 		return new ConcurrentLinkedSet<>();
 	}
@@ -130,8 +254,15 @@ public final class Concurrent {
 		return new ConcurrentLinkedSet<>(collection);
 	}
 
+	/**
+	 * Gets a collector that gathers elements into thread-confined lists and
+	 * publishes them as a single {@link ConcurrentList} once finished.
+	 *
+	 * @param <E> Type of elements.
+	 * @return Collector into a concurrent list.
+	 */
 	public static <E> Collector<E, ?, ConcurrentList<E>> toList() {
-		return new ConcurrentCollector<>(ConcurrentList::new, ConcurrentList::add, (left, right) -> { left.addAll(right); return left; }, CHARACTERISTICS);
+		return new ConcurrentCollector<E, ArrayList<E>, ConcurrentList<E>>(ArrayList::new, ArrayList::add, (left, right) -> { left.addAll(right); return left; }, ConcurrentList::new, CHARACTERISTICS);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -149,17 +280,43 @@ public final class Concurrent {
 		return toMap(keyMapper, valueMapper, mergeFunction, ConcurrentMap::new);
 	}
 
+	/**
+	 * Gets a collector that gathers entries into thread-confined maps and
+	 * publishes them into the supplied map with a single modification once
+	 * finished.
+	 *
+	 * @param keyMapper Function producing keys.
+	 * @param valueMapper Function producing values.
+	 * @param mergeFunction Function resolving values of duplicate keys.
+	 * @param mapSupplier Supplier of the resulting map.
+	 * @param <T> Type of elements.
+	 * @param <K> Type of keys.
+	 * @param <V> Type of values.
+	 * @param <M> Type of the resulting map.
+	 * @return Collector into a concurrent map.
+	 */
 	public static <T, K, V, M extends ConcurrentMap<K, V>> Collector<T, ?, M> toMap(Function<? super T, ? extends K> keyMapper, Function<? super T, ? extends V> valueMapper, BinaryOperator<V> mergeFunction, Supplier<M> mapSupplier) {
-		BiConsumer<M, T> accumulator = (map, element) -> map.merge(keyMapper.apply(element), valueMapper.apply(element), mergeFunction);
+		BiConsumer<HashMap<K, V>, T> accumulator = (map, element) -> map.merge(keyMapper.apply(element), valueMapper.apply(element), mergeFunction);
 
-		return new ConcurrentCollector<>(mapSupplier, accumulator, (m1, m2) -> {
-			m2.entrySet().forEach(entry -> m1.merge(entry.getKey(), entry.getValue(), mergeFunction));
+		return new ConcurrentCollector<T, HashMap<K, V>, M>(HashMap::new, accumulator, (m1, m2) -> {
+			m2.forEach((key, value) -> m1.merge(key, value, mergeFunction));
 			return m1;
+		}, map -> {
+			M result = mapSupplier.get();
+			result.putAll(map);
+			return result;
 		}, UN_CHARACTERISTICS);
 	}
 
+	/**
+	 * Gets a collector that gathers elements into thread-confined sets and
+	 * publishes them as a single {@link ConcurrentSet} once finished.
+	 *
+	 * @param <E> Type of elements.
+	 * @return Collector into a concurrent set.
+	 */
 	public static <E> Collector<E, ?, ConcurrentSet<E>> toSet() {
-		return new ConcurrentCollector<>(ConcurrentSet::new, ConcurrentSet::add, (left, right) -> { left.addAll(right); return left; }, UN_CHARACTERISTICS);
+		return new ConcurrentCollector<E, HashSet<E>, ConcurrentSet<E>>(HashSet::new, HashSet::add, (left, right) -> { left.addAll(right); return left; }, ConcurrentSet::new, UN_CHARACTERISTICS);
 	}
 
 	private static class ConcurrentCollector<T, A, R> implements Collector<T, A, R> {
@@ -170,10 +327,6 @@ public final class Concurrent {
 		private final Function<A, R> finisher;
 		private final Set<Characteristics> characteristics;
 
-		public ConcurrentCollector(Supplier<A> supplier, BiConsumer<A, T> accumulator, BinaryOperator<A> combiner, Set<Characteristics> characteristics) {
-			this(supplier, accumulator, combiner, castingIdentity(), characteristics);
-		}
-
 		public ConcurrentCollector(Supplier<A> supplier, BiConsumer<A, T> accumulator, BinaryOperator<A> combiner, Function<A,R> finisher, Set<Characteristics> characteristics) {
 			this.supplier = supplier;
 			this.accumulator = accumulator;
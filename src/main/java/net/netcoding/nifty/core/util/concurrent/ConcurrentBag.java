@@ -0,0 +1,244 @@
+package net.netcoding.nifty.core.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free collection of reusable entries, such as pooled connections, that
+ * threads borrow and return.
+ * <p>
+ * Borrowing first looks through the entries the current thread returned most
+ * recently, then through all entries, claiming one with a single
+ * compare-and-set on its {@link State}. When none is free, the thread waits in
+ * a fair handoff queue, and returning an entry hands it straight to the
+ * longest waiting thread. Returning an entry is O(1).
+ * <p>
+ * Adding and removing entries copies the list of all entries, which is
+ * expected to be small and change rarely.
+ *
+ * @param <T> type of entries
+ */
+public class ConcurrentBag<T extends ConcurrentBag.Entry> {
+
+	private static final int MAX_THREAD_ENTRIES = 16;
+	private final ConcurrentList<T> entries = Concurrent.newList();
+	private final ThreadLocal<List<T>> threadEntries = ThreadLocal.withInitial(() -> new ArrayList<>(MAX_THREAD_ENTRIES));
+	private final SynchronousQueue<T> handoff = new SynchronousQueue<>(true);
+	private final AtomicInteger waiters = new AtomicInteger();
+
+	/**
+	 * Adds a new entry, handing it to a waiting thread if there is one.
+	 *
+	 * @param entry Entry to add, not in use.
+	 */
+	public final void add(T entry) {
+		Objects.requireNonNull(entry);
+		this.entries.add(entry);
+		this.handOff(entry);
+	}
+
+	/**
+	 * Borrows an entry that is not in use, waiting up to the given time for
+	 * one to be returned.
+	 *
+	 * @param timeout Time to wait, zero to not wait.
+	 * @param unit Unit of the time to wait.
+	 * @return Borrowed entry, or null if none became available in time.
+	 * @throws InterruptedException When interrupted while waiting.
+	 */
+	public final T borrow(long timeout, TimeUnit unit) throws InterruptedException {
+		List<T> recent = this.threadEntries.get();
+
+		for (int i = recent.size() - 1; i >= 0; i--) {
+			T entry = recent.remove(i);
+
+			if (entry.compareAndSet(State.NOT_IN_USE, State.IN_USE))
+				return entry;
+		}
+
+		this.waiters.incrementAndGet();
+
+		try {
+			for (T entry : this.entries) {
+				if (entry.compareAndSet(State.NOT_IN_USE, State.IN_USE))
+					return entry;
+			}
+
+			long nanos = unit.toNanos(timeout);
+
+			while (nanos > 0) {
+				long start = System.nanoTime();
+				T entry = this.handoff.poll(nanos, TimeUnit.NANOSECONDS);
+
+				if (entry == null || entry.compareAndSet(State.NOT_IN_USE, State.IN_USE))
+					return entry;
+
+				nanos -= System.nanoTime() - start;
+			}
+
+			return null;
+		} finally {
+			this.waiters.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Gets the number of entries in the given state.
+	 *
+	 * @param state State to count.
+	 * @return Number of entries in the state.
+	 */
+	public final int getCount(State state) {
+		int count = 0;
+
+		for (T entry : this.entries) {
+			if (entry.getState() == state)
+				count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Gets the entries currently in the given state.
+	 *
+	 * @param state State of the entries.
+	 * @return New list of the entries in the state.
+	 */
+	public final List<T> getEntries(State state) {
+		List<T> entries = new ArrayList<>();
+
+		for (T entry : this.entries) {
+			if (entry.getState() == state)
+				entries.add(entry);
+		}
+
+		return entries;
+	}
+
+	/**
+	 * Gets the number of threads waiting to borrow an entry.
+	 *
+	 * @return Number of waiting threads.
+	 */
+	public final int getWaitingThreads() {
+		return this.waiters.get();
+	}
+
+	private void handOff(T entry) {
+		for (int i = 0; this.waiters.get() > 0; i++) {
+			if (entry.getState() != State.NOT_IN_USE || this.handoff.offer(entry))
+				return;
+			else if ((i & 0xFF) == 0xFF)
+				LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+			else
+				Thread.yield();
+		}
+	}
+
+	/**
+	 * Removes the given entry, which must be in use or reserved.
+	 *
+	 * @param entry Entry to remove.
+	 * @return True if removed, false if the entry was not in use or reserved.
+	 */
+	public final boolean remove(T entry) {
+		if (!entry.compareAndSet(State.IN_USE, State.REMOVED) && !entry.compareAndSet(State.RESERVED, State.REMOVED))
+			return false;
+
+		this.entries.remove(entry);
+		return true;
+	}
+
+	/**
+	 * Returns the given borrowed entry, handing it to a waiting thread if
+	 * there is one.
+	 *
+	 * @param entry Entry to return.
+	 * @return True if returned, false if the entry was not in use.
+	 */
+	public final boolean requite(T entry) {
+		if (!entry.compareAndSet(State.IN_USE, State.NOT_IN_USE))
+			return false;
+
+		this.handOff(entry);
+		List<T> recent = this.threadEntries.get();
+
+		if (recent.size() < MAX_THREAD_ENTRIES)
+			recent.add(entry);
+
+		return true;
+	}
+
+	/**
+	 * Reserves the given entry that is not in use, so it cannot be borrowed
+	 * while it is being inspected or removed.
+	 *
+	 * @param entry Entry to reserve.
+	 * @return True if reserved.
+	 */
+	public final boolean reserve(T entry) {
+		return entry.compareAndSet(State.NOT_IN_USE, State.RESERVED);
+	}
+
+	/**
+	 * Gets the number of entries.
+	 *
+	 * @return Number of entries.
+	 */
+	public final int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Releases the reservation of the given entry, handing it to a waiting
+	 * thread if there is one.
+	 *
+	 * @param entry Entry to release.
+	 */
+	public final void unreserve(T entry) {
+		if (entry.compareAndSet(State.RESERVED, State.NOT_IN_USE))
+			this.handOff(entry);
+	}
+
+	/**
+	 * State of an entry in a bag.
+	 */
+	public enum State {
+
+		NOT_IN_USE,
+		IN_USE,
+		RESERVED,
+		REMOVED
+
+	}
+
+	/**
+	 * An entry of a bag, created not in use.
+	 */
+	public static abstract class Entry {
+
+		private final AtomicReference<State> state = new AtomicReference<>(State.NOT_IN_USE);
+
+		final boolean compareAndSet(State expect, State update) {
+			return this.state.compareAndSet(expect, update);
+		}
+
+		/**
+		 * Gets the current state of this entry.
+		 *
+		 * @return Current state.
+		 */
+		public final State getState() {
+			return this.state.get();
+		}
+
+	}
+
+}
@@ -0,0 +1,51 @@
+package net.netcoding.nifty.core.util.concurrent;
+
+import net.netcoding.nifty.core.util.concurrent.atomic.AtomicBlockingDeque;
+import net.netcoding.nifty.core.util.concurrent.blocking.FairBlockingDeque;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A concurrent blocking deque that parks waiting threads utilizing {@link FairBlockingDeque}.
+ * <p>
+ * Threads waiting to take an element, or to offer one while the deque is at
+ * capacity, are parked and woken in the order they started waiting as soon as
+ * an element or free space becomes available. Null elements are not permitted.
+ *
+ * @param <E> type of elements
+ */
+public class ConcurrentBlockingDeque<E> extends AtomicBlockingDeque<E> {
+
+	/**
+	 * Create a new unbounded concurrent blocking deque.
+	 */
+	public ConcurrentBlockingDeque() {
+		super(new FairBlockingDeque<>());
+	}
+
+	/**
+	 * Create a new bounded concurrent blocking deque.
+	 *
+	 * @param capacity Maximum number of elements.
+	 */
+	public ConcurrentBlockingDeque(int capacity) {
+		super(new FairBlockingDeque<>(capacity));
+	}
+
+	/**
+	 * Create a new unbounded concurrent blocking deque and fill it with the given array.
+	 */
+	@SafeVarargs
+	public ConcurrentBlockingDeque(E... array) {
+		this(Arrays.asList(array));
+	}
+
+	/**
+	 * Create a new unbounded concurrent blocking deque and fill it with the given collection.
+	 */
+	public ConcurrentBlockingDeque(Collection<? extends E> collection) {
+		super(new FairBlockingDeque<>(collection));
+	}
+
+}
@@ -0,0 +1,51 @@
+package net.netcoding.nifty.core.util.concurrent;
+
+import net.netcoding.nifty.core.util.concurrent.atomic.AtomicBlockingQueue;
+import net.netcoding.nifty.core.util.concurrent.blocking.FairBlockingDeque;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A concurrent blocking queue that parks waiting threads utilizing {@link FairBlockingDeque}.
+ * <p>
+ * Threads waiting to take an element, or to offer one while the queue is at
+ * capacity, are parked and woken in the order they started waiting as soon as
+ * an element or free space becomes available. Null elements are not permitted.
+ *
+ * @param <E> type of elements
+ */
+public class ConcurrentBlockingQueue<E> extends AtomicBlockingQueue<E> {
+
+	/**
+	 * Create a new unbounded concurrent blocking queue.
+	 */
+	public ConcurrentBlockingQueue() {
+		super(new FairBlockingDeque<>());
+	}
+
+	/**
+	 * Create a new bounded concurrent blocking queue.
+	 *
+	 * @param capacity Maximum number of elements.
+	 */
+	public ConcurrentBlockingQueue(int capacity) {
+		super(new FairBlockingDeque<>(capacity));
+	}
+
+	/**
+	 * Create a new unbounded concurrent blocking queue and fill it with the given array.
+	 */
+	@SafeVarargs
+	public ConcurrentBlockingQueue(E... array) {
+		this(Arrays.asList(array));
+	}
+
+	/**
+	 * Create a new unbounded concurrent blocking queue and fill it with the given collection.
+	 */
+	public ConcurrentBlockingQueue(Collection<? extends E> collection) {
+		super(new FairBlockingDeque<>(collection));
+	}
+
+}
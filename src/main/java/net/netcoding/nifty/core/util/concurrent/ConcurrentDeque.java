@@ -4,17 +4,15 @@ import net.netcoding.nifty.core.util.concurrent.atomic.AtomicDeque;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Deque;
-import java.util.LinkedList;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentLinkedDeque;
 
 /**
- * A concurrent queue that allows for simultaneously fast reading, iteration and
- * modification utilizing {@link AtomicReference}.
+ * A concurrent deque that allows for simultaneously fast reading, iteration and
+ * modification utilizing {@link ConcurrentLinkedDeque}.
  * <p>
- * The AtomicReference changes the methods that modify the queue by replacing the
- * entire queue on each modification. This allows for maintaining the original
- * speed of {@link Deque#contains(Object)} and makes it cross-thread-safe.
+ * The ConcurrentLinkedDeque is a lock-free linked deque, elements are added and removed
+ * in O(1) without copying the deque and threads never block each other.
+ * Null elements are not permitted.
  *
  * @param <E> type of elements
  */
@@ -24,7 +22,7 @@ public class ConcurrentDeque<E> extends AtomicDeque<E> {
 	 * Create a new concurrent deque.
 	 */
 	public ConcurrentDeque() {
-		super(new LinkedList<>());
+		super(new ConcurrentLinkedDeque<>());
 	}
 
 	/**
@@ -39,7 +37,7 @@ public class ConcurrentDeque<E> extends AtomicDeque<E> {
 	 * Create a new concurrent deque and fill it with the given collection.
 	 */
 	public ConcurrentDeque(Collection<? extends E> collection) {
-		super(new LinkedList<>(collection));
+		super(new ConcurrentLinkedDeque<>(collection));
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package net.netcoding.nifty.core.util.concurrent;
+
+import net.netcoding.nifty.core.util.concurrent.atomic.AtomicSet;
+import net.netcoding.nifty.core.util.concurrent.trie.IndexedTrieSet;
+import net.netcoding.nifty.core.util.concurrent.trie.KeyIndex;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A concurrent set that allows for simultaneously fast reading, iteration and
+ * modification utilizing {@link AtomicReference}, and looking elements up by
+ * any registered {@link KeyIndex} in O(1).
+ * <p>
+ * The AtomicReference changes the methods that modify the set by replacing the
+ * entire set each modification. The set is backed by an {@link IndexedTrieSet},
+ * so the elements and all indexes are replaced together by the same
+ * compare-and-set, and each replacement only copies O(log32 n) nodes.
+ *
+ * @param <E> type of elements
+ */
+public class ConcurrentIndexedSet<E> extends AtomicSet<E, IndexedTrieSet<E>> {
+
+	/**
+	 * Create a new concurrent set maintaining the given indexes.
+	 */
+	@SafeVarargs
+	public ConcurrentIndexedSet(KeyIndex<? super E, ?>... indexes) {
+		super(new IndexedTrieSet<>(indexes));
+	}
+
+	/**
+	 * Create a new concurrent set maintaining the given indexes and fill it
+	 * with the given collection.
+	 */
+	@SafeVarargs
+	public ConcurrentIndexedSet(Collection<? extends E> collection, KeyIndex<? super E, ?>... indexes) {
+		this(indexes);
+		this.addAll(collection);
+	}
+
+	/**
+	 * Gets if an element has the given key in the given index.
+	 *
+	 * @param index Index to look in.
+	 * @param key Key of the element.
+	 * @param <K> Type of key.
+	 * @return True if an element has the key.
+	 * @throws IllegalArgumentException When the index is not registered with this set.
+	 */
+	public final <K> boolean containsKey(KeyIndex<? super E, K> index, K key) {
+		return this.get(index, key) != null;
+	}
+
+	/**
+	 * Gets the element with the given key in the given index.
+	 *
+	 * @param index Index to look in.
+	 * @param key Key of the element.
+	 * @param <K> Type of key.
+	 * @return Element with the given key, or null.
+	 * @throws IllegalArgumentException When the index is not registered with this set.
+	 */
+	public final <K> E get(KeyIndex<? super E, K> index, K key) {
+		return this.ref.get().get(index, key);
+	}
+
+	@Override
+	protected final IndexedTrieSet<E> newSet(IndexedTrieSet<E> current) {
+		return new IndexedTrieSet<>(current);
+	}
+
+}
@@ -0,0 +1,130 @@
+package net.netcoding.nifty.core.util.concurrent;
+
+import net.netcoding.nifty.core.util.concurrent.atomic.AtomicSnapshot;
+import net.netcoding.nifty.core.util.concurrent.primitive.IntObjectConsumer;
+import net.netcoding.nifty.core.util.concurrent.primitive.IntObjectHashMap;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A concurrent map with primitive {@code int} keys that allows for
+ * simultaneously fast reading, iteration and modification utilizing
+ * {@link java.util.concurrent.atomic.AtomicReference}.
+ * <p>
+ * Entries live in an open addressing {@link IntObjectHashMap}, so no key is
+ * ever boxed and no node object is allocated per entry. Like
+ * {@link ConcurrentMap}, every modification replaces the entire table, and
+ * iteration happens over the table published when it started.
+ *
+ * @param <V> type of values
+ */
+public class ConcurrentIntObjectMap<V> extends AtomicSnapshot<IntObjectHashMap<V>> {
+
+	/**
+	 * Create a new concurrent map.
+	 */
+	public ConcurrentIntObjectMap() {
+		super(new IntObjectHashMap<>());
+	}
+
+	/**
+	 * Create a new concurrent map and fill it with the given map.
+	 */
+	public ConcurrentIntObjectMap(IntObjectHashMap<? extends V> map) {
+		super(new IntObjectHashMap<>(map));
+	}
+
+	public final void clear() {
+		this.ref.set(new IntObjectHashMap<>());
+	}
+
+	public final boolean containsKey(int key) {
+		return this.ref.get().containsKey(key);
+	}
+
+	public final boolean containsValue(Object value) {
+		return this.ref.get().containsValue(value);
+	}
+
+	@Override
+	protected final IntObjectHashMap<V> copy(IntObjectHashMap<V> current) {
+		return new IntObjectHashMap<>(current);
+	}
+
+	/**
+	 * Performs the given action for each entry of the current snapshot.
+	 *
+	 * @param action Action to perform.
+	 */
+	public final void forEach(IntObjectConsumer<? super V> action) {
+		this.ref.get().forEach(action);
+	}
+
+	public final V get(int key) {
+		return this.ref.get().get(key);
+	}
+
+	public final V getOrDefault(int key, V defaultValue) {
+		return this.ref.get().getOrDefault(key, defaultValue);
+	}
+
+	public final boolean isEmpty() {
+		return this.ref.get().isEmpty();
+	}
+
+	/**
+	 * Gets the keys of the current snapshot.
+	 *
+	 * @return New array holding the keys.
+	 */
+	public final int[] keys() {
+		return this.ref.get().keys();
+	}
+
+	public final V put(int key, V value) {
+		return this.compute(map -> map.put(key, value));
+	}
+
+	public final V putIfAbsent(int key, V value) {
+		V current = this.get(key);
+
+		if (current != null)
+			return current;
+
+		return this.compute(map -> map.putIfAbsent(key, value));
+	}
+
+	public final V remove(int key) {
+		if (!this.containsKey(key))
+			return null;
+
+		return this.compute(map -> map.remove(key));
+	}
+
+	public final boolean remove(int key, Object value) {
+		if (!this.containsKey(key) || !Objects.equals(this.get(key), value))
+			return false;
+
+		return this.compute(map -> map.remove(key, value));
+	}
+
+	@Override
+	protected final int sizeOf(IntObjectHashMap<V> current) {
+		return current.size();
+	}
+
+	public final int size() {
+		return this.ref.get().size();
+	}
+
+	/**
+	 * Gets the values of the current snapshot.
+	 *
+	 * @return New list holding the values.
+	 */
+	public final List<V> values() {
+		return this.ref.get().values();
+	}
+
+}
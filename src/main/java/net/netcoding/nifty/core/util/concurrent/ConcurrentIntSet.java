@@ -0,0 +1,137 @@
+package net.netcoding.nifty.core.util.concurrent;
+
+import net.netcoding.nifty.core.util.concurrent.atomic.AtomicSnapshot;
+import net.netcoding.nifty.core.util.concurrent.primitive.IntHashSet;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * A concurrent set of primitive {@code int} values that allows for
+ * simultaneously fast reading, iteration and modification utilizing
+ * {@link java.util.concurrent.atomic.AtomicReference}.
+ * <p>
+ * Values live in an open addressing {@link IntHashSet}, so no value is ever
+ * boxed and no node object is allocated per element. Like
+ * {@link ConcurrentSet}, every modification replaces the entire table, and
+ * iteration happens over the table published when it started.
+ */
+public class ConcurrentIntSet extends AtomicSnapshot<IntHashSet> {
+
+	/**
+	 * Create a new concurrent set.
+	 */
+	public ConcurrentIntSet() {
+		super(new IntHashSet());
+	}
+
+	/**
+	 * Create a new concurrent set and fill it with the given array.
+	 */
+	public ConcurrentIntSet(int... array) {
+		super(new IntHashSet(array));
+	}
+
+	/**
+	 * Create a new concurrent set and fill it with the given set.
+	 */
+	public ConcurrentIntSet(IntHashSet set) {
+		super(new IntHashSet(set));
+	}
+
+	public final boolean add(int value) {
+		if (this.contains(value))
+			return false;
+
+		return this.compute(set -> set.add(value));
+	}
+
+	public final boolean addAll(int... values) {
+		return this.compute(set -> {
+			boolean changed = false;
+
+			for (int value : values)
+				changed |= set.add(value);
+
+			return changed;
+		});
+	}
+
+	public final void clear() {
+		this.ref.set(new IntHashSet());
+	}
+
+	public final boolean contains(int value) {
+		return this.ref.get().contains(value);
+	}
+
+	@Override
+	protected final IntHashSet copy(IntHashSet current) {
+		return new IntHashSet(current);
+	}
+
+	/**
+	 * Performs the given action for each value of the current snapshot.
+	 *
+	 * @param action Action to perform.
+	 */
+	public final void forEach(IntConsumer action) {
+		this.ref.get().forEach(action);
+	}
+
+	public final boolean isEmpty() {
+		return this.ref.get().isEmpty();
+	}
+
+	public final boolean remove(int value) {
+		if (!this.contains(value))
+			return false;
+
+		return this.compute(set -> set.remove(value));
+	}
+
+	public final boolean removeIf(IntPredicate filter) {
+		if (this.stream().noneMatch(filter))
+			return false;
+
+		return this.compute(set -> {
+			boolean changed = false;
+
+			for (int value : set.toArray()) {
+				if (filter.test(value))
+					changed |= set.remove(value);
+			}
+
+			return changed;
+		});
+	}
+
+	@Override
+	protected final int sizeOf(IntHashSet current) {
+		return current.size();
+	}
+
+	public final int size() {
+		return this.ref.get().size();
+	}
+
+	/**
+	 * Gets a sequential stream over the current snapshot.
+	 *
+	 * @return Stream of values.
+	 */
+	public final IntStream stream() {
+		return this.ref.get().stream();
+	}
+
+	/**
+	 * Gets the values of the current snapshot.
+	 *
+	 * @return New array holding the values.
+	 */
+	public final int[] toArray() {
+		return this.ref.get().toArray();
+	}
+
+}
@@ -43,7 +43,7 @@ public class ConcurrentList<E> extends AtomicList<E, ArrayList<E>> {
 
 	@Override
 	public ConcurrentList<E> subList(int start, int end) {
-		return Concurrent.newList(super.subList(0, 5));
+		return Concurrent.newList(super.subList(start, end));
 	}
 
 }
\ No newline at end of file
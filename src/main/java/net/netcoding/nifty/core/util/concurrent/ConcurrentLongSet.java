@@ -0,0 +1,137 @@
+package net.netcoding.nifty.core.util.concurrent;
+
+import net.netcoding.nifty.core.util.concurrent.atomic.AtomicSnapshot;
+import net.netcoding.nifty.core.util.concurrent.primitive.LongHashSet;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+
+/**
+ * A concurrent set of primitive {@code long} values that allows for
+ * simultaneously fast reading, iteration and modification utilizing
+ * {@link java.util.concurrent.atomic.AtomicReference}.
+ * <p>
+ * Values live in an open addressing {@link LongHashSet}, so no value is ever
+ * boxed and no node object is allocated per element. Like
+ * {@link ConcurrentSet}, every modification replaces the entire table, and
+ * iteration happens over the table published when it started.
+ */
+public class ConcurrentLongSet extends AtomicSnapshot<LongHashSet> {
+
+	/**
+	 * Create a new concurrent set.
+	 */
+	public ConcurrentLongSet() {
+		super(new LongHashSet());
+	}
+
+	/**
+	 * Create a new concurrent set and fill it with the given array.
+	 */
+	public ConcurrentLongSet(long... array) {
+		super(new LongHashSet(array));
+	}
+
+	/**
+	 * Create a new concurrent set and fill it with the given set.
+	 */
+	public ConcurrentLongSet(LongHashSet set) {
+		super(new LongHashSet(set));
+	}
+
+	public final boolean add(long value) {
+		if (this.contains(value))
+			return false;
+
+		return this.compute(set -> set.add(value));
+	}
+
+	public final boolean addAll(long... values) {
+		return this.compute(set -> {
+			boolean changed = false;
+
+			for (long value : values)
+				changed |= set.add(value);
+
+			return changed;
+		});
+	}
+
+	public final void clear() {
+		this.ref.set(new LongHashSet());
+	}
+
+	public final boolean contains(long value) {
+		return this.ref.get().contains(value);
+	}
+
+	@Override
+	protected final LongHashSet copy(LongHashSet current) {
+		return new LongHashSet(current);
+	}
+
+	/**
+	 * Performs the given action for each value of the current snapshot.
+	 *
+	 * @param action Action to perform.
+	 */
+	public final void forEach(LongConsumer action) {
+		this.ref.get().forEach(action);
+	}
+
+	public final boolean isEmpty() {
+		return this.ref.get().isEmpty();
+	}
+
+	public final boolean remove(long value) {
+		if (!this.contains(value))
+			return false;
+
+		return this.compute(set -> set.remove(value));
+	}
+
+	public final boolean removeIf(LongPredicate filter) {
+		if (this.stream().noneMatch(filter))
+			return false;
+
+		return this.compute(set -> {
+			boolean changed = false;
+
+			for (long value : set.toArray()) {
+				if (filter.test(value))
+					changed |= set.remove(value);
+			}
+
+			return changed;
+		});
+	}
+
+	@Override
+	protected final int sizeOf(LongHashSet current) {
+		return current.size();
+	}
+
+	public final int size() {
+		return this.ref.get().size();
+	}
+
+	/**
+	 * Gets a sequential stream over the current snapshot.
+	 *
+	 * @return Stream of values.
+	 */
+	public final LongStream stream() {
+		return this.ref.get().stream();
+	}
+
+	/**
+	 * Gets the values of the current snapshot.
+	 *
+	 * @return New array holding the values.
+	 */
+	public final long[] toArray() {
+		return this.ref.get().toArray();
+	}
+
+}
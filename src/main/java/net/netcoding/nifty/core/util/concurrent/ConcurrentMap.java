@@ -1,36 +1,117 @@
 package net.netcoding.nifty.core.util.concurrent;
 
 import net.netcoding.nifty.core.util.concurrent.atomic.AtomicMap;
+import net.netcoding.nifty.core.util.concurrent.trie.HashTrieMap;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A concurrent map that allows for simultaneously fast reading, iteration and
  * modification utilizing {@link AtomicReference}.
  * <p>
  * The AtomicReference changes the methods that modify the map by replacing the
- * entire map each modification. This allows for maintaining the original speed
- * of {@link HashMap#containsKey(Object)} and {@link HashMap#containsValue(Object)} and makes it cross-thread-safe.
+ * entire map each modification. The map is backed by a {@link HashTrieMap}, so
+ * each replacement shares all untouched nodes with the previous map and only
+ * copies O(log32 n) nodes, while keeping the speed of hash lookups and making it
+ * cross-thread-safe.
+ * <p>
+ * Bulk operations taking a {@code parallelismThreshold} run against a single
+ * snapshot of the map, in parallel on the common fork-join pool when the map
+ * holds at least that many entries, with the trie split evenly along its
+ * branches.
  *
  * @param <K> type of keys
  * @param <V> type of values
  */
-public class ConcurrentMap<K, V> extends AtomicMap<K, V, HashMap<K, V>> {
+public class ConcurrentMap<K, V> extends AtomicMap<K, V, HashTrieMap<K, V>> {
 
 	/**
 	 * Create a new concurrent map.
 	 */
 	public ConcurrentMap() {
-		super(new HashMap<>());
+		super(new HashTrieMap<>());
 	}
 
 	/**
 	 * Create a new concurrent map and fill it with the given map.
 	 */
 	public ConcurrentMap(Map<? extends K, ? extends V> map) {
-		super(new HashMap<>(map));
+		super(new HashTrieMap<>(map));
+	}
+
+	private Stream<Entry<K, V>> bulkStream(long parallelismThreshold) {
+		HashTrieMap<K, V> snapshot = this.ref.get();
+		return StreamSupport.stream(snapshot.entrySet().spliterator(), snapshot.size() >= parallelismThreshold);
+	}
+
+	/**
+	 * Performs the given action for each entry of the current snapshot.
+	 *
+	 * @param parallelismThreshold Number of entries needed to run in parallel.
+	 * @param action Action to perform.
+	 */
+	public final void forEach(long parallelismThreshold, BiConsumer<? super K, ? super V> action) {
+		Objects.requireNonNull(action);
+		this.bulkStream(parallelismThreshold).forEach(entry -> action.accept(entry.getKey(), entry.getValue()));
+	}
+
+	/**
+	 * Performs the given action for each non-null transformation of the
+	 * entries of the current snapshot.
+	 *
+	 * @param parallelismThreshold Number of entries needed to run in parallel.
+	 * @param transformer Function transforming entries, null to skip an entry.
+	 * @param action Action to perform.
+	 * @param <U> Type of transformed entries.
+	 */
+	public final <U> void forEach(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends U> transformer, Consumer<? super U> action) {
+		Objects.requireNonNull(transformer);
+		Objects.requireNonNull(action);
+		this.bulkStream(parallelismThreshold).map(entry -> transformer.apply(entry.getKey(), entry.getValue())).filter(Objects::nonNull).forEach(action);
+	}
+
+	@Override
+	protected final HashTrieMap<K, V> newMap(HashTrieMap<K, V> current) {
+		return new HashTrieMap<>(current);
+	}
+
+	/**
+	 * Accumulates the non-null transformations of the entries of the current
+	 * snapshot using the given reducer.
+	 *
+	 * @param parallelismThreshold Number of entries needed to run in parallel.
+	 * @param transformer Function transforming entries, null to skip an entry.
+	 * @param reducer Function combining two transformed values.
+	 * @param <U> Type of transformed entries.
+	 * @return Accumulated result, or null if there were no transformed entries.
+	 */
+	public final <U> U reduce(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends U> transformer, BiFunction<? super U, ? super U, ? extends U> reducer) {
+		Objects.requireNonNull(transformer);
+		Objects.requireNonNull(reducer);
+		return this.bulkStream(parallelismThreshold).<U>map(entry -> transformer.apply(entry.getKey(), entry.getValue())).filter(Objects::nonNull).reduce(reducer::apply).orElse(null);
+	}
+
+	/**
+	 * Returns a non-null result of applying the given function to the entries
+	 * of the current snapshot, stopping the search once one is found.
+	 * <p>
+	 * When run in parallel, any matching result may be returned.
+	 *
+	 * @param parallelismThreshold Number of entries needed to run in parallel.
+	 * @param searchFunction Function returning a result on success, else null.
+	 * @param <U> Type of result.
+	 * @return A non-null result, or null if none was found.
+	 */
+	public final <U> U search(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends U> searchFunction) {
+		Objects.requireNonNull(searchFunction);
+		return this.bulkStream(parallelismThreshold).<U>map(entry -> searchFunction.apply(entry.getKey(), entry.getValue())).filter(Objects::nonNull).findAny().orElse(null);
 	}
 
-}
\ No newline at end of file
+}
@@ -4,17 +4,15 @@ import net.netcoding.nifty.core.util.concurrent.atomic.AtomicQueue;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * A concurrent queue that allows for simultaneously fast reading, iteration and
- * modification utilizing {@link AtomicReference}.
+ * modification utilizing {@link ConcurrentLinkedQueue}.
  * <p>
- * The AtomicReference changes the methods that modify the queue by replacing the
- * entire queue on each modification. This allows for maintaining the original
- * speed of {@link Queue#contains(Object)} and makes it cross-thread-safe.
+ * The ConcurrentLinkedQueue is a lock-free linked queue, elements are added and removed
+ * in O(1) without copying the queue and threads never block each other.
+ * Null elements are not permitted.
  *
  * @param <E> type of elements
  */
@@ -24,7 +22,7 @@ public class ConcurrentQueue<E> extends AtomicQueue<E> {
 	 * Create a new concurrent queue.
 	 */
 	public ConcurrentQueue() {
-		super(new LinkedList<>());
+		super(new ConcurrentLinkedQueue<>());
 	}
 
 	/**
@@ -39,7 +37,7 @@ public class ConcurrentQueue<E> extends AtomicQueue<E> {
 	 * Create a new concurrent queue and fill it with the given collection.
 	 */
 	public ConcurrentQueue(Collection<? extends E> collection) {
-		super(new LinkedList<>(collection));
+		super(new ConcurrentLinkedQueue<>(collection));
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,751 @@
+package net.netcoding.nifty.core.util.concurrent;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A concurrent list backed by a growable array guarded by a {@link StampedLock}.
+ * <p>
+ * Unlike {@link ConcurrentList}, modifications happen in place and do not copy
+ * the entire list, making appends amortized O(1). Reads such as
+ * {@link #get(int)} and {@link #size()} are optimistic and never block unless
+ * a write happened at the same time, so large read-mostly lists keep their
+ * read speed without paying O(n) for every write.
+ * <p>
+ * Iteration happens over a snapshot of the elements taken at creation, and
+ * {@link #subList(int, int)} returns a view that fails once this list is
+ * structurally modified outside of it. No user code, such as a predicate,
+ * comparator or {@link Object#equals(Object)}, is ever called while holding
+ * the lock.
+ *
+ * @param <E> type of elements
+ */
+public class ConcurrentStampedList<E> extends AbstractList<E> implements List<E>, RandomAccess {
+
+	private static final int DEFAULT_CAPACITY = 10;
+	private final StampedLock lock = new StampedLock();
+	private Object[] elements;
+	private int size;
+	// Unlike modCount, also counts set() so optimistic write-backs never lose one
+	private int writes;
+
+	/**
+	 * Create a new concurrent list.
+	 */
+	public ConcurrentStampedList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a new concurrent list able to hold the given number of elements
+	 * without growing.
+	 *
+	 * @param initialCapacity Number of elements expected.
+	 */
+	public ConcurrentStampedList(int initialCapacity) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("Initial capacity cannot be negative!");
+
+		this.elements = new Object[initialCapacity];
+	}
+
+	/**
+	 * Create a new concurrent list and fill it with the given array.
+	 */
+	@SafeVarargs
+	public ConcurrentStampedList(E... array) {
+		this(Arrays.asList(array));
+	}
+
+	/**
+	 * Create a new concurrent list and fill it with the given collection.
+	 */
+	public ConcurrentStampedList(Collection<? extends E> collection) {
+		this.elements = collection.toArray();
+		this.size = this.elements.length;
+
+		if (this.elements.getClass() != Object[].class)
+			this.elements = Arrays.copyOf(this.elements, this.size, Object[].class);
+	}
+
+	@Override
+	public boolean add(E element) {
+		long stamp = this.lock.writeLock();
+
+		try {
+			this.ensureCapacity(this.size + 1);
+			this.elements[this.size++] = element;
+			this.modCount++;
+			this.writes++;
+			return true;
+		} finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void add(int index, E element) {
+		long stamp = this.lock.writeLock();
+
+		try {
+			this.insert(index, new Object[] { element });
+		} finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> collection) {
+		Object[] added = collection.toArray();
+		long stamp = this.lock.writeLock();
+
+		try {
+			return this.insert(this.size, added);
+		} finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends E> collection) {
+		Object[] added = collection.toArray();
+		long stamp = this.lock.writeLock();
+
+		try {
+			return this.insert(index, added);
+		} finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void clear() {
+		long stamp = this.lock.writeLock();
+
+		try {
+			Arrays.fill(this.elements, 0, this.size, null);
+			this.size = 0;
+			this.modCount++;
+			this.writes++;
+		} finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean contains(Object obj) {
+		return this.indexOf(obj) >= 0;
+	}
+
+	private void delete(int fromIndex, int toIndex) {
+		System.arraycopy(this.elements, toIndex, this.elements, fromIndex, this.size - toIndex);
+		int size = this.size - (toIndex - fromIndex);
+		Arrays.fill(this.elements, size, this.size, null);
+		this.size = size;
+		this.modCount++;
+		this.writes++;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > this.elements.length) {
+			int grown = this.elements.length + (this.elements.length >> 1);
+			this.elements = Arrays.copyOf(this.elements, Math.max(Math.max(grown, capacity), DEFAULT_CAPACITY));
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(Consumer<? super E> action) {
+		Objects.requireNonNull(action);
+
+		for (Object element : this.toArray())
+			action.accept((E)element);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		long stamp = this.lock.tryOptimisticRead();
+		Object[] elements = this.elements;
+		int size = this.size;
+		Object element = index >= 0 && index < size && index < elements.length ? elements[index] : null;
+
+		if (!this.lock.validate(stamp)) {
+			stamp = this.lock.readLock();
+
+			try {
+				size = this.size;
+				element = index >= 0 && index < size ? this.elements[index] : null;
+			} finally {
+				this.lock.unlockRead(stamp);
+			}
+		}
+
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException(outOfBounds(index, size));
+
+		return (E)element;
+	}
+
+	@Override
+	public int indexOf(Object obj) {
+		long stamp = this.lock.tryOptimisticRead();
+		Object[] elements = this.elements;
+		int index = indexOf(obj, elements, Math.min(this.size, elements.length), true);
+
+		if (this.lock.validate(stamp))
+			return index;
+
+		Object[] snapshot = this.toArray();
+		return indexOf(obj, snapshot, snapshot.length, true);
+	}
+
+	private static int indexOf(Object obj, Object[] elements, int size, boolean first) {
+		for (int i = 0; i < size; i++) {
+			int index = first ? i : size - i - 1;
+
+			if (Objects.equals(obj, elements[index]))
+				return index;
+		}
+
+		return -1;
+	}
+
+	private boolean insert(int index, Object[] added) {
+		if (index < 0 || index > this.size)
+			throw new IndexOutOfBoundsException(outOfBounds(index, this.size));
+
+		if (added.length == 0)
+			return false;
+
+		this.ensureCapacity(this.size + added.length);
+		System.arraycopy(this.elements, index, this.elements, index + added.length, this.size - index);
+		System.arraycopy(added, 0, this.elements, index, added.length);
+		this.size += added.length;
+		this.modCount++;
+		this.writes++;
+		return true;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.size() == 0;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return this.listIterator();
+	}
+
+	@Override
+	public int lastIndexOf(Object obj) {
+		long stamp = this.lock.tryOptimisticRead();
+		Object[] elements = this.elements;
+		int index = indexOf(obj, elements, Math.min(this.size, elements.length), false);
+
+		if (this.lock.validate(stamp))
+			return index;
+
+		Object[] snapshot = this.toArray();
+		return indexOf(obj, snapshot, snapshot.length, false);
+	}
+
+	@Override
+	public ListIterator<E> listIterator() {
+		return this.listIterator(0);
+	}
+
+	@Override
+	public ListIterator<E> listIterator(int index) {
+		Object[] snapshot = this.toArray();
+
+		if (index < 0 || index > snapshot.length)
+			throw new IndexOutOfBoundsException(outOfBounds(index, snapshot.length));
+
+		return new SnapshotIterator(snapshot, index);
+	}
+
+	private static String outOfBounds(int index, int size) {
+		return "Index: " + index + ", Size: " + size; // Cannot use StringUtil!
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E remove(int index) {
+		long stamp = this.lock.writeLock();
+
+		try {
+			if (index < 0 || index >= this.size)
+				throw new IndexOutOfBoundsException(outOfBounds(index, this.size));
+
+			E old = (E)this.elements[index];
+			this.delete(index, index + 1);
+			return old;
+		} finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean remove(Object obj) {
+		while (true) {
+			long stamp = this.lock.tryOptimisticRead();
+			Object[] elements = this.elements;
+			int expected = this.writes;
+			int index = indexOf(obj, elements, Math.min(this.size, elements.length), true);
+
+			if (!this.lock.validate(stamp)) {
+				Object[] snapshot;
+				stamp = this.lock.readLock();
+
+				try {
+					snapshot = Arrays.copyOf(this.elements, this.size);
+					expected = this.writes;
+				} finally {
+					this.lock.unlockRead(stamp);
+				}
+
+				index = indexOf(obj, snapshot, snapshot.length, true);
+			}
+
+			if (index == -1)
+				return false;
+
+			stamp = this.lock.writeLock();
+
+			try {
+				if (this.writes == expected) {
+					this.delete(index, index + 1);
+					return true;
+				}
+			} finally {
+				this.lock.unlockWrite(stamp);
+			}
+		}
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> collection) {
+		Objects.requireNonNull(collection);
+		return this.removeIf(collection::contains);
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super E> filter) {
+		Objects.requireNonNull(filter);
+
+		while (true) {
+			Snapshot snapshot = this.snapshot();
+			boolean[] removed = new boolean[snapshot.elements.length];
+			boolean any = false;
+
+			for (int i = 0; i < removed.length; i++)
+				any |= (removed[i] = filter.test(snapshot.get(i)));
+
+			if (!any)
+				return false;
+
+			long stamp = this.lock.writeLock();
+
+			try {
+				if (this.writes == snapshot.writes) {
+					int kept = 0;
+
+					for (int i = 0; i < this.size; i++) {
+						if (!removed[i])
+							this.elements[kept++] = this.elements[i];
+					}
+
+					Arrays.fill(this.elements, kept, this.size, null);
+					this.size = kept;
+					this.modCount++;
+					this.writes++;
+					return true;
+				}
+			} finally {
+				this.lock.unlockWrite(stamp);
+			}
+		}
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		long stamp = this.lock.writeLock();
+
+		try {
+			if (fromIndex < 0 || toIndex > this.size || fromIndex > toIndex)
+				throw new IndexOutOfBoundsException(outOfBounds(fromIndex < 0 ? fromIndex : toIndex, this.size));
+
+			this.delete(fromIndex, toIndex);
+		} finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void replaceAll(UnaryOperator<E> operator) {
+		Objects.requireNonNull(operator);
+		this.replace(elements -> {
+			for (int i = 0; i < elements.length; i++)
+				elements[i] = operator.apply((E)elements[i]);
+		});
+	}
+
+	/**
+	 * Applies the given modification to a snapshot outside of the lock and
+	 * installs the result, starting over if this list was modified meanwhile.
+	 */
+	private void replace(Consumer<Object[]> editor) {
+		while (true) {
+			Snapshot snapshot = this.snapshot();
+			editor.accept(snapshot.elements);
+			long stamp = this.lock.writeLock();
+
+			try {
+				if (this.writes == snapshot.writes) {
+					System.arraycopy(snapshot.elements, 0, this.elements, 0, snapshot.elements.length);
+					this.modCount++;
+					this.writes++;
+					return;
+				}
+			} finally {
+				this.lock.unlockWrite(stamp);
+			}
+		}
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> collection) {
+		Objects.requireNonNull(collection);
+		return this.removeIf(element -> !collection.contains(element));
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E set(int index, E element) {
+		long stamp = this.lock.writeLock();
+
+		try {
+			if (index < 0 || index >= this.size)
+				throw new IndexOutOfBoundsException(outOfBounds(index, this.size));
+
+			E old = (E)this.elements[index];
+			this.elements[index] = element;
+			this.writes++;
+			return old;
+		} finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public int size() {
+		long stamp = this.lock.tryOptimisticRead();
+		int size = this.size;
+
+		if (!this.lock.validate(stamp)) {
+			stamp = this.lock.readLock();
+
+			try {
+				size = this.size;
+			} finally {
+				this.lock.unlockRead(stamp);
+			}
+		}
+
+		return size;
+	}
+
+	private Snapshot snapshot() {
+		long stamp = this.lock.readLock();
+
+		try {
+			return new Snapshot(Arrays.copyOf(this.elements, this.size), this.writes);
+		} finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void sort(Comparator<? super E> comparator) {
+		this.replace(elements -> Arrays.sort(elements, (Comparator<Object>)comparator));
+	}
+
+	@Override
+	public List<E> subList(int fromIndex, int toIndex) {
+		long stamp = this.lock.readLock();
+
+		try {
+			if (fromIndex < 0 || toIndex > this.size || fromIndex > toIndex)
+				throw new IndexOutOfBoundsException(outOfBounds(fromIndex < 0 ? fromIndex : toIndex, this.size));
+
+			return new SubList(fromIndex, toIndex - fromIndex, this.modCount);
+		} finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public Object[] toArray() {
+		long stamp = this.lock.tryOptimisticRead();
+		Object[] elements = this.elements;
+		int size = this.size;
+		Object[] snapshot = size <= elements.length ? Arrays.copyOf(elements, size) : null;
+
+		if (snapshot != null && this.lock.validate(stamp))
+			return snapshot;
+
+		stamp = this.lock.readLock();
+
+		try {
+			return Arrays.copyOf(this.elements, this.size);
+		} finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] array) {
+		Object[] snapshot = this.toArray();
+
+		if (array.length < snapshot.length)
+			return (T[])Arrays.copyOf(snapshot, snapshot.length, array.getClass());
+
+		System.arraycopy(snapshot, 0, array, 0, snapshot.length);
+
+		if (array.length > snapshot.length)
+			array[snapshot.length] = null;
+
+		return array;
+	}
+
+	/**
+	 * A copy of the elements together with the write count it was taken at.
+	 */
+	private final class Snapshot {
+
+		private final Object[] elements;
+		private final int writes;
+
+		Snapshot(Object[] elements, int writes) {
+			this.elements = elements;
+			this.writes = writes;
+		}
+
+		@SuppressWarnings("unchecked")
+		E get(int index) {
+			return (E)this.elements[index];
+		}
+
+	}
+
+	private final class SnapshotIterator implements ListIterator<E> {
+
+		private final Object[] snapshot;
+		private int cursor;
+
+		SnapshotIterator(Object[] snapshot, int cursor) {
+			this.snapshot = snapshot;
+			this.cursor = cursor;
+		}
+
+		@Override
+		public void add(E element) {
+			throw new UnsupportedOperationException("Snapshot iterators cannot modify the list!");
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.cursor < this.snapshot.length;
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return this.cursor > 0;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() {
+			if (!this.hasNext())
+				throw new NoSuchElementException();
+
+			return (E)this.snapshot[this.cursor++];
+		}
+
+		@Override
+		public int nextIndex() {
+			return this.cursor;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E previous() {
+			if (!this.hasPrevious())
+				throw new NoSuchElementException();
+
+			return (E)this.snapshot[--this.cursor];
+		}
+
+		@Override
+		public int previousIndex() {
+			return this.cursor - 1;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("Snapshot iterators cannot modify the list!");
+		}
+
+		@Override
+		public void set(E element) {
+			throw new UnsupportedOperationException("Snapshot iterators cannot modify the list!");
+		}
+
+	}
+
+	/**
+	 * A view of a range of this list, valid until the list is structurally
+	 * modified through anything but this view.
+	 */
+	private final class SubList extends AbstractList<E> implements RandomAccess {
+
+		private final int offset;
+		private int size;
+		private int expectedModCount;
+
+		SubList(int offset, int size, int expectedModCount) {
+			this.offset = offset;
+			this.size = size;
+			this.expectedModCount = expectedModCount;
+		}
+
+		@Override
+		public void add(int index, E element) {
+			long stamp = ConcurrentStampedList.this.lock.writeLock();
+
+			try {
+				this.checkForComodification();
+
+				if (index < 0 || index > this.size)
+					throw new IndexOutOfBoundsException(outOfBounds(index, this.size));
+
+				ConcurrentStampedList.this.insert(this.offset + index, new Object[] { element });
+				this.changed(1);
+			} finally {
+				ConcurrentStampedList.this.lock.unlockWrite(stamp);
+			}
+		}
+
+		private void changed(int delta) {
+			this.expectedModCount = ConcurrentStampedList.this.modCount;
+			this.size += delta;
+			this.modCount++;
+		}
+
+		private void checkForComodification() {
+			if (ConcurrentStampedList.this.modCount != this.expectedModCount)
+				throw new ConcurrentModificationException();
+		}
+
+		private void checkIndex(int index) {
+			if (index < 0 || index >= this.size)
+				throw new IndexOutOfBoundsException(outOfBounds(index, this.size));
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E get(int index) {
+			long stamp = ConcurrentStampedList.this.lock.readLock();
+
+			try {
+				this.checkForComodification();
+				this.checkIndex(index);
+				return (E)ConcurrentStampedList.this.elements[this.offset + index];
+			} finally {
+				ConcurrentStampedList.this.lock.unlockRead(stamp);
+			}
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E remove(int index) {
+			long stamp = ConcurrentStampedList.this.lock.writeLock();
+
+			try {
+				this.checkForComodification();
+				this.checkIndex(index);
+				E old = (E)ConcurrentStampedList.this.elements[this.offset + index];
+				ConcurrentStampedList.this.delete(this.offset + index, this.offset + index + 1);
+				this.changed(-1);
+				return old;
+			} finally {
+				ConcurrentStampedList.this.lock.unlockWrite(stamp);
+			}
+		}
+
+		@Override
+		protected void removeRange(int fromIndex, int toIndex) {
+			long stamp = ConcurrentStampedList.this.lock.writeLock();
+
+			try {
+				this.checkForComodification();
+
+				if (fromIndex < 0 || toIndex > this.size || fromIndex > toIndex)
+					throw new IndexOutOfBoundsException(outOfBounds(fromIndex < 0 ? fromIndex : toIndex, this.size));
+
+				ConcurrentStampedList.this.delete(this.offset + fromIndex, this.offset + toIndex);
+				this.changed(fromIndex - toIndex);
+			} finally {
+				ConcurrentStampedList.this.lock.unlockWrite(stamp);
+			}
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E set(int index, E element) {
+			long stamp = ConcurrentStampedList.this.lock.writeLock();
+
+			try {
+				this.checkForComodification();
+				this.checkIndex(index);
+				E old = (E)ConcurrentStampedList.this.elements[this.offset + index];
+				ConcurrentStampedList.this.elements[this.offset + index] = element;
+				ConcurrentStampedList.this.writes++;
+				return old;
+			} finally {
+				ConcurrentStampedList.this.lock.unlockWrite(stamp);
+			}
+		}
+
+		@Override
+		public int size() {
+			long stamp = ConcurrentStampedList.this.lock.readLock();
+
+			try {
+				this.checkForComodification();
+				return this.size;
+			} finally {
+				ConcurrentStampedList.this.lock.unlockRead(stamp);
+			}
+		}
+
+	}
+
+}
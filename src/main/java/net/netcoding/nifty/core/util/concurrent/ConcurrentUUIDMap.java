@@ -0,0 +1,152 @@
+package net.netcoding.nifty.core.util.concurrent;
+
+import net.netcoding.nifty.core.util.concurrent.atomic.AtomicSnapshot;
+import net.netcoding.nifty.core.util.concurrent.primitive.UUIDHashMap;
+import net.netcoding.nifty.core.util.concurrent.primitive.UUIDObjectConsumer;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A concurrent map with {@link UUID} keys that allows for simultaneously
+ * fast reading, iteration and modification utilizing
+ * {@link java.util.concurrent.atomic.AtomicReference}.
+ * <p>
+ * Keys are stored as their two {@code long} halves in an open addressing
+ * {@link UUIDHashMap}, so lookups by {@link UUID} or raw bits are O(1) and
+ * iteration does not allocate. Like {@link ConcurrentMap}, every modification
+ * replaces the entire table, and iteration happens over the table published
+ * when it started.
+ *
+ * @param <V> type of values
+ */
+public class ConcurrentUUIDMap<V> extends AtomicSnapshot<UUIDHashMap<V>> {
+
+	/**
+	 * Create a new concurrent map.
+	 */
+	public ConcurrentUUIDMap() {
+		super(new UUIDHashMap<>());
+	}
+
+	/**
+	 * Create a new concurrent map and fill it with the given map.
+	 */
+	public ConcurrentUUIDMap(UUIDHashMap<? extends V> map) {
+		super(new UUIDHashMap<>(map));
+	}
+
+	public final void clear() {
+		this.ref.set(new UUIDHashMap<>());
+	}
+
+	public final boolean containsKey(UUID key) {
+		return this.ref.get().containsKey(key);
+	}
+
+	public final boolean containsKey(long mostBits, long leastBits) {
+		return this.ref.get().containsKey(mostBits, leastBits);
+	}
+
+	public final boolean containsValue(Object value) {
+		return this.ref.get().containsValue(value);
+	}
+
+	@Override
+	protected final UUIDHashMap<V> copy(UUIDHashMap<V> current) {
+		return new UUIDHashMap<>(current);
+	}
+
+	/**
+	 * Performs the given action for each entry of the current snapshot.
+	 *
+	 * @param action Action to perform.
+	 */
+	public final void forEach(UUIDObjectConsumer<? super V> action) {
+		this.ref.get().forEach(action);
+	}
+
+	/**
+	 * Performs the given action for each value of the current snapshot.
+	 *
+	 * @param action Action to perform.
+	 */
+	public final void forEachValue(Consumer<? super V> action) {
+		this.ref.get().forEachValue(action);
+	}
+
+	public final V get(UUID key) {
+		return this.ref.get().get(key);
+	}
+
+	public final V get(long mostBits, long leastBits) {
+		return this.ref.get().get(mostBits, leastBits);
+	}
+
+	public final boolean isEmpty() {
+		return this.ref.get().isEmpty();
+	}
+
+	/**
+	 * Gets the keys of the current snapshot.
+	 *
+	 * @return New list holding the keys.
+	 */
+	public final List<UUID> keys() {
+		return this.ref.get().keys();
+	}
+
+	public final V put(UUID key, V value) {
+		return this.compute(map -> map.put(key, value));
+	}
+
+	public final V putIfAbsent(UUID key, V value) {
+		V current = this.get(key);
+
+		if (current != null)
+			return current;
+
+		return this.compute(map -> map.putIfAbsent(key, value));
+	}
+
+	public final V remove(UUID key) {
+		if (!this.containsKey(key))
+			return null;
+
+		return this.compute(map -> map.remove(key));
+	}
+
+	/**
+	 * Removes all entries whose value matches the given predicate.
+	 *
+	 * @param filter Predicate matching values to remove.
+	 * @return True if any entries were removed.
+	 */
+	public final boolean removeIf(Predicate<? super V> filter) {
+		if (this.values().stream().noneMatch(filter))
+			return false;
+
+		return this.compute(map -> map.removeIf(filter));
+	}
+
+	@Override
+	protected final int sizeOf(UUIDHashMap<V> current) {
+		return current.size();
+	}
+
+	public final int size() {
+		return this.ref.get().size();
+	}
+
+	/**
+	 * Gets the values of the current snapshot.
+	 *
+	 * @return New list holding the values.
+	 */
+	public final List<V> values() {
+		return this.ref.get().values();
+	}
+
+}
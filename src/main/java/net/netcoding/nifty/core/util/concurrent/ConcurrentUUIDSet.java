@@ -0,0 +1,114 @@
+package net.netcoding.nifty.core.util.concurrent;
+
+import net.netcoding.nifty.core.util.concurrent.atomic.AtomicSnapshot;
+import net.netcoding.nifty.core.util.concurrent.primitive.UUIDConsumer;
+import net.netcoding.nifty.core.util.concurrent.primitive.UUIDHashSet;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A concurrent set of {@link UUID} values that allows for simultaneously
+ * fast reading, iteration and modification utilizing
+ * {@link java.util.concurrent.atomic.AtomicReference}.
+ * <p>
+ * Values are stored as their two {@code long} halves in an open addressing
+ * {@link UUIDHashSet}, so lookups by {@link UUID} or raw bits are O(1) and
+ * iteration does not allocate. Like {@link ConcurrentSet}, every modification
+ * replaces the entire table, and iteration happens over the table published
+ * when it started.
+ */
+public class ConcurrentUUIDSet extends AtomicSnapshot<UUIDHashSet> {
+
+	/**
+	 * Create a new concurrent set.
+	 */
+	public ConcurrentUUIDSet() {
+		super(new UUIDHashSet());
+	}
+
+	/**
+	 * Create a new concurrent set and fill it with the given collection.
+	 */
+	public ConcurrentUUIDSet(Collection<UUID> collection) {
+		super(new UUIDHashSet(collection));
+	}
+
+	public final boolean add(UUID value) {
+		if (this.contains(value))
+			return false;
+
+		return this.compute(set -> set.add(value));
+	}
+
+	public final boolean add(long mostBits, long leastBits) {
+		if (this.contains(mostBits, leastBits))
+			return false;
+
+		return this.compute(set -> set.add(mostBits, leastBits));
+	}
+
+	public final void clear() {
+		this.ref.set(new UUIDHashSet());
+	}
+
+	public final boolean contains(UUID value) {
+		return this.ref.get().contains(value);
+	}
+
+	public final boolean contains(long mostBits, long leastBits) {
+		return this.ref.get().contains(mostBits, leastBits);
+	}
+
+	@Override
+	protected final UUIDHashSet copy(UUIDHashSet current) {
+		return new UUIDHashSet(current);
+	}
+
+	/**
+	 * Performs the given action for each value of the current snapshot.
+	 *
+	 * @param action Action to perform.
+	 */
+	public final void forEach(UUIDConsumer action) {
+		this.ref.get().forEach(action);
+	}
+
+	public final boolean isEmpty() {
+		return this.ref.get().isEmpty();
+	}
+
+	public final boolean remove(UUID value) {
+		if (!this.contains(value))
+			return false;
+
+		return this.compute(set -> set.remove(value));
+	}
+
+	public final boolean remove(long mostBits, long leastBits) {
+		if (!this.contains(mostBits, leastBits))
+			return false;
+
+		return this.compute(set -> set.remove(mostBits, leastBits));
+	}
+
+	@Override
+	protected final int sizeOf(UUIDHashSet current) {
+		return current.size();
+	}
+
+	public final int size() {
+		return this.ref.get().size();
+	}
+
+	/**
+	 * Gets the values of the current snapshot.
+	 *
+	 * @return New list holding the values.
+	 */
+	public final List<UUID> toList() {
+		return this.ref.get().toList();
+	}
+
+}
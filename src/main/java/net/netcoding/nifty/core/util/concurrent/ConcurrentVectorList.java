@@ -0,0 +1,53 @@
+package net.netcoding.nifty.core.util.concurrent;
+
+import net.netcoding.nifty.core.util.concurrent.atomic.AtomicList;
+import net.netcoding.nifty.core.util.concurrent.trie.VectorTrieList;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A concurrent list that allows for simultaneously fast reading, iteration and
+ * modification utilizing {@link AtomicReference}.
+ * <p>
+ * The AtomicReference changes the methods that modify the list by replacing the
+ * entire list on each modification. The list is backed by a {@link VectorTrieList},
+ * so each replacement shares all untouched nodes with the previous list and only
+ * copies O(log32 n) nodes when setting, appending, prepending or removing from
+ * either end, while keeping indexed access and making it cross-thread-safe.
+ * <p>
+ * Sub lists are slices of the current snapshot that share its nodes.
+ *
+ * @param <E> type of elements
+ */
+public class ConcurrentVectorList<E> extends AtomicList<E, VectorTrieList<E>> {
+
+	/**
+	 * Create a new concurrent list.
+	 */
+	public ConcurrentVectorList() {
+		super(new VectorTrieList<>());
+	}
+
+	/**
+	 * Create a new concurrent list and fill it with the given array.
+	 */
+	@SafeVarargs
+	public ConcurrentVectorList(E... array) {
+		this(Arrays.asList(array));
+	}
+
+	/**
+	 * Create a new concurrent list and fill it with the given collection.
+	 */
+	public ConcurrentVectorList(Collection<? extends E> collection) {
+		super(new VectorTrieList<>(collection));
+	}
+
+	@Override
+	public ConcurrentVectorList<E> subList(int start, int end) {
+		return new ConcurrentVectorList<>(this.ref.get().slice(start, end));
+	}
+
+}
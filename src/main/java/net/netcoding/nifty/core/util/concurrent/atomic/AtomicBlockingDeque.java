@@ -0,0 +1,97 @@
+package net.netcoding.nifty.core.util.concurrent.atomic;
+
+import java.util.Collection;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A deque that delegates to a blocking deque, allowing consumers and producers
+ * to park at either end until an element or free space becomes available.
+ *
+ * @param <E> type of elements
+ */
+public abstract class AtomicBlockingDeque<E> extends AtomicDeque<E> implements BlockingDeque<E> {
+
+	private final BlockingDeque<E> blocking;
+
+	protected AtomicBlockingDeque(BlockingDeque<E> storage) {
+		super(storage);
+		this.blocking = storage;
+	}
+
+	@Override
+	public final int drainTo(Collection<? super E> collection) {
+		return this.blocking.drainTo(collection);
+	}
+
+	@Override
+	public final int drainTo(Collection<? super E> collection, int maxElements) {
+		return this.blocking.drainTo(collection, maxElements);
+	}
+
+	@Override
+	public final boolean offer(E element, long timeout, TimeUnit unit) throws InterruptedException {
+		return this.blocking.offer(element, timeout, unit);
+	}
+
+	@Override
+	public final boolean offerFirst(E element, long timeout, TimeUnit unit) throws InterruptedException {
+		return this.blocking.offerFirst(element, timeout, unit);
+	}
+
+	@Override
+	public final boolean offerLast(E element, long timeout, TimeUnit unit) throws InterruptedException {
+		return this.blocking.offerLast(element, timeout, unit);
+	}
+
+	@Override
+	public final E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.blocking.poll(timeout, unit);
+	}
+
+	@Override
+	public final E pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.blocking.pollFirst(timeout, unit);
+	}
+
+	@Override
+	public final E pollLast(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.blocking.pollLast(timeout, unit);
+	}
+
+	@Override
+	public final void put(E element) throws InterruptedException {
+		this.blocking.put(element);
+	}
+
+	@Override
+	public final void putFirst(E element) throws InterruptedException {
+		this.blocking.putFirst(element);
+	}
+
+	@Override
+	public final void putLast(E element) throws InterruptedException {
+		this.blocking.putLast(element);
+	}
+
+	@Override
+	public final int remainingCapacity() {
+		return this.blocking.remainingCapacity();
+	}
+
+	@Override
+	public final E take() throws InterruptedException {
+		return this.blocking.take();
+	}
+
+	@Override
+	public final E takeFirst() throws InterruptedException {
+		return this.blocking.takeFirst();
+	}
+
+	@Override
+	public final E takeLast() throws InterruptedException {
+		return this.blocking.takeLast();
+	}
+
+}
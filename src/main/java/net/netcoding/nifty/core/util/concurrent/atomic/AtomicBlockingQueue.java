@@ -0,0 +1,57 @@
+package net.netcoding.nifty.core.util.concurrent.atomic;
+
+import java.util.Collection;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A queue that delegates to a blocking queue, allowing consumers and producers
+ * to park until an element or free space becomes available.
+ *
+ * @param <E> type of elements
+ */
+public abstract class AtomicBlockingQueue<E> extends AtomicQueue<E> implements BlockingQueue<E> {
+
+	private final BlockingQueue<E> blocking;
+
+	protected AtomicBlockingQueue(BlockingQueue<E> storage) {
+		super(storage);
+		this.blocking = storage;
+	}
+
+	@Override
+	public final int drainTo(Collection<? super E> collection) {
+		return this.blocking.drainTo(collection);
+	}
+
+	@Override
+	public final int drainTo(Collection<? super E> collection, int maxElements) {
+		return this.blocking.drainTo(collection, maxElements);
+	}
+
+	@Override
+	public final boolean offer(E element, long timeout, TimeUnit unit) throws InterruptedException {
+		return this.blocking.offer(element, timeout, unit);
+	}
+
+	@Override
+	public final E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.blocking.poll(timeout, unit);
+	}
+
+	@Override
+	public final void put(E element) throws InterruptedException {
+		this.blocking.put(element);
+	}
+
+	@Override
+	public final int remainingCapacity() {
+		return this.blocking.remainingCapacity();
+	}
+
+	@Override
+	public final E take() throws InterruptedException {
+		return this.blocking.take();
+	}
+
+}
@@ -1,146 +1,106 @@
 package net.netcoding.nifty.core.util.concurrent.atomic;
 
-import java.util.*;
-
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * A deque that delegates to a lock-free linked deque, allowing insertion and
+ * removal at both ends in O(1) without copying any elements.
+ *
+ * @param <E> type of elements
+ */
 public abstract class AtomicDeque<E> extends AtomicQueue<E> implements Deque<E> {
 
-	protected AtomicDeque(Collection<? extends E> collection) {
-		super(collection);
+	private final Deque<E> deque;
+
+	protected AtomicDeque(Deque<E> storage) {
+		super(storage);
+		this.deque = storage;
 	}
 
 	@Override
 	public final void addFirst(E element) {
-		super.storage.add(0, element);
+		this.deque.addFirst(element);
 	}
 
 	@Override
 	public final void addLast(E element) {
-		super.add(element);
+		this.deque.addLast(element);
 	}
 
 	@Override
-	public final boolean offerFirst(E element) {
-		int before = super.size();
-		this.addFirst(element);
-		return super.size() > before;
+	public final Iterator<E> descendingIterator() {
+		return this.deque.descendingIterator();
 	}
 
 	@Override
-	public final boolean offerLast(E element) {
-		int before = super.size();
-		this.addLast(element);
-		return super.size() > before;
+	public final E getFirst() {
+		return this.deque.getFirst();
 	}
 
 	@Override
-	public final E removeFirst() {
-		return super.remove();
+	public final E getLast() {
+		return this.deque.getLast();
 	}
 
 	@Override
-	public final E removeLast() {
-		E element = this.pollLast();
-
-		if (element != null)
-			return element;
-		else
-			throw new NoSuchElementException();
+	public final boolean offerFirst(E element) {
+		return this.deque.offerFirst(element);
 	}
 
 	@Override
-	public final E pollFirst() {
-		return super.poll();
+	public final boolean offerLast(E element) {
+		return this.deque.offerLast(element);
 	}
 
 	@Override
-	public final E pollLast() {
-		if (super.isEmpty())
-			return null;
-		else {
-			E element = super.storage.get(super.size() - 1);
-			super.remove(element);
-			return element;
-		}
+	public final E peekFirst() {
+		return this.deque.peekFirst();
 	}
 
 	@Override
-	public final E getFirst() {
-		E element = this.peekFirst();
-
-		if (element != null)
-			return element;
-		else
-			throw new NoSuchElementException();
+	public final E peekLast() {
+		return this.deque.peekLast();
 	}
 
 	@Override
-	public final E getLast() {
-		E element = this.peekLast();
-
-		if (element != null)
-			return element;
-		else
-			throw new NoSuchElementException();
+	public final E pollFirst() {
+		return this.deque.pollFirst();
 	}
 
 	@Override
-	public final E peekFirst() {
-		return super.peek();
+	public final E pollLast() {
+		return this.deque.pollLast();
 	}
 
 	@Override
-	public final E peekLast() {
-		if (super.isEmpty())
-			return null;
-		else
-			return super.storage.get(super.size() - 1);
+	public final E pop() {
+		return this.deque.pop();
 	}
 
 	@Override
-	public final boolean removeFirstOccurrence(Object obj) {
-		Iterator<E> iterator = super.iterator();
-
-		while (iterator.hasNext()) {
-			E element = iterator.next();
-
-			if (element.equals(obj)) {
-				super.remove(obj);
-				return true;
-			}
-		}
-
-		return false;
+	public final void push(E element) {
+		this.deque.push(element);
 	}
 
 	@Override
-	public final boolean removeLastOccurrence(Object obj) {
-		Iterator<E> iterator = this.descendingIterator();
-
-		while (iterator.hasNext()) {
-			E element = iterator.next();
-
-			if (element.equals(obj)) {
-				super.remove(obj);
-				return true;
-			}
-		}
-
-		return false;
+	public final E removeFirst() {
+		return this.deque.removeFirst();
 	}
 
 	@Override
-	public final void push(E element) {
-		super.offer(element);
+	public final boolean removeFirstOccurrence(Object obj) {
+		return this.deque.removeFirstOccurrence(obj);
 	}
 
 	@Override
-	public final E pop() {
-		return this.removeFirst();
+	public final E removeLast() {
+		return this.deque.removeLast();
 	}
 
 	@Override
-	public Iterator<E> descendingIterator() {
-		throw new UnsupportedOperationException("This is currently not implemented!");
+	public final boolean removeLastOccurrence(Object obj) {
+		return this.deque.removeLastOccurrence(obj);
 	}
 
-}
\ No newline at end of file
+}
@@ -4,14 +4,20 @@ import net.netcoding.nifty.core.reflection.exceptions.ReflectionException;
 
 import java.util.AbstractList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 public abstract class AtomicList<E, T extends AbstractList<E>> extends AbstractList<E> implements List<E> {
 
-	private final AtomicReference<T> ref;
+	protected final AtomicReference<T> ref;
+	private final Contention contention = new Contention();
 
 	protected AtomicList(T type) {
 		this.ref = new AtomicReference<>(type);
@@ -19,55 +25,44 @@ public abstract class AtomicList<E, T extends AbstractList<E>> extends AbstractL
 
 	@Override
 	public final void add(int index, E element) {
-		while (true) {
-			T current = this.ref.get();
-			T modified = this.newList(current);
-			modified.add(index, element);
-
-			if (this.ref.compareAndSet(current, modified))
-				return;
-		}
+		this.mutate(list -> list.add(index, element));
 	}
 
 	@Override
 	public final boolean add(E element) {
-		while (true) {
-			T current = this.ref.get();
-			T modified = this.newList(current);
-			boolean result = modified.add(element);
-
-			if (this.ref.compareAndSet(current, modified))
-				return result;
-		}
+		return this.compute(list -> list.add(element));
 	}
 
 	@Override
 	public final boolean addAll(Collection<? extends E> collection) {
-		while (true) {
-			T current = this.ref.get();
-			T modified = this.newList(current);
-			boolean result = modified.addAll(collection);
-
-			if (this.ref.compareAndSet(current, modified))
-				return result;
-		}
+		return this.compute(list -> list.addAll(collection));
 	}
 
 	@Override
 	public final boolean addAll(int index, Collection<? extends E> collection) {
-		while (true) {
-			T current = this.ref.get();
-			T modified = this.newList(current);
-			boolean result = modified.addAll(index, collection);
-
-			if (this.ref.compareAndSet(current, modified))
-				return result;
-		}
+		return this.compute(list -> list.addAll(index, collection));
 	}
 
 	@Override
 	public final void clear() {
-		this.ref.get().clear();
+		this.mutate(Collection::clear);
+	}
+
+	/**
+	 * Applies the given function to a single private copy of this list and
+	 * publishes that copy with one compare-and-set, no matter how many
+	 * modifications the function makes.
+	 * <p>
+	 * The function is called again on a fresh copy if another thread modified
+	 * this list in the meantime, so it should not have side effects outside of
+	 * the copy it is given.
+	 *
+	 * @param editor Function modifying the copy.
+	 * @param <R> Type of result.
+	 * @return Result of the function call that was published.
+	 */
+	public final <R> R compute(Function<? super T, ? extends R> editor) {
+		return this.contention.compute(this.ref, this::newList, List::size, editor);
 	}
 
 	@Override
@@ -85,11 +80,33 @@ public abstract class AtomicList<E, T extends AbstractList<E>> extends AbstractL
 		return this.ref.get().get(index);
 	}
 
+	/**
+	 * Gets the counters of this list, if it was instrumented.
+	 *
+	 * @return Counters of this list, or null.
+	 * @see #instrument(String)
+	 */
+	public final ContentionStats getContentionStats() {
+		return this.contention.getStats();
+	}
+
 	@Override
 	public final int indexOf(Object item) {
 		return this.ref.get().indexOf(item);
 	}
 
+	/**
+	 * Starts counting the compare-and-set attempts, failures and copied
+	 * elements of this list, and registers the counters with the
+	 * {@link ContentionRegistry} under the given name.
+	 *
+	 * @param name Name to register the counters under.
+	 * @return Counters of this list.
+	 */
+	public final ContentionStats instrument(String name) {
+		return this.contention.instrument(name);
+	}
+
 	@Override
 	public final boolean isEmpty() {
 		return this.ref.get().isEmpty();
@@ -115,6 +132,20 @@ public abstract class AtomicList<E, T extends AbstractList<E>> extends AbstractL
 		return this.ref.get().listIterator(index);
 	}
 
+	/**
+	 * Applies the given modifications to a single private copy of this list
+	 * and publishes that copy with one compare-and-set.
+	 *
+	 * @param editor Consumer modifying the copy.
+	 * @see #compute(Function)
+	 */
+	public final void mutate(Consumer<? super T> editor) {
+		this.compute(list -> {
+			editor.accept(list);
+			return null;
+		});
+	}
+
 	@SuppressWarnings("unchecked")
 	private T newList(T current) {
 		try {
@@ -128,71 +159,47 @@ public abstract class AtomicList<E, T extends AbstractList<E>> extends AbstractL
 
 	@Override
 	public final E remove(int index) {
-		while (true) {
-			T current = this.ref.get();
-
-			if (index >= current.size())
-				return null;
-
-			T modified = this.newList(current);
-			E old = modified.remove(index);
+		if (index >= this.ref.get().size())
+			return null;
 
-			if (this.ref.compareAndSet(current, modified))
-				return old;
-		}
+		return this.compute(list -> index < list.size() ? list.remove(index) : null);
 	}
 
 	@SuppressWarnings("SuspiciousMethodCalls")
 	@Override
 	public final boolean remove(Object element) {
-		while (true) {
-			T current = this.ref.get();
-
-			if (!current.contains(element))
-				return false;
-
-			T modified = this.newList(current);
-			boolean result = modified.remove(element);
+		if (!this.ref.get().contains(element))
+			return false;
 
-			if (this.ref.compareAndSet(current, modified))
-				return result;
-		}
+		return this.compute(list -> list.remove(element));
 	}
 
 	@Override
 	public final boolean removeAll(Collection<?> collection) {
-		while (true) {
-			T current = this.ref.get();
-			T modified = this.newList(current);
-			boolean result = modified.removeAll(collection);
+		return this.compute(list -> list.removeAll(collection));
+	}
 
-			if (this.ref.compareAndSet(current, modified))
-				return result;
-		}
+	@Override
+	public final boolean removeIf(Predicate<? super E> filter) {
+		if (this.ref.get().stream().noneMatch(filter))
+			return false;
+
+		return this.compute(list -> list.removeIf(filter));
 	}
 
 	@Override
-	public final boolean retainAll(Collection<?> collection) {
-		while (true) {
-			T current = this.ref.get();
-			T modified = this.newList(current);
-			boolean result = modified.retainAll(collection);
+	public final void replaceAll(UnaryOperator<E> operator) {
+		this.mutate(list -> list.replaceAll(operator));
+	}
 
-			if (this.ref.compareAndSet(current, modified))
-				return result;
-		}
+	@Override
+	public final boolean retainAll(Collection<?> collection) {
+		return this.compute(list -> list.retainAll(collection));
 	}
 
 	@Override
 	public final E set(int index, E element) {
-		while (true) {
-			T current = this.ref.get();
-			T modified = this.newList(current);
-			E old = modified.set(index, element);
-
-			if (this.ref.compareAndSet(current, modified))
-				return old;
-		}
+		return this.compute(list -> list.set(index, element));
 	}
 
 	@Override
@@ -200,6 +207,11 @@ public abstract class AtomicList<E, T extends AbstractList<E>> extends AbstractL
 		return this.ref.get().size();
 	}
 
+	@Override
+	public final void sort(Comparator<? super E> comparator) {
+		this.mutate(list -> list.sort(comparator));
+	}
+
 	@Override
 	public List<E> subList(int fromIndex, int toIndex) {
 		return this.ref.get().subList(fromIndex, toIndex);
@@ -9,11 +9,14 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 public abstract class AtomicMap<K, V, M extends AbstractMap<K, V>> extends AbstractMap<K, V> implements Iterable<Map.Entry<K, V>>, Map<K, V> {
 
 	protected final AtomicReference<M> ref;
+	private final Contention contention = new Contention();
 
 	/**
 	 * Create a new concurrent map.
@@ -24,7 +27,59 @@ public abstract class AtomicMap<K, V, M extends AbstractMap<K, V>> extends Abstr
 
 	@Override
 	public final void clear() {
-		this.ref.get().clear();
+		this.mutate(Map::clear);
+	}
+
+	/**
+	 * Applies the given function to a single private copy of this map and
+	 * publishes that copy with one compare-and-set, no matter how many
+	 * modifications the function makes.
+	 * <p>
+	 * The function is called again on a fresh copy if another thread modified
+	 * this map in the meantime, so it should not have side effects outside of
+	 * the copy it is given.
+	 *
+	 * @param editor Function modifying the copy.
+	 * @param <R> Type of result.
+	 * @return Result of the function call that was published.
+	 */
+	public final <R> R compute(Function<? super M, ? extends R> editor) {
+		return this.contention.compute(this.ref, this::newMap, Map::size, editor);
+	}
+
+	/**
+	 * If the given key is not mapped to a value, computes one and publishes it
+	 * with a single copy of this map.
+	 * <p>
+	 * The mapping function is called at most once per invocation, outside of
+	 * the compare-and-set loop. Should another thread map the key first, its
+	 * value is returned and the computed value is discarded.
+	 *
+	 * @param key Key to look up.
+	 * @param mappingFunction Function computing the value.
+	 * @return Current value of the key, or the computed value.
+	 */
+	@Override
+	public final V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		V current = this.ref.get().get(key);
+
+		if (current != null)
+			return current;
+
+		V value = mappingFunction.apply(key);
+
+		if (value == null)
+			return null;
+
+		return this.compute(map -> {
+			V existing = map.get(key);
+
+			if (existing != null)
+				return existing;
+
+			map.put(key, value);
+			return value;
+		});
 	}
 
 	@Override
@@ -53,6 +108,28 @@ public abstract class AtomicMap<K, V, M extends AbstractMap<K, V>> extends Abstr
 		return current.containsKey(key) ? current.get(key) : defaultValue;
 	}
 
+	/**
+	 * Gets the counters of this map, if it was instrumented.
+	 *
+	 * @return Counters of this map, or null.
+	 * @see #instrument(String)
+	 */
+	public final ContentionStats getContentionStats() {
+		return this.contention.getStats();
+	}
+
+	/**
+	 * Starts counting the compare-and-set attempts, failures and copied
+	 * elements of this map, and registers the counters with the
+	 * {@link ContentionRegistry} under the given name.
+	 *
+	 * @param name Name to register the counters under.
+	 * @return Counters of this map.
+	 */
+	public final ContentionStats instrument(String name) {
+		return this.contention.instrument(name);
+	}
+
 	@Override
 	public final boolean isEmpty() {
 		return this.ref.get().isEmpty();
@@ -68,8 +145,31 @@ public abstract class AtomicMap<K, V, M extends AbstractMap<K, V>> extends Abstr
 		return this.ref.get().keySet();
 	}
 
+	/**
+	 * Applies the given modifications to a single private copy of this map
+	 * and publishes that copy with one compare-and-set.
+	 *
+	 * @param editor Consumer modifying the copy.
+	 * @see #compute(Function)
+	 */
+	public final void mutate(Consumer<? super M> editor) {
+		this.compute(map -> {
+			editor.accept(map);
+			return null;
+		});
+	}
+
+	/**
+	 * Creates the private copy of the current map that a modification is applied to.
+	 * <p>
+	 * Override this when the backing map can be copied more cheaply than
+	 * re-inserting every entry into a new instance.
+	 *
+	 * @param current Map currently published.
+	 * @return Copy of the current map.
+	 */
 	@SuppressWarnings("unchecked")
-	private M newMap(M current) {
+	protected M newMap(M current) {
 		try {
 			Map<K, V> map = current.getClass().newInstance();
 			map.putAll(current);
@@ -85,79 +185,40 @@ public abstract class AtomicMap<K, V, M extends AbstractMap<K, V>> extends Abstr
 
 	@Override
 	public final V put(K key, V value) {
-		while (true) {
-			M current = this.ref.get();
-			M modified = this.newMap(current);
-			V old = modified.put(key, value);
-
-			if (this.ref.compareAndSet(current, modified))
-				return old;
-		}
+		return this.compute(map -> map.put(key, value));
 	}
 
 	@Override
 	public final void putAll(Map<? extends K, ? extends V> map) {
-		while (true) {
-			M current = this.ref.get();
-			M modified = this.newMap(current);
-			modified.putAll(map);
-
-			if (this.ref.compareAndSet(current, modified))
-				return;
-		}
+		this.mutate(current -> current.putAll(map));
 	}
 
 	@Override
 	public final V putIfAbsent(K key, V value) {
-		while (true) {
-			M current = this.ref.get();
-			M modified = this.newMap(current);
+		M current = this.ref.get();
 
-			if (!modified.containsKey(key) || modified.get(key) == null) {
-				V old = modified.put(key, value);
+		if (current.containsKey(key) && current.get(key) != null)
+			return null;
 
-				if (this.ref.compareAndSet(current, modified))
-					return old;
-			} else
-				return null;
-		}
+		return this.compute(map -> map.containsKey(key) && map.get(key) != null ? null : map.put(key, value));
 	}
 
 	@Override
 	public final V remove(Object key) {
-		while (true) {
-			M current = this.ref.get();
-
-			if (!current.containsKey(key))
-				return null;
-
-			M modified = this.newMap(current);
-			V old = modified.remove(key);
+		if (!this.ref.get().containsKey(key))
+			return null;
 
-			if (this.ref.compareAndSet(current, modified))
-				return old;
-		}
+		return this.compute(map -> map.remove(key));
 	}
 
 	@Override
 	public final boolean remove(Object key, Object value) {
-		while (true) {
-			M current = this.ref.get();
-
-			if (!current.containsKey(key))
-				return false;
-
-			M modified = this.newMap(current);
-			V currentValue = modified.get(key);
+		M current = this.ref.get();
 
-			if (Objects.equals(currentValue, value)) {
-				modified.remove(key);
+		if (!current.containsKey(key) || !Objects.equals(current.get(key), value))
+			return false;
 
-				if (this.ref.compareAndSet(current, modified))
-					return true;
-			} else
-				return false;
-		}
+		return this.compute(map -> map.remove(key, value));
 	}
 
 	@Override
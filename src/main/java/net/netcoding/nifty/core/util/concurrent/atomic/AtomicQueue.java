@@ -1,21 +1,34 @@
 package net.netcoding.nifty.core.util.concurrent.atomic;
 
-import net.netcoding.nifty.core.util.concurrent.Concurrent;
-import net.netcoding.nifty.core.util.concurrent.linked.ConcurrentLinkedList;
-
-import java.util.*;
-
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A queue that delegates to a lock-free linked queue, allowing offer and poll in
+ * O(1) without copying any elements.
+ * <p>
+ * Iteration is weakly consistent, it never throws a
+ * {@link java.util.ConcurrentModificationException} and reflects the elements
+ * present at some point since the iterator was created.
+ *
+ * @param <E> type of elements
+ */
 public abstract class AtomicQueue<E> extends AbstractQueue<E> implements Queue<E> {
 
-	protected final ConcurrentLinkedList<E> storage;
+	protected final Queue<E> storage;
 
-	protected AtomicQueue(Collection<? extends E> collection) {
-		this.storage = Concurrent.newLinkedList(collection);
+	protected AtomicQueue(Queue<E> storage) {
+		this.storage = storage;
 	}
 
 	@Override
 	public final boolean add(E element) {
-		return super.add(element);
+		return this.storage.add(element);
 	}
 
 	@Override
@@ -25,7 +38,7 @@ public abstract class AtomicQueue<E> extends AbstractQueue<E> implements Queue<E
 
 	@Override
 	public final void clear() {
-		super.clear();
+		this.storage.clear();
 	}
 
 	@Override
@@ -40,7 +53,12 @@ public abstract class AtomicQueue<E> extends AbstractQueue<E> implements Queue<E
 
 	@Override
 	public final E element() {
-		return super.element();
+		return this.storage.element();
+	}
+
+	@Override
+	public final void forEach(Consumer<? super E> action) {
+		this.storage.forEach(action);
 	}
 
 	@Override
@@ -55,27 +73,27 @@ public abstract class AtomicQueue<E> extends AbstractQueue<E> implements Queue<E
 
 	@Override
 	public final boolean offer(E element) {
-		return this.storage.add(element);
+		return this.storage.offer(element);
 	}
 
 	@Override
 	public final E peek() {
-		return this.isEmpty() ? null : this.storage.get(0);
+		return this.storage.peek();
 	}
 
 	@Override
 	public final E poll() {
-		return this.isEmpty() ? null : this.storage.remove(0);
+		return this.storage.poll();
 	}
 
 	@Override
 	public final E remove() {
-		return super.remove();
+		return this.storage.remove();
 	}
 
 	@Override
 	public final boolean remove(Object obj) {
-		return super.remove(obj);
+		return this.storage.remove(obj);
 	}
 
 	@Override
@@ -83,16 +101,34 @@ public abstract class AtomicQueue<E> extends AbstractQueue<E> implements Queue<E
 		return this.storage.removeAll(collection);
 	}
 
+	@Override
+	public final boolean removeIf(Predicate<? super E> filter) {
+		return this.storage.removeIf(filter);
+	}
+
 	@Override
 	public final boolean retainAll(Collection<?> collection) {
 		return this.storage.retainAll(collection);
 	}
 
+	/**
+	 * Gets the number of elements in this queue.
+	 * <p>
+	 * This traverses the queue and is therefore O(n), use {@link #isEmpty()}
+	 * when only checking for elements.
+	 *
+	 * @return Number of elements in the queue.
+	 */
 	@Override
 	public final int size() {
 		return this.storage.size();
 	}
 
+	@Override
+	public final Spliterator<E> spliterator() {
+		return this.storage.spliterator();
+	}
+
 	@Override
 	public final Object[] toArray() {
 		return this.storage.toArray();
@@ -104,4 +140,4 @@ public abstract class AtomicQueue<E> extends AbstractQueue<E> implements Queue<E
 		return this.storage.toArray(array);
 	}
 
-}
\ No newline at end of file
+}
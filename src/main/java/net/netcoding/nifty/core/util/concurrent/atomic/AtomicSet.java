@@ -7,10 +7,14 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public abstract class AtomicSet<E, T extends AbstractSet<E>> extends AbstractSet<E> implements Set<E> {
 
-	private final AtomicReference<T> ref;
+	protected final AtomicReference<T> ref;
+	private final Contention contention = new Contention();
 
 	protected AtomicSet(T type) {
 		this.ref = new AtomicReference<>(type);
@@ -18,35 +22,37 @@ public abstract class AtomicSet<E, T extends AbstractSet<E>> extends AbstractSet
 
 	@Override
 	public final boolean add(E element) {
-		while (true) {
-			T current = this.ref.get();
+		if (this.ref.get().contains(element))
+			return false;
 
-			if (current.contains(element))
-				return false;
-
-			T modified = this.newSet(current);
-			boolean result = modified.add(element);
-
-			if (this.ref.compareAndSet(current, modified))
-				return result;
-		}
+		return this.compute(set -> set.add(element));
 	}
 
 	@Override
 	public final boolean addAll(Collection<? extends E> collection) {
-		while (true) {
-			T current = this.ref.get();
-			T modified = this.newSet(current);
-			boolean result = modified.addAll(collection);
-
-			if (this.ref.compareAndSet(current, modified))
-				return result;
-		}
+		return this.compute(set -> set.addAll(collection));
 	}
 
 	@Override
 	public final void clear() {
-		this.ref.get().clear();
+		this.mutate(Collection::clear);
+	}
+
+	/**
+	 * Applies the given function to a single private copy of this set and
+	 * publishes that copy with one compare-and-set, no matter how many
+	 * modifications the function makes.
+	 * <p>
+	 * The function is called again on a fresh copy if another thread modified
+	 * this set in the meantime, so it should not have side effects outside of
+	 * the copy it is given.
+	 *
+	 * @param editor Function modifying the copy.
+	 * @param <R> Type of result.
+	 * @return Result of the function call that was published.
+	 */
+	public final <R> R compute(Function<? super T, ? extends R> editor) {
+		return this.contention.compute(this.ref, this::newSet, Set::size, editor);
 	}
 
 	@Override
@@ -59,6 +65,28 @@ public abstract class AtomicSet<E, T extends AbstractSet<E>> extends AbstractSet
 		return this.ref.get().containsAll(collection);
 	}
 
+	/**
+	 * Gets the counters of this set, if it was instrumented.
+	 *
+	 * @return Counters of this set, or null.
+	 * @see #instrument(String)
+	 */
+	public final ContentionStats getContentionStats() {
+		return this.contention.getStats();
+	}
+
+	/**
+	 * Starts counting the compare-and-set attempts, failures and copied
+	 * elements of this set, and registers the counters with the
+	 * {@link ContentionRegistry} under the given name.
+	 *
+	 * @param name Name to register the counters under.
+	 * @return Counters of this set.
+	 */
+	public final ContentionStats instrument(String name) {
+		return this.contention.instrument(name);
+	}
+
 	@Override
 	public final boolean isEmpty() {
 		return this.ref.get().isEmpty();
@@ -69,8 +97,31 @@ public abstract class AtomicSet<E, T extends AbstractSet<E>> extends AbstractSet
 		return this.ref.get().iterator();
 	}
 
+	/**
+	 * Applies the given modifications to a single private copy of this set
+	 * and publishes that copy with one compare-and-set.
+	 *
+	 * @param editor Consumer modifying the copy.
+	 * @see #compute(Function)
+	 */
+	public final void mutate(Consumer<? super T> editor) {
+		this.compute(set -> {
+			editor.accept(set);
+			return null;
+		});
+	}
+
+	/**
+	 * Creates the private copy of the current set that a modification is applied to.
+	 * <p>
+	 * Override this when the backing set can be copied more cheaply than
+	 * re-inserting every element into a new instance.
+	 *
+	 * @param current Set currently published.
+	 * @return Copy of the current set.
+	 */
 	@SuppressWarnings("unchecked")
-	private T newSet(T current) {
+	protected T newSet(T current) {
 		try {
 			Set<E> set = current.getClass().newInstance();
 			set.addAll(current);
@@ -82,42 +133,28 @@ public abstract class AtomicSet<E, T extends AbstractSet<E>> extends AbstractSet
 
 	@Override
 	public final boolean remove(Object item) {
-		while (true) {
-			T current = this.ref.get();
-
-			if (!current.contains(item))
-				return false;
+		if (!this.ref.get().contains(item))
+			return false;
 
-			T modified = this.newSet(current);
-			boolean result = modified.remove(item);
-
-			if (this.ref.compareAndSet(current, modified))
-				return result;
-		}
+		return this.compute(set -> set.remove(item));
 	}
 
 	@Override
 	public final boolean removeAll(Collection<?> collection) {
-		while (true) {
-			T current = this.ref.get();
-			T modified = this.newSet(current);
-			boolean result = modified.removeAll(collection);
+		return this.compute(set -> set.removeAll(collection));
+	}
 
-			if (this.ref.compareAndSet(current, modified))
-				return result;
-		}
+	@Override
+	public final boolean removeIf(Predicate<? super E> filter) {
+		if (this.ref.get().stream().noneMatch(filter))
+			return false;
+
+		return this.compute(set -> set.removeIf(filter));
 	}
 
 	@Override
 	public final boolean retainAll(Collection<?> collection) {
-		while (true) {
-			T current = this.ref.get();
-			T modified = this.newSet(current);
-			boolean result = modified.retainAll(collection);
-
-			if (this.ref.compareAndSet(current, modified))
-				return result;
-		}
+		return this.compute(set -> set.retainAll(collection));
 	}
 
 	@Override
@@ -0,0 +1,100 @@
+package net.netcoding.nifty.core.util.concurrent.atomic;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Holds an immutable-once-published structure in an {@link AtomicReference}
+ * and replaces it with a modified copy on every modification, just like
+ * {@link AtomicList}, {@link AtomicMap} and {@link AtomicSet}.
+ * <p>
+ * Reads go straight to the currently published structure and see a
+ * consistent snapshot without locking.
+ *
+ * @param <T> type of structure
+ */
+public abstract class AtomicSnapshot<T> {
+
+	protected final AtomicReference<T> ref;
+	private final Contention contention = new Contention();
+
+	protected AtomicSnapshot(T type) {
+		this.ref = new AtomicReference<>(type);
+	}
+
+	/**
+	 * Applies the given function to a single private copy of the structure and
+	 * publishes that copy with one compare-and-set, no matter how many
+	 * modifications the function makes.
+	 * <p>
+	 * The function is called again on a fresh copy if another thread modified
+	 * the structure in the meantime, so it should not have side effects outside
+	 * of the copy it is given.
+	 *
+	 * @param editor Function modifying the copy.
+	 * @param <R> Type of result.
+	 * @return Result of the function call that was published.
+	 */
+	public final <R> R compute(Function<? super T, ? extends R> editor) {
+		return this.contention.compute(this.ref, this::copy, this::sizeOf, editor);
+	}
+
+	/**
+	 * Creates a private, modifiable copy of the given structure.
+	 *
+	 * @param current Currently published structure.
+	 * @return Copy of the structure.
+	 */
+	protected abstract T copy(T current);
+
+	/**
+	 * Gets the counters of this structure, if it was instrumented.
+	 *
+	 * @return Counters of this structure, or null.
+	 * @see #instrument(String)
+	 */
+	public final ContentionStats getContentionStats() {
+		return this.contention.getStats();
+	}
+
+	/**
+	 * Starts counting the compare-and-set attempts, failures and copied
+	 * elements of this structure, and registers the counters with the
+	 * {@link ContentionRegistry} under the given name.
+	 *
+	 * @param name Name to register the counters under.
+	 * @return Counters of this structure.
+	 */
+	public final ContentionStats instrument(String name) {
+		return this.contention.instrument(name);
+	}
+
+	/**
+	 * Applies the given modifications to a single private copy of the
+	 * structure and publishes that copy with one compare-and-set.
+	 *
+	 * @param editor Consumer modifying the copy.
+	 * @see #compute(Function)
+	 */
+	public final void mutate(Consumer<? super T> editor) {
+		this.compute(structure -> {
+			editor.accept(structure);
+			return null;
+		});
+	}
+
+	/**
+	 * Gets the number of elements held by the given structure.
+	 *
+	 * @param current Structure to measure.
+	 * @return Number of elements.
+	 */
+	protected abstract int sizeOf(T current);
+
+	@Override
+	public final String toString() {
+		return this.ref.get().toString();
+	}
+
+}
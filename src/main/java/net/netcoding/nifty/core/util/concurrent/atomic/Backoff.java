@@ -0,0 +1,37 @@
+package net.netcoding.nifty.core.util.concurrent.atomic;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded exponential backoff between failed compare-and-set attempts.
+ * <p>
+ * The first few retries only spin, after which the thread is parked for an
+ * exponentially growing time that never exceeds {@link #MAX_PARK_NANOS}.
+ * Starting further along lets recently contended collections skip the spinning.
+ */
+final class Backoff {
+
+	private static final int SPIN_ATTEMPTS = 4;
+	private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+	private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private int attempts;
+
+	Backoff(int attempts) {
+		this.attempts = attempts;
+	}
+
+	/**
+	 * Waits before the next attempt.
+	 */
+	void pause() {
+		if (this.attempts < SPIN_ATTEMPTS) {
+			for (int i = 0; i < (1 << this.attempts); i++)
+				Thread.onSpinWait();
+		} else
+			LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << Math.min(this.attempts - SPIN_ATTEMPTS, 20), MAX_PARK_NANOS));
+
+		this.attempts++;
+	}
+
+}
@@ -0,0 +1,69 @@
+package net.netcoding.nifty.core.util.concurrent.atomic;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * The compare-and-set loop shared by every modification of a single
+ * copy-on-write collection.
+ * <p>
+ * The loop remembers how contended the collection recently was and lets the
+ * first backoff of a retry start from there, so hot collections back off
+ * sooner and calm ones stay at a plain retry. Counters are only kept once the
+ * collection has been instrumented.
+ */
+final class Contention {
+
+	private static final int MAX_LEVEL = 8;
+	private volatile int level = 0;
+	private volatile ContentionStats stats;
+
+	<T, R> R compute(AtomicReference<T> ref, UnaryOperator<T> copier, ToIntFunction<? super T> sizer, Function<? super T, ? extends R> editor) {
+		ContentionStats stats = this.stats;
+		Backoff backoff = null;
+
+		while (true) {
+			T current = ref.get();
+			T modified = copier.apply(current);
+			R result = editor.apply(modified);
+
+			if (stats != null)
+				stats.recordAttempt(sizer.applyAsInt(current));
+
+			if (ref.compareAndSet(current, modified)) {
+				this.settle(backoff != null);
+				return result;
+			}
+
+			if (stats != null)
+				stats.recordFailure();
+
+			if (backoff == null)
+				backoff = new Backoff(this.level);
+
+			backoff.pause();
+		}
+	}
+
+	ContentionStats getStats() {
+		return this.stats;
+	}
+
+	ContentionStats instrument(String name) {
+		return this.stats = ContentionRegistry.register(name);
+	}
+
+	private void settle(boolean retried) {
+		int level = this.level;
+
+		// Racy on purpose, this is only a hint
+		if (retried) {
+			if (level < MAX_LEVEL)
+				this.level = level + 1;
+		} else if (level > 0)
+			this.level = level - 1;
+	}
+
+}
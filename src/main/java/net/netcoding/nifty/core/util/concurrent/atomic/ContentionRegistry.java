@@ -0,0 +1,71 @@
+package net.netcoding.nifty.core.util.concurrent.atomic;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the {@link ContentionStats} of all collections instrumented by
+ * name, to find the ones retrying their modifications the most.
+ * <p>
+ * Only the counters are registered, never the collections themselves.
+ */
+public final class ContentionRegistry {
+
+	private static final Map<String, ContentionStats> STATS = new ConcurrentHashMap<>();
+
+	private ContentionRegistry() { }
+
+	/**
+	 * Gets the counters registered under the given name.
+	 *
+	 * @param name Name of the collection.
+	 * @return Counters of the collection, or null if none are registered.
+	 */
+	public static ContentionStats get(String name) {
+		return STATS.get(name);
+	}
+
+	/**
+	 * Gets the counters with the most failed attempts, highest first.
+	 *
+	 * @param limit Maximum number of counters to return.
+	 * @return List of counters.
+	 */
+	public static List<ContentionStats> getMostContended(int limit) {
+		return STATS.values().stream()
+				.sorted(Comparator.comparingLong(ContentionStats::getFailures).reversed())
+				.limit(limit)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Gets the counters of all registered collections.
+	 *
+	 * @return Unmodifiable collection of counters.
+	 */
+	public static Collection<ContentionStats> getStats() {
+		return Collections.unmodifiableCollection(new ArrayList<>(STATS.values()));
+	}
+
+	static ContentionStats register(String name) {
+		ContentionStats stats = new ContentionStats(name);
+		STATS.put(name, stats);
+		return stats;
+	}
+
+	/**
+	 * Stops tracking the counters registered under the given name.
+	 *
+	 * @param name Name of the collection.
+	 */
+	public static void unregister(String name) {
+		STATS.remove(name);
+	}
+
+}
@@ -0,0 +1,94 @@
+package net.netcoding.nifty.core.util.concurrent.atomic;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of the compare-and-set loop of a single instrumented
+ * collection, see {@link ContentionRegistry}.
+ */
+public final class ContentionStats {
+
+	private final String name;
+	private final LongAdder attempts = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder copiedElements = new LongAdder();
+
+	ContentionStats(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Gets the number of copies that were attempted to be published.
+	 *
+	 * @return Number of compare-and-set attempts.
+	 */
+	public long getAttempts() {
+		return this.attempts.sum();
+	}
+
+	/**
+	 * Gets the number of elements held by the structures that were copied.
+	 * <p>
+	 * For structures sharing most of their contents between copies, such as
+	 * the trie behind {@link net.netcoding.nifty.core.util.concurrent.ConcurrentMap},
+	 * this is an upper bound of the actual copying work.
+	 *
+	 * @return Number of copied elements.
+	 */
+	public long getCopiedElements() {
+		return this.copiedElements.sum();
+	}
+
+	/**
+	 * Gets the number of copies that were discarded because another thread
+	 * published first.
+	 *
+	 * @return Number of failed compare-and-set attempts.
+	 */
+	public long getFailures() {
+		return this.failures.sum();
+	}
+
+	/**
+	 * Gets the name the collection was instrumented with.
+	 *
+	 * @return Name of the collection.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Gets the ratio of attempts that had to be retried.
+	 *
+	 * @return Ratio between 0 and 1.
+	 */
+	public double getRetryRate() {
+		long attempts = this.getAttempts();
+		return attempts == 0 ? 0.0 : (double)this.getFailures() / attempts;
+	}
+
+	void recordAttempt(int copiedElements) {
+		this.attempts.increment();
+		this.copiedElements.add(copiedElements);
+	}
+
+	void recordFailure() {
+		this.failures.increment();
+	}
+
+	/**
+	 * Resets all counters to zero.
+	 */
+	public void reset() {
+		this.attempts.reset();
+		this.failures.reset();
+		this.copiedElements.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "ContentionStats{name=" + this.name + ", attempts=" + this.getAttempts() + ", failures=" + this.getFailures() + ", copiedElements=" + this.getCopiedElements() + "}"; // Cannot use StringUtil!
+	}
+
+}
@@ -0,0 +1,578 @@
+package net.netcoding.nifty.core.util.concurrent.blocking;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An optionally bounded blocking deque guarded by a fair lock.
+ * <p>
+ * All access goes through a fair {@link ReentrantLock}, so threads acquire
+ * the lock in the order they requested it. This is not strict FIFO handoff
+ * though, a woken waiter queues for the lock again and a thread already
+ * queued for it may take the element first. Waiting threads are parked and
+ * woken as soon as an element or free space becomes available, rather than
+ * sleeping and retrying.
+ * <p>
+ * Iteration happens over a snapshot of the elements taken at creation.
+ *
+ * @param <E> type of elements
+ */
+public class FairBlockingDeque<E> extends AbstractQueue<E> implements BlockingDeque<E> {
+
+	private final ArrayDeque<E> storage = new ArrayDeque<>();
+	private final ReentrantLock lock = new ReentrantLock(true);
+	private final Condition notEmpty = this.lock.newCondition();
+	private final Condition notFull = this.lock.newCondition();
+	private final int capacity;
+
+	/**
+	 * Create a new unbounded deque.
+	 */
+	public FairBlockingDeque() {
+		this(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Create a new bounded deque.
+	 *
+	 * @param capacity Maximum number of elements.
+	 */
+	public FairBlockingDeque(int capacity) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("Capacity must be positive!");
+
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Create a new unbounded deque and fill it with the given collection.
+	 *
+	 * @param collection Elements to fill the deque with.
+	 */
+	public FairBlockingDeque(Collection<? extends E> collection) {
+		this();
+		this.addAll(collection);
+	}
+
+	@Override
+	public void addFirst(E element) {
+		if (!this.offerFirst(element))
+			throw new IllegalStateException("Deque full");
+	}
+
+	@Override
+	public void addLast(E element) {
+		if (!this.offerLast(element))
+			throw new IllegalStateException("Deque full");
+	}
+
+	@Override
+	public void clear() {
+		this.lock.lock();
+
+		try {
+			this.storage.clear();
+			this.notFull.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean contains(Object obj) {
+		this.lock.lock();
+
+		try {
+			return this.storage.contains(obj);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public Iterator<E> descendingIterator() {
+		Object[] snapshot = this.toArray();
+
+		for (int i = 0, j = snapshot.length - 1; i < j; i++, j--) {
+			Object temp = snapshot[i];
+			snapshot[i] = snapshot[j];
+			snapshot[j] = temp;
+		}
+
+		return new SnapshotIterator(snapshot);
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> collection) {
+		return this.drainTo(collection, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> collection, int maxElements) {
+		Objects.requireNonNull(collection);
+
+		if (collection == this)
+			throw new IllegalArgumentException("Cannot drain a deque into itself!");
+
+		this.lock.lock();
+
+		try {
+			int count = 0;
+
+			while (count < maxElements && !this.storage.isEmpty()) {
+				collection.add(this.storage.pollFirst());
+				count++;
+			}
+
+			if (count > 0)
+				this.notFull.signalAll();
+
+			return count;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public E element() {
+		return this.getFirst();
+	}
+
+	@Override
+	public E getFirst() {
+		E element = this.peekFirst();
+
+		if (element == null)
+			throw new NoSuchElementException();
+
+		return element;
+	}
+
+	@Override
+	public E getLast() {
+		E element = this.peekLast();
+
+		if (element == null)
+			throw new NoSuchElementException();
+
+		return element;
+	}
+
+	private boolean insert(E element, boolean first) {
+		if (this.storage.size() >= this.capacity)
+			return false;
+
+		if (first)
+			this.storage.addFirst(element);
+		else
+			this.storage.addLast(element);
+
+		this.notEmpty.signal();
+		return true;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new SnapshotIterator(this.toArray());
+	}
+
+	@Override
+	public boolean offer(E element) {
+		return this.offerLast(element);
+	}
+
+	@Override
+	public boolean offer(E element, long timeout, TimeUnit unit) throws InterruptedException {
+		return this.offerLast(element, timeout, unit);
+	}
+
+	@Override
+	public boolean offerFirst(E element) {
+		Objects.requireNonNull(element);
+		this.lock.lock();
+
+		try {
+			return this.insert(element, true);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean offerFirst(E element, long timeout, TimeUnit unit) throws InterruptedException {
+		return this.offer(element, true, unit.toNanos(timeout));
+	}
+
+	@Override
+	public boolean offerLast(E element) {
+		Objects.requireNonNull(element);
+		this.lock.lock();
+
+		try {
+			return this.insert(element, false);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean offerLast(E element, long timeout, TimeUnit unit) throws InterruptedException {
+		return this.offer(element, false, unit.toNanos(timeout));
+	}
+
+	private boolean offer(E element, boolean first, long nanos) throws InterruptedException {
+		Objects.requireNonNull(element);
+		this.lock.lockInterruptibly();
+
+		try {
+			while (!this.insert(element, first)) {
+				if (nanos <= 0)
+					return false;
+
+				nanos = this.notFull.awaitNanos(nanos);
+			}
+
+			return true;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public E peek() {
+		return this.peekFirst();
+	}
+
+	@Override
+	public E peekFirst() {
+		this.lock.lock();
+
+		try {
+			return this.storage.peekFirst();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public E peekLast() {
+		this.lock.lock();
+
+		try {
+			return this.storage.peekLast();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public E poll() {
+		return this.pollFirst();
+	}
+
+	@Override
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.pollFirst(timeout, unit);
+	}
+
+	@Override
+	public E pollFirst() {
+		this.lock.lock();
+
+		try {
+			return this.extract(true);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public E pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.poll(true, unit.toNanos(timeout));
+	}
+
+	@Override
+	public E pollLast() {
+		this.lock.lock();
+
+		try {
+			return this.extract(false);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public E pollLast(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.poll(false, unit.toNanos(timeout));
+	}
+
+	private E poll(boolean first, long nanos) throws InterruptedException {
+		this.lock.lockInterruptibly();
+
+		try {
+			E element;
+
+			while ((element = this.extract(first)) == null) {
+				if (nanos <= 0)
+					return null;
+
+				nanos = this.notEmpty.awaitNanos(nanos);
+			}
+
+			return element;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public E pop() {
+		return this.removeFirst();
+	}
+
+	@Override
+	public void push(E element) {
+		this.addFirst(element);
+	}
+
+	@Override
+	public void put(E element) throws InterruptedException {
+		this.putLast(element);
+	}
+
+	@Override
+	public void putFirst(E element) throws InterruptedException {
+		this.put(element, true);
+	}
+
+	@Override
+	public void putLast(E element) throws InterruptedException {
+		this.put(element, false);
+	}
+
+	private void put(E element, boolean first) throws InterruptedException {
+		Objects.requireNonNull(element);
+		this.lock.lockInterruptibly();
+
+		try {
+			while (!this.insert(element, first))
+				this.notFull.await();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public int remainingCapacity() {
+		this.lock.lock();
+
+		try {
+			return this.capacity - this.storage.size();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public E remove() {
+		return this.removeFirst();
+	}
+
+	@Override
+	public boolean remove(Object obj) {
+		return this.removeFirstOccurrence(obj);
+	}
+
+	private E extract(boolean first) {
+		E element = first ? this.storage.pollFirst() : this.storage.pollLast();
+
+		if (element != null)
+			this.notFull.signal();
+
+		return element;
+	}
+
+	@Override
+	public E removeFirst() {
+		E element = this.pollFirst();
+
+		if (element == null)
+			throw new NoSuchElementException();
+
+		return element;
+	}
+
+	@Override
+	public boolean removeFirstOccurrence(Object obj) {
+		this.lock.lock();
+
+		try {
+			return this.signalIfRemoved(this.storage.removeFirstOccurrence(obj));
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	private boolean removeIdentical(Object obj) {
+		this.lock.lock();
+
+		try {
+			Iterator<E> iterator = this.storage.iterator();
+
+			while (iterator.hasNext()) {
+				if (iterator.next() == obj) {
+					iterator.remove();
+					return this.signalIfRemoved(true);
+				}
+			}
+
+			return false;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public E removeLast() {
+		E element = this.pollLast();
+
+		if (element == null)
+			throw new NoSuchElementException();
+
+		return element;
+	}
+
+	@Override
+	public boolean removeLastOccurrence(Object obj) {
+		this.lock.lock();
+
+		try {
+			return this.signalIfRemoved(this.storage.removeLastOccurrence(obj));
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	private boolean signalIfRemoved(boolean removed) {
+		if (removed)
+			this.notFull.signal();
+
+		return removed;
+	}
+
+	@Override
+	public int size() {
+		this.lock.lock();
+
+		try {
+			return this.storage.size();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		return this.takeFirst();
+	}
+
+	@Override
+	public E takeFirst() throws InterruptedException {
+		return this.take(true);
+	}
+
+	@Override
+	public E takeLast() throws InterruptedException {
+		return this.take(false);
+	}
+
+	private E take(boolean first) throws InterruptedException {
+		this.lock.lockInterruptibly();
+
+		try {
+			E element;
+
+			while ((element = this.extract(first)) == null)
+				this.notEmpty.await();
+
+			return element;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public Object[] toArray() {
+		this.lock.lock();
+
+		try {
+			return this.storage.toArray();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	@SuppressWarnings("SuspiciousToArrayCall")
+	public <T> T[] toArray(T[] array) {
+		this.lock.lock();
+
+		try {
+			return this.storage.toArray(array);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(this.toArray());
+	}
+
+	private final class SnapshotIterator implements Iterator<E> {
+
+		private final Object[] snapshot;
+		private int cursor = 0;
+		private int last = -1;
+
+		SnapshotIterator(Object[] snapshot) {
+			this.snapshot = snapshot;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.cursor < this.snapshot.length;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() {
+			if (!this.hasNext())
+				throw new NoSuchElementException();
+
+			this.last = this.cursor;
+			return (E)this.snapshot[this.cursor++];
+		}
+
+		@Override
+		public void remove() {
+			if (this.last == -1)
+				throw new IllegalStateException();
+
+			FairBlockingDeque.this.removeIdentical(this.snapshot[this.last]);
+			this.last = -1;
+		}
+
+	}
+
+}
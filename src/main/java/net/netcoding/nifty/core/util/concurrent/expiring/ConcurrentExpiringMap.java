@@ -0,0 +1,526 @@
+package net.netcoding.nifty.core.util.concurrent.expiring;
+
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent map whose entries expire a fixed time after they were written.
+ * <p>
+ * Every entry is scheduled on a hierarchical {@link TimerWheel}, so expiring
+ * it costs amortized O(1) and the map is never scanned. The wheel is advanced
+ * about once a second by a shared daemon thread, which removes due entries,
+ * notifies the optional {@link ExpiryListener} and refreshes entries through
+ * the optional {@link Refresher}. Lookups never clean up, they only treat
+ * entries past their expiry time as absent.
+ * <p>
+ * Removal and refreshing are only as precise as the finest level of the
+ * wheel, so an entry may linger in {@link #size()} for up to a second past
+ * its expiry time.
+ * <p>
+ * Listeners and refreshers run on the shared thread and should hand off
+ * anything slow. The map only holds itself weakly from that thread, so it
+ * stops being advanced once it is no longer used.
+ * <p>
+ * Null keys and values are not permitted. Iteration happens over a snapshot
+ * of the entries that had not expired at creation.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public class ConcurrentExpiringMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
+
+	private static final long TICK_MILLIS = 1000;
+	private static final ScheduledExecutorService EXPIRER;
+	private final ConcurrentHashMap<K, TimerWheel.Node<K, V>> data = new ConcurrentHashMap<>();
+	private final ReentrantLock lock = new ReentrantLock();
+	private final TimerWheel<K, V> wheel;
+	private final long expireAfterWrite;
+	private final long refreshAfterWrite;
+	private final ExpiryListener<? super K, ? super V> listener;
+	private final Refresher<K, V> refresher;
+	private transient Set<Entry<K, V>> entrySet;
+
+	static {
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, task -> {
+			Thread thread = new Thread(task, "ConcurrentExpiringMap Expirer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.setRemoveOnCancelPolicy(true);
+		EXPIRER = executor;
+	}
+
+	/**
+	 * Create a new expiring map.
+	 *
+	 * @param duration Time entries live after being written.
+	 * @param unit Unit of the duration.
+	 */
+	public ConcurrentExpiringMap(long duration, TimeUnit unit) {
+		this(new Builder<K, V>().expireAfterWrite(duration, unit));
+	}
+
+	/**
+	 * Create a new expiring map from the given builder.
+	 *
+	 * @param builder Builder holding the settings.
+	 */
+	protected ConcurrentExpiringMap(Builder<K, V> builder) {
+		if (builder.expireAfterWrite <= 0)
+			throw new IllegalArgumentException("Expiry time must be positive!");
+
+		this.expireAfterWrite = builder.expireAfterWrite;
+		this.refreshAfterWrite = builder.refresher != null ? builder.refreshAfterWrite : 0;
+		this.listener = builder.listener;
+		this.refresher = builder.refresher;
+		this.wheel = new TimerWheel<>(System.nanoTime());
+		Sweeper<K, V> sweeper = new Sweeper<>(this);
+		sweeper.future = EXPIRER.scheduleWithFixedDelay(sweeper, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Removes all expired entries and refreshes all entries due for a refresh
+	 * now, instead of waiting for the shared thread.
+	 */
+	public final void cleanUp() {
+		List<TimerWheel.Node<K, V>> due = new ArrayList<>();
+		long now = System.nanoTime();
+		this.lock.lock();
+
+		try {
+			this.wheel.advance(now, due::add);
+		} finally {
+			this.lock.unlock();
+		}
+
+		RuntimeException failure = null;
+
+		for (TimerWheel.Node<K, V> node : due) {
+			try {
+				if (node.hasExpired(now)) {
+					if (this.data.remove(node.key, node))
+						this.notifyExpired(node);
+				} else
+					this.refresh(node);
+			} catch (RuntimeException ex) {
+				// Keep handling the remaining entries, they are no longer scheduled
+				if (failure == null)
+					failure = ex;
+				else
+					failure.addSuppressed(ex);
+			}
+		}
+
+		if (failure != null)
+			throw failure;
+	}
+
+	@Override
+	public final void clear() {
+		this.lock.lock();
+
+		try {
+			this.data.clear();
+			this.wheel.clear();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public final boolean containsKey(Object key) {
+		return this.getNode(key) != null;
+	}
+
+	@Override
+	public final boolean containsValue(Object value) {
+		long now = System.nanoTime();
+
+		for (TimerWheel.Node<K, V> node : this.data.values()) {
+			if (!node.hasExpired(now) && node.value.equals(value))
+				return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public final Set<Entry<K, V>> entrySet() {
+		return this.entrySet != null ? this.entrySet : (this.entrySet = new EntrySet());
+	}
+
+	@Override
+	public final V get(Object key) {
+		TimerWheel.Node<K, V> node = this.getNode(key);
+		return node != null ? node.value : null;
+	}
+
+	/**
+	 * Gets the time entries live after being written.
+	 *
+	 * @param unit Unit to return the time in.
+	 * @return Time to live.
+	 */
+	public final long getExpireAfterWrite(TimeUnit unit) {
+		return unit.convert(this.expireAfterWrite, TimeUnit.NANOSECONDS);
+	}
+
+	private TimerWheel.Node<K, V> getNode(Object key) {
+		TimerWheel.Node<K, V> node = this.data.get(key);
+		return node != null && !node.hasExpired(System.nanoTime()) ? node : null;
+	}
+
+	@Override
+	public final V getOrDefault(Object key, V defaultValue) {
+		V value = this.get(key);
+		return value != null ? value : defaultValue;
+	}
+
+	private TimerWheel.Node<K, V> newNode(K key, V value) {
+		Objects.requireNonNull(key);
+		Objects.requireNonNull(value);
+		long now = System.nanoTime();
+		long expireTime = now + this.expireAfterWrite;
+		return new TimerWheel.Node<>(key, value, now, expireTime, this.refreshAfterWrite > 0 ? now + this.refreshAfterWrite : expireTime);
+	}
+
+	private void notifyExpired(TimerWheel.Node<K, V> node) {
+		if (this.listener != null)
+			this.listener.onExpire(node.key, node.value);
+	}
+
+	@Override
+	public final V put(K key, V value) {
+		TimerWheel.Node<K, V> node = this.newNode(key, value);
+		TimerWheel.Node<K, V> old = this.data.put(key, node);
+		this.schedule(node, old);
+		return this.valueOf(old, node.writeTime);
+	}
+
+	@Override
+	public final V putIfAbsent(K key, V value) {
+		TimerWheel.Node<K, V> node = this.newNode(key, value);
+
+		while (true) {
+			TimerWheel.Node<K, V> old = this.data.putIfAbsent(key, node);
+
+			if (old == null) {
+				this.schedule(node, null);
+				return null;
+			} else if (!old.hasExpired(node.writeTime))
+				return old.value;
+			else if (this.data.replace(key, old, node)) {
+				this.schedule(node, old);
+				return null;
+			}
+		}
+	}
+
+	private void refresh(TimerWheel.Node<K, V> node) {
+		V value = this.refresher.refresh(node.key, node.value);
+
+		if (value == null) {
+			// Let it expire at its original time
+			this.lock.lock();
+
+			try {
+				if (this.data.get(node.key) == node) {
+					node.time = node.expireTime;
+					this.wheel.schedule(node);
+				}
+			} finally {
+				this.lock.unlock();
+			}
+
+			return;
+		}
+
+		TimerWheel.Node<K, V> refreshed = this.newNode(node.key, value);
+
+		if (this.data.replace(node.key, node, refreshed))
+			this.schedule(refreshed, null);
+	}
+
+	@Override
+	public final V remove(Object key) {
+		TimerWheel.Node<K, V> node = this.data.remove(key);
+		this.unschedule(node);
+		return this.valueOf(node, System.nanoTime());
+	}
+
+	@Override
+	public final boolean remove(Object key, Object value) {
+		TimerWheel.Node<K, V> node = this.getNode(key);
+
+		if (node == null || !node.value.equals(value) || !this.data.remove(key, node))
+			return false;
+
+		this.unschedule(node);
+		return true;
+	}
+
+	@Override
+	public final V replace(K key, V value) {
+		TimerWheel.Node<K, V> node = this.newNode(key, value);
+
+		while (true) {
+			TimerWheel.Node<K, V> old = this.data.get(key);
+
+			if (old == null || old.hasExpired(node.writeTime))
+				return null;
+
+			if (this.data.replace(key, old, node)) {
+				this.schedule(node, old);
+				return old.value;
+			}
+		}
+	}
+
+	@Override
+	public final boolean replace(K key, V oldValue, V newValue) {
+		TimerWheel.Node<K, V> node = this.newNode(key, newValue);
+		TimerWheel.Node<K, V> old = this.getNode(key);
+
+		if (old == null || !old.value.equals(oldValue) || !this.data.replace(key, old, node))
+			return false;
+
+		this.schedule(node, old);
+		return true;
+	}
+
+	/**
+	 * Schedules a node that was just stored, replacing the given old node.
+	 * <p>
+	 * Nodes already replaced again by another thread are not scheduled.
+	 */
+	private void schedule(TimerWheel.Node<K, V> node, TimerWheel.Node<K, V> old) {
+		this.lock.lock();
+
+		try {
+			if (old != null)
+				TimerWheel.unschedule(old);
+
+			if (this.data.get(node.key) == node)
+				this.wheel.schedule(node);
+		} finally {
+			this.lock.unlock();
+		}
+
+		if (old != null && old.hasExpired(node.writeTime))
+			this.notifyExpired(old);
+	}
+
+	/**
+	 * Gets the number of entries, including expired entries not removed yet.
+	 *
+	 * @return Number of entries.
+	 */
+	@Override
+	public final int size() {
+		return this.data.size();
+	}
+
+	private void unschedule(TimerWheel.Node<K, V> node) {
+		if (node != null) {
+			this.lock.lock();
+
+			try {
+				TimerWheel.unschedule(node);
+			} finally {
+				this.lock.unlock();
+			}
+		}
+	}
+
+	private V valueOf(TimerWheel.Node<K, V> node, long now) {
+		return node != null && !node.hasExpired(now) ? node.value : null;
+	}
+
+	public static final class Builder<K, V> {
+
+		private long expireAfterWrite;
+		private long refreshAfterWrite;
+		private ExpiryListener<? super K, ? super V> listener;
+		private Refresher<K, V> refresher;
+
+		/**
+		 * Sets the time entries live after being written.
+		 *
+		 * @param duration Time to live.
+		 * @param unit Unit of the duration.
+		 * @return This builder.
+		 */
+		public Builder<K, V> expireAfterWrite(long duration, TimeUnit unit) {
+			this.expireAfterWrite = unit.toNanos(duration);
+			return this;
+		}
+
+		/**
+		 * Sets the listener notified of expired entries.
+		 *
+		 * @param listener Listener to notify.
+		 * @return This builder.
+		 */
+		public Builder<K, V> listener(ExpiryListener<? super K, ? super V> listener) {
+			this.listener = listener;
+			return this;
+		}
+
+		/**
+		 * Refreshes entries the given time after they were written, restarting
+		 * their time to live with the refreshed value.
+		 *
+		 * @param duration Time until refreshing.
+		 * @param unit Unit of the duration.
+		 * @param refresher Function computing the refreshed value.
+		 * @return This builder.
+		 */
+		public Builder<K, V> refreshAfterWrite(long duration, TimeUnit unit, Refresher<K, V> refresher) {
+			if (duration <= 0)
+				throw new IllegalArgumentException("Refresh time must be positive!");
+
+			this.refreshAfterWrite = unit.toNanos(duration);
+			this.refresher = Objects.requireNonNull(refresher);
+			return this;
+		}
+
+		/**
+		 * Creates a new map with the settings of this builder.
+		 *
+		 * @return New expiring map.
+		 */
+		public ConcurrentExpiringMap<K, V> build() {
+			return new ConcurrentExpiringMap<>(this);
+		}
+
+	}
+
+	private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+		@Override
+		public void clear() {
+			ConcurrentExpiringMap.this.clear();
+		}
+
+		@Override
+		public boolean contains(Object obj) {
+			if (!(obj instanceof Entry))
+				return false;
+
+			Entry<?, ?> entry = (Entry<?, ?>)obj;
+			V value = ConcurrentExpiringMap.this.get(entry.getKey());
+			return value != null && value.equals(entry.getValue());
+		}
+
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return new SnapshotIterator();
+		}
+
+		@Override
+		public boolean remove(Object obj) {
+			if (!(obj instanceof Entry))
+				return false;
+
+			Entry<?, ?> entry = (Entry<?, ?>)obj;
+			return ConcurrentExpiringMap.this.remove(entry.getKey(), entry.getValue());
+		}
+
+		@Override
+		public int size() {
+			return ConcurrentExpiringMap.this.size();
+		}
+
+	}
+
+	private final class SnapshotIterator implements Iterator<Entry<K, V>> {
+
+		private final Iterator<Entry<K, V>> snapshot;
+		private Entry<K, V> last;
+
+		SnapshotIterator() {
+			List<Entry<K, V>> entries = new ArrayList<>();
+			long now = System.nanoTime();
+
+			for (TimerWheel.Node<K, V> node : ConcurrentExpiringMap.this.data.values()) {
+				if (!node.hasExpired(now))
+					entries.add(new SimpleImmutableEntry<>(node.key, node.value));
+			}
+
+			this.snapshot = entries.iterator();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.snapshot.hasNext();
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			if (!this.hasNext())
+				throw new NoSuchElementException();
+
+			return this.last = this.snapshot.next();
+		}
+
+		@Override
+		public void remove() {
+			if (this.last == null)
+				throw new IllegalStateException();
+
+			ConcurrentExpiringMap.this.remove(this.last.getKey(), this.last.getValue());
+			this.last = null;
+		}
+
+	}
+
+	/**
+	 * Advances the wheel of a map from the shared thread, holding the map
+	 * weakly and cancelling itself once the map is gone.
+	 */
+	private static final class Sweeper<K, V> implements Runnable {
+
+		private final WeakReference<ConcurrentExpiringMap<K, V>> map;
+		private volatile ScheduledFuture<?> future;
+
+		Sweeper(ConcurrentExpiringMap<K, V> map) {
+			this.map = new WeakReference<>(map);
+		}
+
+		@Override
+		public void run() {
+			ConcurrentExpiringMap<K, V> map = this.map.get();
+
+			if (map == null) {
+				ScheduledFuture<?> future = this.future;
+
+				if (future != null)
+					future.cancel(false);
+
+				return;
+			}
+
+			try {
+				map.cleanUp();
+			} catch (RuntimeException ignore) {
+				// A failing listener must not stop the map from expiring
+			}
+		}
+
+	}
+
+}
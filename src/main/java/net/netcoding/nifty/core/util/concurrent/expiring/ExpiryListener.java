@@ -0,0 +1,14 @@
+package net.netcoding.nifty.core.util.concurrent.expiring;
+
+/**
+ * Notified when an entry of a {@link ConcurrentExpiringMap} expires.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+@FunctionalInterface
+public interface ExpiryListener<K, V> {
+
+	void onExpire(K key, V value);
+
+}
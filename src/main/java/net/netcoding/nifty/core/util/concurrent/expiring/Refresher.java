@@ -0,0 +1,22 @@
+package net.netcoding.nifty.core.util.concurrent.expiring;
+
+/**
+ * Computes a new value for an entry of a {@link ConcurrentExpiringMap} that
+ * is due for a refresh.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+@FunctionalInterface
+public interface Refresher<K, V> {
+
+	/**
+	 * Computes the new value of the given entry.
+	 *
+	 * @param key Key of the entry.
+	 * @param value Current value of the entry.
+	 * @return New value, or null to let the entry expire.
+	 */
+	V refresh(K key, V value);
+
+}
@@ -0,0 +1,188 @@
+package net.netcoding.nifty.core.util.concurrent.expiring;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timer wheel scheduling entries by the time they are due.
+ * <p>
+ * Each level of the wheel is an array of buckets covering a span of time that
+ * grows with every level, roughly a second, a minute, an hour, a day and a
+ * few days. Scheduling, rescheduling and unscheduling an entry is O(1), while
+ * advancing the wheel only visits the buckets whose time has passed, moving
+ * entries not yet due down to a finer level.
+ * <p>
+ * This wheel is not thread-safe and is guarded by its owning map.
+ */
+final class TimerWheel<K, V> {
+
+	private static final int[] BUCKETS = { 64, 64, 32, 4, 1 };
+	private static final long[] SPANS = {
+			1L << 30, // 1.07s
+			1L << 36, // 1.14m
+			1L << 42, // 1.22h
+			1L << 46, // 19.5h
+			1L << 48, // 3.26d
+			1L << 48
+	};
+	private static final long[] SHIFT = {
+			Long.numberOfTrailingZeros(SPANS[0]),
+			Long.numberOfTrailingZeros(SPANS[1]),
+			Long.numberOfTrailingZeros(SPANS[2]),
+			Long.numberOfTrailingZeros(SPANS[3]),
+			Long.numberOfTrailingZeros(SPANS[4])
+	};
+	private final Node<K, V>[][] wheel;
+	private long nanos;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	TimerWheel(long nanos) {
+		this.nanos = nanos;
+		this.wheel = new Node[BUCKETS.length][];
+
+		for (int i = 0; i < this.wheel.length; i++) {
+			this.wheel[i] = new Node[BUCKETS[i]];
+
+			for (int j = 0; j < this.wheel[i].length; j++)
+				this.wheel[i][j] = new Node<>();
+		}
+	}
+
+	/**
+	 * Advances the wheel to the given time, passing every entry that is due.
+	 * Entries are unscheduled before they are passed.
+	 *
+	 * @param nanos Current time.
+	 * @param due Receiver of the entries that are due.
+	 */
+	void advance(long nanos, Consumer<Node<K, V>> due) {
+		long previous = this.nanos;
+		this.nanos = nanos;
+
+		for (int i = 0; i < SHIFT.length; i++) {
+			long previousTicks = previous >>> SHIFT[i];
+			long currentTicks = nanos >>> SHIFT[i];
+
+			if (currentTicks - previousTicks <= 0)
+				break;
+
+			this.expire(i, previousTicks, currentTicks, due);
+		}
+	}
+
+	void clear() {
+		for (Node<K, V>[] buckets : this.wheel) {
+			for (Node<K, V> sentinel : buckets) {
+				while (sentinel.next != sentinel)
+					unschedule(sentinel.next);
+			}
+		}
+	}
+
+	private void expire(int level, long previousTicks, long currentTicks, Consumer<Node<K, V>> due) {
+		Node<K, V>[] buckets = this.wheel[level];
+		int mask = buckets.length - 1;
+		int steps = (int)Math.min(1 + (currentTicks - previousTicks), buckets.length);
+		int start = (int)(previousTicks & mask);
+
+		for (int i = start; i < start + steps; i++) {
+			Node<K, V> sentinel = buckets[i & mask];
+			Node<K, V> node = sentinel.next;
+			sentinel.prev = sentinel;
+			sentinel.next = sentinel;
+
+			while (node != sentinel) {
+				Node<K, V> next = node.next;
+				node.prev = null;
+				node.next = null;
+
+				if (node.time - this.nanos > 0)
+					this.schedule(node);
+				else
+					due.accept(node);
+
+				node = next;
+			}
+		}
+	}
+
+	private Node<K, V> findBucket(long time) {
+		long duration = time - this.nanos;
+		int length = this.wheel.length - 1;
+
+		for (int i = 0; i < length; i++) {
+			if (duration < SPANS[i + 1]) {
+				long ticks = time >>> SHIFT[i];
+				int index = (int)(ticks & (this.wheel[i].length - 1));
+				return this.wheel[i][index];
+			}
+		}
+
+		return this.wheel[length][0];
+	}
+
+	/**
+	 * Schedules the given entry at its {@link Node#time}.
+	 *
+	 * @param node Entry to schedule.
+	 */
+	void schedule(Node<K, V> node) {
+		Node<K, V> sentinel = this.findBucket(node.time);
+		node.prev = sentinel.prev;
+		node.next = sentinel;
+		sentinel.prev.next = node;
+		sentinel.prev = node;
+	}
+
+	/**
+	 * Removes the given entry from the wheel, if it is scheduled.
+	 *
+	 * @param node Entry to unschedule.
+	 */
+	static <K, V> void unschedule(Node<K, V> node) {
+		if (node.next != null) {
+			node.prev.next = node.next;
+			node.next.prev = node.prev;
+			node.prev = null;
+			node.next = null;
+		}
+	}
+
+	/**
+	 * An entry of an expiring map, linked into a bucket of the wheel while scheduled.
+	 */
+	static final class Node<K, V> {
+
+		final K key;
+		final V value;
+		final long writeTime;
+		final long expireTime;
+		final long refreshTime;
+		long time;
+		Node<K, V> prev;
+		Node<K, V> next;
+
+		/**
+		 * Creates a bucket sentinel.
+		 */
+		private Node() {
+			this(null, null, 0, 0, 0);
+			this.prev = this;
+			this.next = this;
+		}
+
+		Node(K key, V value, long writeTime, long expireTime, long refreshTime) {
+			this.key = key;
+			this.value = value;
+			this.writeTime = writeTime;
+			this.expireTime = expireTime;
+			this.refreshTime = refreshTime;
+			this.time = refreshTime - expireTime < 0 ? refreshTime : expireTime;
+		}
+
+		boolean hasExpired(long now) {
+			return now - this.expireTime >= 0;
+		}
+
+	}
+
+}
@@ -0,0 +1,91 @@
+package net.netcoding.nifty.core.util.concurrent.linked;
+
+/**
+ * Immutable snapshot of the statistics of a {@link ConcurrentLinkedMap}.
+ */
+public final class CacheStats {
+
+	private final long hitCount;
+	private final long missCount;
+	private final long evictionCount;
+	private final long evictionWeight;
+	private final long expirationCount;
+
+	CacheStats(long hitCount, long missCount, long evictionCount, long evictionWeight, long expirationCount) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.evictionWeight = evictionWeight;
+		this.expirationCount = expirationCount;
+	}
+
+	/**
+	 * Gets the number of entries removed to stay within the maximum weight.
+	 *
+	 * @return Number of evicted entries.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount;
+	}
+
+	/**
+	 * Gets the total weight of entries removed to stay within the maximum weight.
+	 *
+	 * @return Sum of the weight of evicted entries.
+	 */
+	public long getEvictionWeight() {
+		return this.evictionWeight;
+	}
+
+	/**
+	 * Gets the number of entries removed because they expired.
+	 *
+	 * @return Number of expired entries.
+	 */
+	public long getExpirationCount() {
+		return this.expirationCount;
+	}
+
+	/**
+	 * Gets the number of lookups that found a value.
+	 *
+	 * @return Number of hits.
+	 */
+	public long getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * Gets the ratio of lookups that found a value.
+	 *
+	 * @return Hit rate between 0 and 1, or 1 if nothing was looked up yet.
+	 */
+	public double getHitRate() {
+		long requests = this.getRequestCount();
+		return requests == 0 ? 1.0 : (double)this.hitCount / requests;
+	}
+
+	/**
+	 * Gets the number of lookups that found no value.
+	 *
+	 * @return Number of misses.
+	 */
+	public long getMissCount() {
+		return this.missCount;
+	}
+
+	/**
+	 * Gets the number of lookups.
+	 *
+	 * @return Number of hits and misses.
+	 */
+	public long getRequestCount() {
+		return this.hitCount + this.missCount;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats{hits=" + this.hitCount + ", misses=" + this.missCount + ", evictions=" + this.evictionCount + ", evictionWeight=" + this.evictionWeight + ", expirations=" + this.expirationCount + "}"; // Cannot use StringUtil!
+	}
+
+}
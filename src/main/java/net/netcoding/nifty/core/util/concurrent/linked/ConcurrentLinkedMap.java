@@ -1,86 +1,752 @@
 package net.netcoding.nifty.core.util.concurrent.linked;
 
-import net.netcoding.nifty.core.util.concurrent.atomic.AtomicMap;
-
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 /**
- * A concurrent map that allows for simultaneously fast reading, iteration and
- * modification utilizing {@link AtomicReference}.
+ * A concurrent linked map that can be bounded by size or weight and expire its
+ * entries, allowing it to be used as a cache.
+ * <p>
+ * Lookups read from a {@link ConcurrentHashMap} without locking, while the order
+ * of the entries is kept in a linked list that is only modified under a lock.
+ * Unbounded maps keep insertion order, bounded maps keep access order and evict
+ * the least recently used entries in O(1) once the maximum weight is exceeded.
  * <p>
- * The AtomicReference changes the methods that modify the map by replacing the
- * entire map each modification. This allows for maintaining the original speed
- * of {@link HashMap#containsKey(Object)} and {@link HashMap#containsValue(Object)} and makes it cross-thread-safe.
+ * Moving an entry to the back on lookup is skipped while another thread holds
+ * the lock, so under heavy load eviction approximates LRU instead of blocking
+ * readers. Iteration happens over a snapshot of the entries in their current order.
+ * <p>
+ * Unlike the other concurrent maps this is not an {@code AtomicMap}, as writes
+ * take a lock instead of publishing a copy of the map, so it has no
+ * {@code compute}, {@code mutate} or contention counters.
  *
  * @param <K> type of keys
  * @param <V> type of values
  */
-public class ConcurrentLinkedMap<K, V> extends AtomicMap<K, V, ConcurrentLinkedMap.MaxSizeLinkedMap<K, V>> {
+public class ConcurrentLinkedMap<K, V> extends AbstractMap<K, V> implements Iterable<Map.Entry<K, V>>, Map<K, V> {
+
+	private static final long UNBOUNDED = -1;
+	private static final Object NULL_KEY = new Object();
+	private static final Weigher<Object, Object> SINGLETON_WEIGHER = (key, value) -> 1;
+	private final ConcurrentHashMap<Object, Node<K, V>> data = new ConcurrentHashMap<>();
+	private final ReentrantLock lock = new ReentrantLock();
+	private final long maximumWeight;
+	private final Weigher<? super K, ? super V> weigher;
+	private final boolean accessOrder;
+	private final long expireAfterWrite;
+	private final long expireAfterAccess;
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+	private final LongAdder evictionWeight = new LongAdder();
+	private final LongAdder expirationCount = new LongAdder();
+	private Node<K, V> head;
+	private Node<K, V> tail;
+	private Node<K, V> writeHead;
+	private Node<K, V> writeTail;
+	private long weight;
+	private transient Set<Entry<K, V>> entrySet;
 
 	/**
-	 * Create a new concurrent map.
+	 * Create a new unbounded concurrent map.
 	 */
 	public ConcurrentLinkedMap() {
-		super(new MaxSizeLinkedMap<>());
+		this(-1);
 	}
 
 	/**
 	 * Create a new concurrent map.
 	 *
-	 * @param maxSize The maximum number of entries allowed in the map.
+	 * @param maxSize The maximum number of entries allowed in the map, or -1 for no limit.
 	 */
 	public ConcurrentLinkedMap(int maxSize) {
-		super(new MaxSizeLinkedMap<>(maxSize));
+		this(new Builder<K, V>().maximumSize(maxSize));
 	}
 
 	/**
-	 * Create a new concurrent map and fill it with the given map.
+	 * Create a new unbounded concurrent map and fill it with the given map.
 	 *
 	 * @param map Map to fill the new map with.
 	 */
 	public ConcurrentLinkedMap(Map<? extends K, ? extends V> map) {
-		super(new MaxSizeLinkedMap<>(map));
+		this(map, -1);
 	}
 
 	/**
 	 * Create a new concurrent map and fill it with the given map.
 	 *
 	 * @param map Map to fill the new map with.
-	 * @param maxSize The maximum number of entries allowed in the map.
+	 * @param maxSize The maximum number of entries allowed in the map, or -1 for no limit.
 	 */
 	public ConcurrentLinkedMap(Map<? extends K, ? extends V> map, int maxSize) {
-		super(new MaxSizeLinkedMap<>(map, maxSize));
+		this(maxSize);
+		this.putAll(map);
+	}
+
+	/**
+	 * Create a new concurrent map using the settings of the given builder.
+	 *
+	 * @param builder Builder holding the settings.
+	 */
+	protected ConcurrentLinkedMap(Builder<K, V> builder) {
+		this.maximumWeight = builder.maximumWeight;
+		this.weigher = builder.weigher;
+		this.expireAfterWrite = builder.expireAfterWrite;
+		this.expireAfterAccess = builder.expireAfterAccess;
+		this.accessOrder = builder.expireAfterAccess != UNBOUNDED || (builder.accessOrder != null ? builder.accessOrder : builder.maximumWeight != UNBOUNDED);
+	}
+
+	/**
+	 * Removes all expired entries and evicts entries above the maximum weight.
+	 * <p>
+	 * This happens automatically on every write, calling it is only needed for
+	 * maps that expire entries but are rarely written to.
+	 */
+	public final void cleanUp() {
+		this.lock.lock();
+
+		try {
+			this.evict(this.now());
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public final void clear() {
+		this.lock.lock();
+
+		try {
+			for (Node<K, V> node = this.head; node != null; node = node.next)
+				node.alive = false;
+
+			this.data.clear();
+			this.head = this.tail = this.writeHead = this.writeTail = null;
+			this.weight = 0;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public final boolean containsKey(Object key) {
+		return this.getNode(key, false) != null;
+	}
+
+	@Override
+	public final boolean containsValue(Object value) {
+		long now = this.now();
+
+		for (Node<K, V> node : this.data.values()) {
+			if (!this.isExpired(node, now) && Objects.equals(node.value, value))
+				return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public final Set<Entry<K, V>> entrySet() {
+		return this.entrySet != null ? this.entrySet : (this.entrySet = new EntrySet());
+	}
+
+	private void evict(long now) {
+		if (this.expireAfterAccess != UNBOUNDED) {
+			while (this.head != null && this.isExpired(this.head, now))
+				this.expire(this.head);
+		}
+
+		if (this.expireAfterWrite != UNBOUNDED) {
+			while (this.writeHead != null && this.isExpired(this.writeHead, now))
+				this.expire(this.writeHead);
+		}
+
+		if (this.maximumWeight != UNBOUNDED) {
+			while (this.weight > this.maximumWeight && this.head != null) {
+				Node<K, V> node = this.head;
+				this.removeNode(node);
+				this.evictionCount.increment();
+				this.evictionWeight.add(node.weight);
+			}
+		}
+	}
+
+	private void expire(Node<K, V> node) {
+		this.removeNode(node);
+		this.expirationCount.increment();
+	}
+
+	@Override
+	public final V get(Object key) {
+		Node<K, V> node = this.getNode(key, true);
+		return node != null ? node.value : null;
+	}
+
+	/**
+	 * Gets the maximum total weight of all entries.
+	 *
+	 * @return Maximum weight, or -1 if unbounded.
+	 */
+	public final long getMaximumWeight() {
+		return this.maximumWeight;
+	}
+
+	private Node<K, V> getNode(Object key, boolean access) {
+		Node<K, V> node = this.data.get(mask(key));
+
+		if (node == null) {
+			if (access)
+				this.missCount.increment();
+
+			return null;
+		}
+
+		long now = this.now();
+
+		if (this.isExpired(node, now)) {
+			if (access)
+				this.missCount.increment();
+
+			if (this.lock.tryLock()) {
+				try {
+					if (node.alive && this.isExpired(node, now))
+						this.expire(node);
+				} finally {
+					this.lock.unlock();
+				}
+			}
+
+			return null;
+		}
+
+		if (access) {
+			this.hitCount.increment();
+
+			if (this.expireAfterAccess != UNBOUNDED)
+				node.accessTime = now;
+
+			if (this.accessOrder && this.lock.tryLock()) {
+				try {
+					if (node.alive)
+						this.moveToTail(node);
+				} finally {
+					this.lock.unlock();
+				}
+			}
+		}
+
+		return node;
+	}
+
+	@Override
+	public final V getOrDefault(Object key, V defaultValue) {
+		Node<K, V> node = this.getNode(key, true);
+		return node != null ? node.value : defaultValue;
+	}
+
+	/**
+	 * Gets a snapshot of the hit, miss and eviction statistics of this map.
+	 *
+	 * @return Current statistics.
+	 */
+	public final CacheStats getStats() {
+		return new CacheStats(this.hitCount.sum(), this.missCount.sum(), this.evictionCount.sum(), this.evictionWeight.sum(), this.expirationCount.sum());
+	}
+
+	/**
+	 * Gets if this map has no entries, counting entries that expired but
+	 * were not removed yet.
+	 *
+	 * @return True if there are no entries.
+	 * @see #cleanUp()
+	 */
+	@Override
+	public final boolean isEmpty() {
+		return this.data.isEmpty();
+	}
+
+	private boolean isExpired(Node<K, V> node, long now) {
+		if (this.expireAfterWrite != UNBOUNDED && now - node.writeTime >= this.expireAfterWrite)
+			return true;
+
+		return this.expireAfterAccess != UNBOUNDED && now - node.accessTime >= this.expireAfterAccess;
+	}
+
+	@Override
+	public final Iterator<Entry<K, V>> iterator() {
+		return this.entrySet().iterator();
+	}
+
+	private void linkLast(Node<K, V> node) {
+		node.prev = this.tail;
+		node.next = null;
+
+		if (this.tail == null)
+			this.head = node;
+		else
+			this.tail.next = node;
+
+		this.tail = node;
+	}
+
+	private void linkWriteLast(Node<K, V> node) {
+		node.writePrev = this.writeTail;
+		node.writeNext = null;
+
+		if (this.writeTail == null)
+			this.writeHead = node;
+		else
+			this.writeTail.writeNext = node;
+
+		this.writeTail = node;
+	}
+
+	private static Object mask(Object key) {
+		return key == null ? NULL_KEY : key;
+	}
+
+	private void moveToTail(Node<K, V> node) {
+		if (this.tail != node) {
+			this.unlink(node);
+			this.linkLast(node);
+		}
+	}
+
+	private long now() {
+		return this.expireAfterWrite != UNBOUNDED || this.expireAfterAccess != UNBOUNDED ? System.nanoTime() : 0;
+	}
+
+	public final Stream<Entry<K, V>> parallelStream() {
+		return this.entrySet().parallelStream();
+	}
+
+	@Override
+	public final V put(K key, V value) {
+		return this.put(key, value, false);
+	}
+
+	private V put(K key, V value, boolean onlyIfAbsent) {
+		int weight = this.weigh(key, value);
+		Object masked = mask(key);
+		long now = this.now();
+		this.lock.lock();
+
+		try {
+			Node<K, V> node = this.data.get(masked);
+
+			if (node != null && this.isExpired(node, now)) {
+				this.expire(node);
+				node = null;
+			}
+
+			if (node == null) {
+				node = new Node<>(key, value, weight, now);
+				this.data.put(masked, node);
+				this.linkLast(node);
+
+				if (this.expireAfterWrite != UNBOUNDED)
+					this.linkWriteLast(node);
+
+				this.weight += weight;
+				this.evict(now);
+				return null;
+			}
+
+			V old = node.value;
+
+			if (!onlyIfAbsent || old == null)
+				this.update(node, value, weight, now);
+
+			return old;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public final void putAll(Map<? extends K, ? extends V> map) {
+		map.forEach(this::put);
 	}
 
-	protected static final class MaxSizeLinkedMap<K, V> extends LinkedHashMap<K, V> {
+	@Override
+	public final V putIfAbsent(K key, V value) {
+		return this.put(key, value, true);
+	}
+
+	@Override
+	public final V remove(Object key) {
+		Object masked = mask(key);
+
+		if (!this.data.containsKey(masked))
+			return null;
+
+		long now = this.now();
+		this.lock.lock();
+
+		try {
+			Node<K, V> node = this.data.get(masked);
+
+			if (node == null)
+				return null;
+
+			this.removeNode(node);
+			return this.isExpired(node, now) ? null : node.value;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public final boolean remove(Object key, Object value) {
+		long now = this.now();
+		this.lock.lock();
+
+		try {
+			Node<K, V> node = this.data.get(mask(key));
+
+			if (node == null || this.isExpired(node, now) || !Objects.equals(node.value, value))
+				return false;
+
+			this.removeNode(node);
+			return true;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void removeNode(Node<K, V> node) {
+		this.data.remove(mask(node.key), node);
+		this.unlink(node);
+
+		if (this.expireAfterWrite != UNBOUNDED)
+			this.unlinkWrite(node);
+
+		this.weight -= node.weight;
+		node.alive = false;
+	}
+
+	@Override
+	public final V replace(K key, V value) {
+		int weight = this.weigh(key, value);
+		long now = this.now();
+		this.lock.lock();
+
+		try {
+			Node<K, V> node = this.data.get(mask(key));
 
-		private final int maxSize;
+			if (node == null || this.isExpired(node, now))
+				return null;
 
-		public MaxSizeLinkedMap() {
-			this(-1);
+			V old = node.value;
+			this.update(node, value, weight, now);
+			return old;
+		} finally {
+			this.lock.unlock();
 		}
+	}
+
+	@Override
+	public final boolean replace(K key, V oldValue, V newValue) {
+		int weight = this.weigh(key, newValue);
+		long now = this.now();
+		this.lock.lock();
+
+		try {
+			Node<K, V> node = this.data.get(mask(key));
+
+			if (node == null || this.isExpired(node, now) || !Objects.equals(node.value, oldValue))
+				return false;
 
-		public MaxSizeLinkedMap(int maxSize) {
-			this.maxSize = -1;
+			this.update(node, newValue, weight, now);
+			return true;
+		} finally {
+			this.lock.unlock();
 		}
+	}
+
+	/**
+	 * Gets the number of entries in this map, including entries that expired
+	 * but were not removed yet. These are removed on the next write, or by
+	 * calling {@link #cleanUp()} first.
+	 *
+	 * @return Number of entries.
+	 */
+	@Override
+	public final int size() {
+		return this.data.size();
+	}
+
+	public final Stream<Entry<K, V>> stream() {
+		return this.entrySet().stream();
+	}
+
+	private void unlink(Node<K, V> node) {
+		Node<K, V> prev = node.prev;
+		Node<K, V> next = node.next;
+
+		if (prev == null)
+			this.head = next;
+		else
+			prev.next = next;
+
+		if (next == null)
+			this.tail = prev;
+		else
+			next.prev = prev;
+
+		node.prev = node.next = null;
+	}
+
+	private void unlinkWrite(Node<K, V> node) {
+		Node<K, V> prev = node.writePrev;
+		Node<K, V> next = node.writeNext;
+
+		if (prev == null)
+			this.writeHead = next;
+		else
+			prev.writeNext = next;
+
+		if (next == null)
+			this.writeTail = prev;
+		else
+			next.writePrev = prev;
+
+		node.writePrev = node.writeNext = null;
+	}
+
+	private void update(Node<K, V> node, V value, int weight, long now) {
+		node.value = value;
+		node.writeTime = node.accessTime = now;
+		this.weight += weight - node.weight;
+		node.weight = weight;
 
-		public MaxSizeLinkedMap(Map<? extends K, ? extends V> map) {
-			this(map, -1);
+		if (this.accessOrder)
+			this.moveToTail(node);
+
+		if (this.expireAfterWrite != UNBOUNDED && this.writeTail != node) {
+			this.unlinkWrite(node);
+			this.linkWriteLast(node);
 		}
 
-		public MaxSizeLinkedMap(Map<? extends K, ? extends V> map, int maxSize) {
-			super(map);
-			this.maxSize = -1;
+		this.evict(now);
+	}
+
+	private int weigh(K key, V value) {
+		int weight = this.weigher.weigh(key, value);
+
+		if (weight < 0)
+			throw new IllegalArgumentException("Weight of an entry cannot be negative!");
+
+		return weight;
+	}
+
+	/**
+	 * Configures a bounded or expiring {@link ConcurrentLinkedMap}.
+	 *
+	 * @param <K> type of keys
+	 * @param <V> type of values
+	 */
+	public static final class Builder<K, V> {
+
+		private long maximumWeight = UNBOUNDED;
+		private Weigher<? super K, ? super V> weigher = SINGLETON_WEIGHER;
+		private Boolean accessOrder;
+		private long expireAfterWrite = UNBOUNDED;
+		private long expireAfterAccess = UNBOUNDED;
+
+		/**
+		 * Sets if entries are ordered by access instead of insertion, this
+		 * defaults to true for bounded maps and is always true when expiring
+		 * entries after access.
+		 *
+		 * @param value True to order by access, otherwise false.
+		 * @return This builder.
+		 */
+		public Builder<K, V> accessOrder(boolean value) {
+			this.accessOrder = value;
+			return this;
+		}
+
+		/**
+		 * Creates a new map with the settings of this builder.
+		 *
+		 * @return New concurrent map.
+		 */
+		public ConcurrentLinkedMap<K, V> build() {
+			return new ConcurrentLinkedMap<>(this);
+		}
+
+		/**
+		 * Sets how long entries are kept after they were last read or written.
+		 *
+		 * @param duration Time to keep entries for.
+		 * @param unit Unit of the duration.
+		 * @return This builder.
+		 */
+		public Builder<K, V> expireAfterAccess(long duration, TimeUnit unit) {
+			this.expireAfterAccess = toNanos(duration, unit);
+			return this;
+		}
+
+		/**
+		 * Sets how long entries are kept after they were last written.
+		 *
+		 * @param duration Time to keep entries for.
+		 * @param unit Unit of the duration.
+		 * @return This builder.
+		 */
+		public Builder<K, V> expireAfterWrite(long duration, TimeUnit unit) {
+			this.expireAfterWrite = toNanos(duration, unit);
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of entries allowed in the map.
+		 *
+		 * @param size Maximum number of entries, or -1 for no limit.
+		 * @return This builder.
+		 */
+		public Builder<K, V> maximumSize(long size) {
+			return this.maximumWeight(size, SINGLETON_WEIGHER);
+		}
+
+		/**
+		 * Sets the maximum total weight of all entries allowed in the map.
+		 *
+		 * @param weight Maximum total weight, or -1 for no limit.
+		 * @param weigher Calculates the weight of each entry.
+		 * @return This builder.
+		 */
+		public Builder<K, V> maximumWeight(long weight, Weigher<? super K, ? super V> weigher) {
+			if (weight < UNBOUNDED)
+				throw new IllegalArgumentException("Maximum weight cannot be negative!");
+
+			this.maximumWeight = weight;
+			this.weigher = Objects.requireNonNull(weigher);
+			return this;
+		}
+
+		private static long toNanos(long duration, TimeUnit unit) {
+			if (duration < 0)
+				throw new IllegalArgumentException("Duration cannot be negative!");
+
+			return unit.toNanos(duration);
+		}
+
+	}
+
+	private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+		@Override
+		public void clear() {
+			ConcurrentLinkedMap.this.clear();
+		}
+
+		@Override
+		public boolean contains(Object obj) {
+			if (!(obj instanceof Entry))
+				return false;
+
+			Entry<?, ?> entry = (Entry<?, ?>)obj;
+			Node<K, V> node = ConcurrentLinkedMap.this.getNode(entry.getKey(), false);
+			return node != null && Objects.equals(node.value, entry.getValue());
 		}
 
 		@Override
-		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-			return this.maxSize != -1 && this.size() > this.maxSize;
+		public Iterator<Entry<K, V>> iterator() {
+			return new SnapshotIterator();
+		}
+
+		@Override
+		public boolean remove(Object obj) {
+			if (!(obj instanceof Entry))
+				return false;
+
+			Entry<?, ?> entry = (Entry<?, ?>)obj;
+			return ConcurrentLinkedMap.this.remove(entry.getKey(), entry.getValue());
+		}
+
+		@Override
+		public int size() {
+			return ConcurrentLinkedMap.this.size();
+		}
+
+	}
+
+	private static final class Node<K, V> {
+
+		final K key;
+		volatile V value;
+		volatile long writeTime;
+		volatile long accessTime;
+		int weight;
+		boolean alive = true;
+		Node<K, V> prev;
+		Node<K, V> next;
+		Node<K, V> writePrev;
+		Node<K, V> writeNext;
+
+		Node(K key, V value, int weight, long now) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.writeTime = this.accessTime = now;
+		}
+
+	}
+
+	private final class SnapshotIterator implements Iterator<Entry<K, V>> {
+
+		private final Iterator<Entry<K, V>> snapshot;
+		private Entry<K, V> last;
+
+		SnapshotIterator() {
+			List<Entry<K, V>> entries = new ArrayList<>(ConcurrentLinkedMap.this.size());
+			long now = ConcurrentLinkedMap.this.now();
+			ConcurrentLinkedMap.this.lock.lock();
+
+			try {
+				for (Node<K, V> node = ConcurrentLinkedMap.this.head; node != null; node = node.next) {
+					if (!ConcurrentLinkedMap.this.isExpired(node, now))
+						entries.add(new SimpleImmutableEntry<>(node.key, node.value));
+				}
+			} finally {
+				ConcurrentLinkedMap.this.lock.unlock();
+			}
+
+			this.snapshot = entries.iterator();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.snapshot.hasNext();
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			return this.last = this.snapshot.next();
+		}
+
+		@Override
+		public void remove() {
+			if (this.last == null)
+				throw new IllegalStateException();
+
+			ConcurrentLinkedMap.this.remove(this.last.getKey());
+			this.last = null;
 		}
 
 	}
 
-}
\ No newline at end of file
+}
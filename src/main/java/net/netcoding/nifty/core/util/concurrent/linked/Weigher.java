@@ -0,0 +1,22 @@
+package net.netcoding.nifty.core.util.concurrent.linked;
+
+/**
+ * Calculates the weight of an entry in a bounded {@link ConcurrentLinkedMap}.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+	/**
+	 * Gets the weight of the given entry, this is calculated once when the
+	 * entry is stored and does not change afterwards.
+	 *
+	 * @param key Key of the entry.
+	 * @param value Value of the entry.
+	 * @return Non-negative weight of the entry.
+	 */
+	int weigh(K key, V value);
+
+}
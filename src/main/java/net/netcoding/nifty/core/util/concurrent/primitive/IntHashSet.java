@@ -0,0 +1,275 @@
+package net.netcoding.nifty.core.util.concurrent.primitive;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * A hash set of primitive {@code int} values using open addressing.
+ * <p>
+ * Values are stored in a single array without any per-element node objects and
+ * without boxing, using linear probing and removing elements by shifting back
+ * the elements that follow them instead of leaving tombstones.
+ * <p>
+ * This set is not thread-safe, see {@link net.netcoding.nifty.core.util.concurrent.ConcurrentIntSet}.
+ */
+public class IntHashSet {
+
+	private int[] keys;
+	private int mask;
+	private int threshold;
+	private int size;
+	private boolean hasZero;
+
+	/**
+	 * Create a new set.
+	 */
+	public IntHashSet() {
+		this(PrimitiveHash.DEFAULT_EXPECTED_SIZE);
+	}
+
+	/**
+	 * Create a new set able to hold the given number of values without resizing.
+	 *
+	 * @param expectedSize Number of values expected.
+	 */
+	public IntHashSet(int expectedSize) {
+		this.allocate(PrimitiveHash.tableSize(expectedSize));
+	}
+
+	/**
+	 * Create a new set and fill it with the given values.
+	 *
+	 * @param values Values to fill the set with.
+	 */
+	public IntHashSet(int... values) {
+		this(values.length);
+
+		for (int value : values)
+			this.add(value);
+	}
+
+	/**
+	 * Create a new set and fill it with the given set.
+	 *
+	 * @param set Set to copy.
+	 */
+	public IntHashSet(IntHashSet set) {
+		this.keys = set.keys.clone();
+		this.mask = set.mask;
+		this.threshold = set.threshold;
+		this.size = set.size;
+		this.hasZero = set.hasZero;
+	}
+
+	public boolean add(int value) {
+		if (value == 0) {
+			if (this.hasZero)
+				return false;
+
+			this.hasZero = true;
+			this.size++;
+			return true;
+		}
+
+		int index = PrimitiveHash.mix(value) & this.mask;
+		int current;
+
+		while ((current = this.keys[index]) != 0) {
+			if (current == value)
+				return false;
+
+			index = (index + 1) & this.mask;
+		}
+
+		this.keys[index] = value;
+
+		if (++this.size > this.threshold)
+			this.rehash(this.keys.length << 1);
+
+		return true;
+	}
+
+	private void allocate(int capacity) {
+		this.keys = new int[capacity];
+		this.mask = capacity - 1;
+		this.threshold = PrimitiveHash.threshold(capacity);
+	}
+
+	public void clear() {
+		Arrays.fill(this.keys, 0);
+		this.size = 0;
+		this.hasZero = false;
+	}
+
+	public boolean contains(int value) {
+		return value == 0 ? this.hasZero : this.indexOf(value) != -1;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this)
+			return true;
+		else if (!(obj instanceof IntHashSet))
+			return false;
+		else {
+			IntHashSet that = (IntHashSet)obj;
+
+			if (this.size != that.size || this.hasZero != that.hasZero)
+				return false;
+
+			for (int key : this.keys) {
+				if (key != 0 && that.indexOf(key) == -1)
+					return false;
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Performs the given action for each value in this set.
+	 *
+	 * @param action Action to perform.
+	 */
+	public void forEach(IntConsumer action) {
+		if (this.hasZero)
+			action.accept(0);
+
+		for (int key : this.keys) {
+			if (key != 0)
+				action.accept(key);
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+
+		for (int key : this.keys) {
+			if (key != 0)
+				hash += key;
+		}
+
+		return hash;
+	}
+
+	private int indexOf(int value) {
+		int index = PrimitiveHash.mix(value) & this.mask;
+		int current;
+
+		while ((current = this.keys[index]) != 0) {
+			if (current == value)
+				return index;
+
+			index = (index + 1) & this.mask;
+		}
+
+		return -1;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	private void rehash(int capacity) {
+		int[] keys = this.keys;
+		this.allocate(capacity);
+
+		for (int key : keys) {
+			if (key != 0) {
+				int index = PrimitiveHash.mix(key) & this.mask;
+
+				while (this.keys[index] != 0)
+					index = (index + 1) & this.mask;
+
+				this.keys[index] = key;
+			}
+		}
+	}
+
+	public boolean remove(int value) {
+		if (value == 0) {
+			if (!this.hasZero)
+				return false;
+
+			this.hasZero = false;
+			this.size--;
+			return true;
+		}
+
+		int index = this.indexOf(value);
+
+		if (index == -1)
+			return false;
+
+		this.removeAt(index);
+		return true;
+	}
+
+	private void removeAt(int index) {
+		this.size--;
+		int last;
+
+		// Shift back values that probed past the removed slot
+		while (true) {
+			index = ((last = index) + 1) & this.mask;
+			int current;
+
+			while (true) {
+				if ((current = this.keys[index]) == 0) {
+					this.keys[last] = 0;
+					return;
+				}
+
+				int slot = PrimitiveHash.mix(current) & this.mask;
+
+				if (last <= index ? last >= slot || slot > index : last >= slot && slot > index)
+					break;
+
+				index = (index + 1) & this.mask;
+			}
+
+			this.keys[last] = current;
+		}
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Gets a sequential stream over the values in this set.
+	 *
+	 * @return Stream of values.
+	 */
+	public IntStream stream() {
+		return Arrays.stream(this.toArray());
+	}
+
+	/**
+	 * Gets all values in this set.
+	 *
+	 * @return New array holding the values.
+	 */
+	public int[] toArray() {
+		int[] values = new int[this.size];
+		int index = 0;
+
+		if (this.hasZero)
+			values[index++] = 0;
+
+		for (int key : this.keys) {
+			if (key != 0)
+				values[index++] = key;
+		}
+
+		return values;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(this.toArray());
+	}
+
+}
@@ -0,0 +1,13 @@
+package net.netcoding.nifty.core.util.concurrent.primitive;
+
+/**
+ * Represents an operation that accepts a primitive {@code int} key and a value.
+ *
+ * @param <V> type of values
+ */
+@FunctionalInterface
+public interface IntObjectConsumer<V> {
+
+	void accept(int key, V value);
+
+}
@@ -0,0 +1,350 @@
+package net.netcoding.nifty.core.util.concurrent.primitive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A hash map with primitive {@code int} keys using open addressing.
+ * <p>
+ * Keys and values are stored in two parallel arrays without any per-entry node
+ * objects and without boxing keys, using linear probing and removing entries by
+ * shifting back the entries that follow them instead of leaving tombstones.
+ * <p>
+ * This map is not thread-safe, see {@link net.netcoding.nifty.core.util.concurrent.ConcurrentIntObjectMap}.
+ *
+ * @param <V> type of values
+ */
+public class IntObjectHashMap<V> {
+
+	private int[] keys;
+	private Object[] values;
+	private int mask;
+	private int threshold;
+	private int size;
+	private boolean hasZeroKey;
+	private V zeroValue;
+
+	/**
+	 * Create a new map.
+	 */
+	public IntObjectHashMap() {
+		this(PrimitiveHash.DEFAULT_EXPECTED_SIZE);
+	}
+
+	/**
+	 * Create a new map able to hold the given number of entries without resizing.
+	 *
+	 * @param expectedSize Number of entries expected.
+	 */
+	public IntObjectHashMap(int expectedSize) {
+		this.allocate(PrimitiveHash.tableSize(expectedSize));
+	}
+
+	/**
+	 * Create a new map and fill it with the given map.
+	 *
+	 * @param map Map to copy.
+	 */
+	public IntObjectHashMap(IntObjectHashMap<? extends V> map) {
+		this.keys = map.keys.clone();
+		this.values = map.values.clone();
+		this.mask = map.mask;
+		this.threshold = map.threshold;
+		this.size = map.size;
+		this.hasZeroKey = map.hasZeroKey;
+		this.zeroValue = map.zeroValue;
+	}
+
+	private void allocate(int capacity) {
+		this.keys = new int[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1;
+		this.threshold = PrimitiveHash.threshold(capacity);
+	}
+
+	public void clear() {
+		Arrays.fill(this.keys, 0);
+		Arrays.fill(this.values, null);
+		this.size = 0;
+		this.hasZeroKey = false;
+		this.zeroValue = null;
+	}
+
+	public boolean containsKey(int key) {
+		return key == 0 ? this.hasZeroKey : this.indexOf(key) != -1;
+	}
+
+	public boolean containsValue(Object value) {
+		if (this.hasZeroKey && Objects.equals(this.zeroValue, value))
+			return true;
+
+		for (int i = 0; i < this.keys.length; i++) {
+			if (this.keys[i] != 0 && Objects.equals(this.values[i], value))
+				return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this)
+			return true;
+		else if (!(obj instanceof IntObjectHashMap))
+			return false;
+		else {
+			IntObjectHashMap<?> that = (IntObjectHashMap<?>)obj;
+
+			if (this.size != that.size || this.hasZeroKey != that.hasZeroKey || !Objects.equals(this.zeroValue, that.zeroValue))
+				return false;
+
+			for (int i = 0; i < this.keys.length; i++) {
+				if (this.keys[i] != 0) {
+					int index = that.indexOf(this.keys[i]);
+
+					if (index == -1 || !Objects.equals(this.values[i], that.values[index]))
+						return false;
+				}
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Performs the given action for each entry in this map.
+	 *
+	 * @param action Action to perform.
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(IntObjectConsumer<? super V> action) {
+		if (this.hasZeroKey)
+			action.accept(0, this.zeroValue);
+
+		for (int i = 0; i < this.keys.length; i++) {
+			if (this.keys[i] != 0)
+				action.accept(this.keys[i], (V)this.values[i]);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		if (key == 0)
+			return this.zeroValue;
+
+		int index = this.indexOf(key);
+		return index != -1 ? (V)this.values[index] : null;
+	}
+
+	public V getOrDefault(int key, V defaultValue) {
+		if (key == 0)
+			return this.hasZeroKey ? this.zeroValue : defaultValue;
+
+		int index = this.indexOf(key);
+		return index != -1 ? this.valueAt(index) : defaultValue;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = this.hasZeroKey ? Objects.hashCode(this.zeroValue) : 0;
+
+		for (int i = 0; i < this.keys.length; i++) {
+			if (this.keys[i] != 0)
+				hash += this.keys[i] ^ Objects.hashCode(this.values[i]);
+		}
+
+		return hash;
+	}
+
+	private int indexOf(int key) {
+		int index = PrimitiveHash.mix(key) & this.mask;
+		int current;
+
+		while ((current = this.keys[index]) != 0) {
+			if (current == key)
+				return index;
+
+			index = (index + 1) & this.mask;
+		}
+
+		return -1;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Gets all keys in this map.
+	 *
+	 * @return New array holding the keys.
+	 */
+	public int[] keys() {
+		int[] keys = new int[this.size];
+		int index = 0;
+
+		if (this.hasZeroKey)
+			keys[index++] = 0;
+
+		for (int key : this.keys) {
+			if (key != 0)
+				keys[index++] = key;
+		}
+
+		return keys;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		if (key == 0) {
+			V old = this.zeroValue;
+
+			if (!this.hasZeroKey) {
+				this.hasZeroKey = true;
+				this.size++;
+			}
+
+			this.zeroValue = value;
+			return old;
+		}
+
+		int index = PrimitiveHash.mix(key) & this.mask;
+		int current;
+
+		while ((current = this.keys[index]) != 0) {
+			if (current == key) {
+				V old = (V)this.values[index];
+				this.values[index] = value;
+				return old;
+			}
+
+			index = (index + 1) & this.mask;
+		}
+
+		this.keys[index] = key;
+		this.values[index] = value;
+
+		if (++this.size > this.threshold)
+			this.rehash(this.keys.length << 1);
+
+		return null;
+	}
+
+	public V putIfAbsent(int key, V value) {
+		V current = this.get(key);
+		return current != null ? current : this.put(key, value);
+	}
+
+	private void rehash(int capacity) {
+		int[] keys = this.keys;
+		Object[] values = this.values;
+		this.allocate(capacity);
+
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != 0) {
+				int index = PrimitiveHash.mix(keys[i]) & this.mask;
+
+				while (this.keys[index] != 0)
+					index = (index + 1) & this.mask;
+
+				this.keys[index] = keys[i];
+				this.values[index] = values[i];
+			}
+		}
+	}
+
+	public V remove(int key) {
+		if (key == 0) {
+			V old = this.zeroValue;
+
+			if (this.hasZeroKey) {
+				this.hasZeroKey = false;
+				this.zeroValue = null;
+				this.size--;
+			}
+
+			return old;
+		}
+
+		int index = this.indexOf(key);
+
+		if (index == -1)
+			return null;
+
+		V old = this.valueAt(index);
+		this.removeAt(index);
+		return old;
+	}
+
+	public boolean remove(int key, Object value) {
+		if (!this.containsKey(key) || !Objects.equals(this.get(key), value))
+			return false;
+
+		this.remove(key);
+		return true;
+	}
+
+	private void removeAt(int index) {
+		this.size--;
+		int last;
+
+		// Shift back entries that probed past the removed slot
+		while (true) {
+			index = ((last = index) + 1) & this.mask;
+			int current;
+
+			while (true) {
+				if ((current = this.keys[index]) == 0) {
+					this.keys[last] = 0;
+					this.values[last] = null;
+					return;
+				}
+
+				int slot = PrimitiveHash.mix(current) & this.mask;
+
+				if (last <= index ? last >= slot || slot > index : last >= slot && slot > index)
+					break;
+
+				index = (index + 1) & this.mask;
+			}
+
+			this.keys[last] = current;
+			this.values[last] = this.values[index];
+		}
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("{");
+		this.forEach((key, value) -> {
+			if (builder.length() > 1)
+				builder.append(", ");
+
+			builder.append(key).append('=').append(value);
+		});
+		return builder.append('}').toString();
+	}
+
+	@SuppressWarnings("unchecked")
+	private V valueAt(int index) {
+		return (V)this.values[index];
+	}
+
+	/**
+	 * Gets all values in this map.
+	 *
+	 * @return New list holding the values.
+	 */
+	public List<V> values() {
+		List<V> values = new ArrayList<>(this.size);
+		this.forEach((key, value) -> values.add(value));
+		return values;
+	}
+
+}
@@ -0,0 +1,275 @@
+package net.netcoding.nifty.core.util.concurrent.primitive;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * A hash set of primitive {@code long} values using open addressing.
+ * <p>
+ * Values are stored in a single array without any per-element node objects and
+ * without boxing, using linear probing and removing elements by shifting back
+ * the elements that follow them instead of leaving tombstones.
+ * <p>
+ * This set is not thread-safe, see {@link net.netcoding.nifty.core.util.concurrent.ConcurrentLongSet}.
+ */
+public class LongHashSet {
+
+	private long[] keys;
+	private int mask;
+	private int threshold;
+	private int size;
+	private boolean hasZero;
+
+	/**
+	 * Create a new set.
+	 */
+	public LongHashSet() {
+		this(PrimitiveHash.DEFAULT_EXPECTED_SIZE);
+	}
+
+	/**
+	 * Create a new set able to hold the given number of values without resizing.
+	 *
+	 * @param expectedSize Number of values expected.
+	 */
+	public LongHashSet(int expectedSize) {
+		this.allocate(PrimitiveHash.tableSize(expectedSize));
+	}
+
+	/**
+	 * Create a new set and fill it with the given values.
+	 *
+	 * @param values Values to fill the set with.
+	 */
+	public LongHashSet(long... values) {
+		this(values.length);
+
+		for (long value : values)
+			this.add(value);
+	}
+
+	/**
+	 * Create a new set and fill it with the given set.
+	 *
+	 * @param set Set to copy.
+	 */
+	public LongHashSet(LongHashSet set) {
+		this.keys = set.keys.clone();
+		this.mask = set.mask;
+		this.threshold = set.threshold;
+		this.size = set.size;
+		this.hasZero = set.hasZero;
+	}
+
+	public boolean add(long value) {
+		if (value == 0) {
+			if (this.hasZero)
+				return false;
+
+			this.hasZero = true;
+			this.size++;
+			return true;
+		}
+
+		int index = PrimitiveHash.mix(value) & this.mask;
+		long current;
+
+		while ((current = this.keys[index]) != 0) {
+			if (current == value)
+				return false;
+
+			index = (index + 1) & this.mask;
+		}
+
+		this.keys[index] = value;
+
+		if (++this.size > this.threshold)
+			this.rehash(this.keys.length << 1);
+
+		return true;
+	}
+
+	private void allocate(int capacity) {
+		this.keys = new long[capacity];
+		this.mask = capacity - 1;
+		this.threshold = PrimitiveHash.threshold(capacity);
+	}
+
+	public void clear() {
+		Arrays.fill(this.keys, 0);
+		this.size = 0;
+		this.hasZero = false;
+	}
+
+	public boolean contains(long value) {
+		return value == 0 ? this.hasZero : this.indexOf(value) != -1;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this)
+			return true;
+		else if (!(obj instanceof LongHashSet))
+			return false;
+		else {
+			LongHashSet that = (LongHashSet)obj;
+
+			if (this.size != that.size || this.hasZero != that.hasZero)
+				return false;
+
+			for (long key : this.keys) {
+				if (key != 0 && that.indexOf(key) == -1)
+					return false;
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Performs the given action for each value in this set.
+	 *
+	 * @param action Action to perform.
+	 */
+	public void forEach(LongConsumer action) {
+		if (this.hasZero)
+			action.accept(0);
+
+		for (long key : this.keys) {
+			if (key != 0)
+				action.accept(key);
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+
+		for (long key : this.keys) {
+			if (key != 0)
+				hash += Long.hashCode(key);
+		}
+
+		return hash;
+	}
+
+	private int indexOf(long value) {
+		int index = PrimitiveHash.mix(value) & this.mask;
+		long current;
+
+		while ((current = this.keys[index]) != 0) {
+			if (current == value)
+				return index;
+
+			index = (index + 1) & this.mask;
+		}
+
+		return -1;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	private void rehash(int capacity) {
+		long[] keys = this.keys;
+		this.allocate(capacity);
+
+		for (long key : keys) {
+			if (key != 0) {
+				int index = PrimitiveHash.mix(key) & this.mask;
+
+				while (this.keys[index] != 0)
+					index = (index + 1) & this.mask;
+
+				this.keys[index] = key;
+			}
+		}
+	}
+
+	public boolean remove(long value) {
+		if (value == 0) {
+			if (!this.hasZero)
+				return false;
+
+			this.hasZero = false;
+			this.size--;
+			return true;
+		}
+
+		int index = this.indexOf(value);
+
+		if (index == -1)
+			return false;
+
+		this.removeAt(index);
+		return true;
+	}
+
+	private void removeAt(int index) {
+		this.size--;
+		int last;
+
+		// Shift back values that probed past the removed slot
+		while (true) {
+			index = ((last = index) + 1) & this.mask;
+			long current;
+
+			while (true) {
+				if ((current = this.keys[index]) == 0) {
+					this.keys[last] = 0;
+					return;
+				}
+
+				int slot = PrimitiveHash.mix(current) & this.mask;
+
+				if (last <= index ? last >= slot || slot > index : last >= slot && slot > index)
+					break;
+
+				index = (index + 1) & this.mask;
+			}
+
+			this.keys[last] = current;
+		}
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Gets a sequential stream over the values in this set.
+	 *
+	 * @return Stream of values.
+	 */
+	public LongStream stream() {
+		return Arrays.stream(this.toArray());
+	}
+
+	/**
+	 * Gets all values in this set.
+	 *
+	 * @return New array holding the values.
+	 */
+	public long[] toArray() {
+		long[] values = new long[this.size];
+		int index = 0;
+
+		if (this.hasZero)
+			values[index++] = 0;
+
+		for (long key : this.keys) {
+			if (key != 0)
+				values[index++] = key;
+		}
+
+		return values;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(this.toArray());
+	}
+
+}
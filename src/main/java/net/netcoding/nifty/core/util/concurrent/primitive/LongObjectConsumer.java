@@ -0,0 +1,13 @@
+package net.netcoding.nifty.core.util.concurrent.primitive;
+
+/**
+ * Represents an operation that accepts a primitive {@code long} key and a value.
+ *
+ * @param <V> type of values
+ */
+@FunctionalInterface
+public interface LongObjectConsumer<V> {
+
+	void accept(long key, V value);
+
+}
@@ -0,0 +1,44 @@
+package net.netcoding.nifty.core.util.concurrent.primitive;
+
+/**
+ * Sizing and hashing shared by the open addressing tables.
+ */
+final class PrimitiveHash {
+
+	static final int DEFAULT_EXPECTED_SIZE = 8;
+	private static final float LOAD_FACTOR = 0.75F;
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private PrimitiveHash() { }
+
+	/**
+	 * Spreads the bits of the given key, so that sequential keys do not
+	 * end up in neighbouring slots.
+	 */
+	static int mix(int key) {
+		int hash = key * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	static int mix(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int)(hash ^ (hash >>> 32));
+	}
+
+	/**
+	 * Gets the power of two table size able to hold the expected number of
+	 * entries without resizing.
+	 */
+	static int tableSize(int expectedSize) {
+		if (expectedSize < 0)
+			throw new IllegalArgumentException("Expected size cannot be negative!");
+
+		long needed = Math.max(2, (long)Math.ceil(expectedSize / LOAD_FACTOR));
+		return (int)Math.min(MAXIMUM_CAPACITY, Long.highestOneBit(needed - 1) << 1);
+	}
+
+	static int threshold(int capacity) {
+		return capacity == MAXIMUM_CAPACITY ? capacity - 1 : (int)(capacity * LOAD_FACTOR);
+	}
+
+}
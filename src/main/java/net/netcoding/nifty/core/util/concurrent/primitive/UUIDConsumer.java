@@ -0,0 +1,11 @@
+package net.netcoding.nifty.core.util.concurrent.primitive;
+
+/**
+ * Represents an operation that accepts the two halves of a {@link java.util.UUID}.
+ */
+@FunctionalInterface
+public interface UUIDConsumer {
+
+	void accept(long mostBits, long leastBits);
+
+}
@@ -0,0 +1,398 @@
+package net.netcoding.nifty.core.util.concurrent.primitive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A hash map with {@link UUID} keys using open addressing.
+ * <p>
+ * The most and least significant bits of each key are stored inline in two
+ * parallel {@code long} arrays next to an array of values, so no {@link UUID}
+ * or node object is retained per entry. Entries can be looked up either by
+ * {@link UUID} or by its two halves, and iterated without allocating.
+ * <p>
+ * This map is not thread-safe, see {@link net.netcoding.nifty.core.util.concurrent.ConcurrentUUIDMap}.
+ *
+ * @param <V> type of values
+ */
+public class UUIDHashMap<V> {
+
+	private long[] mostBits;
+	private long[] leastBits;
+	private Object[] values;
+	private int mask;
+	private int threshold;
+	private int size;
+	private boolean hasZeroKey;
+	private V zeroValue;
+
+	/**
+	 * Create a new map.
+	 */
+	public UUIDHashMap() {
+		this(PrimitiveHash.DEFAULT_EXPECTED_SIZE);
+	}
+
+	/**
+	 * Create a new map able to hold the given number of entries without resizing.
+	 *
+	 * @param expectedSize Number of entries expected.
+	 */
+	public UUIDHashMap(int expectedSize) {
+		this.allocate(PrimitiveHash.tableSize(expectedSize));
+	}
+
+	/**
+	 * Create a new map and fill it with the given map.
+	 *
+	 * @param map Map to copy.
+	 */
+	public UUIDHashMap(UUIDHashMap<? extends V> map) {
+		this.mostBits = map.mostBits.clone();
+		this.leastBits = map.leastBits.clone();
+		this.values = map.values.clone();
+		this.mask = map.mask;
+		this.threshold = map.threshold;
+		this.size = map.size;
+		this.hasZeroKey = map.hasZeroKey;
+		this.zeroValue = map.zeroValue;
+	}
+
+	private void allocate(int capacity) {
+		this.mostBits = new long[capacity];
+		this.leastBits = new long[capacity];
+		this.values = new Object[capacity];
+		this.mask = capacity - 1;
+		this.threshold = PrimitiveHash.threshold(capacity);
+	}
+
+	public void clear() {
+		Arrays.fill(this.mostBits, 0);
+		Arrays.fill(this.leastBits, 0);
+		Arrays.fill(this.values, null);
+		this.size = 0;
+		this.hasZeroKey = false;
+		this.zeroValue = null;
+	}
+
+	public boolean containsKey(UUID key) {
+		return this.containsKey(key.getMostSignificantBits(), key.getLeastSignificantBits());
+	}
+
+	public boolean containsKey(long mostBits, long leastBits) {
+		return isZero(mostBits, leastBits) ? this.hasZeroKey : this.indexOf(mostBits, leastBits) != -1;
+	}
+
+	public boolean containsValue(Object value) {
+		if (this.hasZeroKey && Objects.equals(this.zeroValue, value))
+			return true;
+
+		for (int i = 0; i < this.values.length; i++) {
+			if (!isZero(this.mostBits[i], this.leastBits[i]) && Objects.equals(this.values[i], value))
+				return true;
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this)
+			return true;
+		else if (!(obj instanceof UUIDHashMap))
+			return false;
+		else {
+			UUIDHashMap<?> that = (UUIDHashMap<?>)obj;
+
+			if (this.size != that.size || this.hasZeroKey != that.hasZeroKey || !Objects.equals(this.zeroValue, that.zeroValue))
+				return false;
+
+			for (int i = 0; i < this.values.length; i++) {
+				if (!isZero(this.mostBits[i], this.leastBits[i])) {
+					int index = that.indexOf(this.mostBits[i], this.leastBits[i]);
+
+					if (index == -1 || !Objects.equals(this.values[i], that.values[index]))
+						return false;
+				}
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Performs the given action for each entry in this map, passing the
+	 * two halves of each key instead of allocating a {@link UUID}.
+	 *
+	 * @param action Action to perform.
+	 */
+	public void forEach(UUIDObjectConsumer<? super V> action) {
+		if (this.hasZeroKey)
+			action.accept(0, 0, this.zeroValue);
+
+		for (int i = 0; i < this.values.length; i++) {
+			if (!isZero(this.mostBits[i], this.leastBits[i]))
+				action.accept(this.mostBits[i], this.leastBits[i], this.valueAt(i));
+		}
+	}
+
+	/**
+	 * Performs the given action for each value in this map.
+	 *
+	 * @param action Action to perform.
+	 */
+	public void forEachValue(Consumer<? super V> action) {
+		if (this.hasZeroKey)
+			action.accept(this.zeroValue);
+
+		for (int i = 0; i < this.values.length; i++) {
+			if (!isZero(this.mostBits[i], this.leastBits[i]))
+				action.accept(this.valueAt(i));
+		}
+	}
+
+	public V get(UUID key) {
+		return this.get(key.getMostSignificantBits(), key.getLeastSignificantBits());
+	}
+
+	public V get(long mostBits, long leastBits) {
+		if (isZero(mostBits, leastBits))
+			return this.zeroValue;
+
+		int index = this.indexOf(mostBits, leastBits);
+		return index != -1 ? this.valueAt(index) : null;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = this.hasZeroKey ? Objects.hashCode(this.zeroValue) : 0;
+
+		for (int i = 0; i < this.values.length; i++) {
+			if (!isZero(this.mostBits[i], this.leastBits[i]))
+				hash += Long.hashCode(this.mostBits[i] ^ this.leastBits[i]) ^ Objects.hashCode(this.values[i]);
+		}
+
+		return hash;
+	}
+
+	private int indexOf(long mostBits, long leastBits) {
+		int index = mix(mostBits, leastBits) & this.mask;
+
+		while (!isZero(this.mostBits[index], this.leastBits[index])) {
+			if (this.mostBits[index] == mostBits && this.leastBits[index] == leastBits)
+				return index;
+
+			index = (index + 1) & this.mask;
+		}
+
+		return -1;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	private static boolean isZero(long mostBits, long leastBits) {
+		return (mostBits | leastBits) == 0;
+	}
+
+	/**
+	 * Gets all keys in this map.
+	 *
+	 * @return New list holding the keys.
+	 */
+	public List<UUID> keys() {
+		List<UUID> keys = new ArrayList<>(this.size);
+		this.forEach((mostBits, leastBits, value) -> keys.add(new UUID(mostBits, leastBits)));
+		return keys;
+	}
+
+	private static int mix(long mostBits, long leastBits) {
+		return PrimitiveHash.mix(mostBits ^ Long.rotateLeft(leastBits, 32));
+	}
+
+	public V put(UUID key, V value) {
+		return this.put(key.getMostSignificantBits(), key.getLeastSignificantBits(), value);
+	}
+
+	public V put(long mostBits, long leastBits, V value) {
+		if (isZero(mostBits, leastBits)) {
+			V old = this.zeroValue;
+
+			if (!this.hasZeroKey) {
+				this.hasZeroKey = true;
+				this.size++;
+			}
+
+			this.zeroValue = value;
+			return old;
+		}
+
+		int index = mix(mostBits, leastBits) & this.mask;
+
+		while (!isZero(this.mostBits[index], this.leastBits[index])) {
+			if (this.mostBits[index] == mostBits && this.leastBits[index] == leastBits) {
+				V old = this.valueAt(index);
+				this.values[index] = value;
+				return old;
+			}
+
+			index = (index + 1) & this.mask;
+		}
+
+		this.mostBits[index] = mostBits;
+		this.leastBits[index] = leastBits;
+		this.values[index] = value;
+
+		if (++this.size > this.threshold)
+			this.rehash(this.values.length << 1);
+
+		return null;
+	}
+
+	public V putIfAbsent(UUID key, V value) {
+		V current = this.get(key);
+		return current != null ? current : this.put(key, value);
+	}
+
+	private void rehash(int capacity) {
+		long[] mostBits = this.mostBits;
+		long[] leastBits = this.leastBits;
+		Object[] values = this.values;
+		this.allocate(capacity);
+
+		for (int i = 0; i < values.length; i++) {
+			if (!isZero(mostBits[i], leastBits[i])) {
+				int index = mix(mostBits[i], leastBits[i]) & this.mask;
+
+				while (!isZero(this.mostBits[index], this.leastBits[index]))
+					index = (index + 1) & this.mask;
+
+				this.mostBits[index] = mostBits[i];
+				this.leastBits[index] = leastBits[i];
+				this.values[index] = values[i];
+			}
+		}
+	}
+
+	public V remove(UUID key) {
+		return this.remove(key.getMostSignificantBits(), key.getLeastSignificantBits());
+	}
+
+	public V remove(long mostBits, long leastBits) {
+		if (isZero(mostBits, leastBits)) {
+			V old = this.zeroValue;
+
+			if (this.hasZeroKey) {
+				this.hasZeroKey = false;
+				this.zeroValue = null;
+				this.size--;
+			}
+
+			return old;
+		}
+
+		int index = this.indexOf(mostBits, leastBits);
+
+		if (index == -1)
+			return null;
+
+		V old = this.valueAt(index);
+		this.removeAt(index);
+		return old;
+	}
+
+	private void removeAt(int index) {
+		this.size--;
+		int last;
+
+		// Shift back entries that probed past the removed slot
+		while (true) {
+			index = ((last = index) + 1) & this.mask;
+
+			while (true) {
+				if (isZero(this.mostBits[index], this.leastBits[index])) {
+					this.mostBits[last] = 0;
+					this.leastBits[last] = 0;
+					this.values[last] = null;
+					return;
+				}
+
+				int slot = mix(this.mostBits[index], this.leastBits[index]) & this.mask;
+
+				if (last <= index ? last >= slot || slot > index : last >= slot && slot > index)
+					break;
+
+				index = (index + 1) & this.mask;
+			}
+
+			this.mostBits[last] = this.mostBits[index];
+			this.leastBits[last] = this.leastBits[index];
+			this.values[last] = this.values[index];
+		}
+	}
+
+	/**
+	 * Removes all entries whose value matches the given predicate.
+	 *
+	 * @param filter Predicate matching values to remove.
+	 * @return True if any entries were removed.
+	 */
+	public boolean removeIf(Predicate<? super V> filter) {
+		boolean removed = false;
+
+		if (this.hasZeroKey && filter.test(this.zeroValue)) {
+			this.remove(0, 0);
+			removed = true;
+		}
+
+		for (int i = 0; i < this.values.length; ) {
+			// Removal shifts a following entry into this slot, so test it again
+			if (!isZero(this.mostBits[i], this.leastBits[i]) && filter.test(this.valueAt(i))) {
+				this.removeAt(i);
+				removed = true;
+			} else
+				i++;
+		}
+
+		return removed;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("{");
+		this.forEach((mostBits, leastBits, value) -> {
+			if (builder.length() > 1)
+				builder.append(", ");
+
+			builder.append(new UUID(mostBits, leastBits)).append('=').append(value);
+		});
+		return builder.append('}').toString();
+	}
+
+	@SuppressWarnings("unchecked")
+	private V valueAt(int index) {
+		return (V)this.values[index];
+	}
+
+	/**
+	 * Gets all values in this map.
+	 *
+	 * @return New list holding the values.
+	 */
+	public List<V> values() {
+		List<V> values = new ArrayList<>(this.size);
+		this.forEachValue(values::add);
+		return values;
+	}
+
+}
@@ -0,0 +1,280 @@
+package net.netcoding.nifty.core.util.concurrent.primitive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A hash set of {@link UUID} values using open addressing.
+ * <p>
+ * The most and least significant bits of each value are stored inline in two
+ * parallel {@code long} arrays, so no {@link UUID} or node object is retained
+ * per element. Values can be looked up either by {@link UUID} or by its two
+ * halves, and iterated without allocating.
+ * <p>
+ * This set is not thread-safe, see {@link net.netcoding.nifty.core.util.concurrent.ConcurrentUUIDSet}.
+ */
+public class UUIDHashSet {
+
+	private long[] mostBits;
+	private long[] leastBits;
+	private int mask;
+	private int threshold;
+	private int size;
+	private boolean hasZero;
+
+	/**
+	 * Create a new set.
+	 */
+	public UUIDHashSet() {
+		this(PrimitiveHash.DEFAULT_EXPECTED_SIZE);
+	}
+
+	/**
+	 * Create a new set able to hold the given number of values without resizing.
+	 *
+	 * @param expectedSize Number of values expected.
+	 */
+	public UUIDHashSet(int expectedSize) {
+		this.allocate(PrimitiveHash.tableSize(expectedSize));
+	}
+
+	/**
+	 * Create a new set and fill it with the given collection.
+	 *
+	 * @param collection Values to fill the set with.
+	 */
+	public UUIDHashSet(Collection<UUID> collection) {
+		this(collection.size());
+		collection.forEach(this::add);
+	}
+
+	/**
+	 * Create a new set and fill it with the given set.
+	 *
+	 * @param set Set to copy.
+	 */
+	public UUIDHashSet(UUIDHashSet set) {
+		this.mostBits = set.mostBits.clone();
+		this.leastBits = set.leastBits.clone();
+		this.mask = set.mask;
+		this.threshold = set.threshold;
+		this.size = set.size;
+		this.hasZero = set.hasZero;
+	}
+
+	public boolean add(UUID value) {
+		return this.add(value.getMostSignificantBits(), value.getLeastSignificantBits());
+	}
+
+	public boolean add(long mostBits, long leastBits) {
+		if (isZero(mostBits, leastBits)) {
+			if (this.hasZero)
+				return false;
+
+			this.hasZero = true;
+			this.size++;
+			return true;
+		}
+
+		int index = mix(mostBits, leastBits) & this.mask;
+
+		while (!isZero(this.mostBits[index], this.leastBits[index])) {
+			if (this.mostBits[index] == mostBits && this.leastBits[index] == leastBits)
+				return false;
+
+			index = (index + 1) & this.mask;
+		}
+
+		this.mostBits[index] = mostBits;
+		this.leastBits[index] = leastBits;
+
+		if (++this.size > this.threshold)
+			this.rehash(this.mostBits.length << 1);
+
+		return true;
+	}
+
+	private void allocate(int capacity) {
+		this.mostBits = new long[capacity];
+		this.leastBits = new long[capacity];
+		this.mask = capacity - 1;
+		this.threshold = PrimitiveHash.threshold(capacity);
+	}
+
+	public void clear() {
+		Arrays.fill(this.mostBits, 0);
+		Arrays.fill(this.leastBits, 0);
+		this.size = 0;
+		this.hasZero = false;
+	}
+
+	public boolean contains(UUID value) {
+		return this.contains(value.getMostSignificantBits(), value.getLeastSignificantBits());
+	}
+
+	public boolean contains(long mostBits, long leastBits) {
+		return isZero(mostBits, leastBits) ? this.hasZero : this.indexOf(mostBits, leastBits) != -1;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this)
+			return true;
+		else if (!(obj instanceof UUIDHashSet))
+			return false;
+		else {
+			UUIDHashSet that = (UUIDHashSet)obj;
+
+			if (this.size != that.size || this.hasZero != that.hasZero)
+				return false;
+
+			for (int i = 0; i < this.mostBits.length; i++) {
+				if (!isZero(this.mostBits[i], this.leastBits[i]) && that.indexOf(this.mostBits[i], this.leastBits[i]) == -1)
+					return false;
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Performs the given action for each value in this set, passing the two
+	 * halves of each value instead of allocating a {@link UUID}.
+	 *
+	 * @param action Action to perform.
+	 */
+	public void forEach(UUIDConsumer action) {
+		if (this.hasZero)
+			action.accept(0, 0);
+
+		for (int i = 0; i < this.mostBits.length; i++) {
+			if (!isZero(this.mostBits[i], this.leastBits[i]))
+				action.accept(this.mostBits[i], this.leastBits[i]);
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+
+		for (int i = 0; i < this.mostBits.length; i++) {
+			if (!isZero(this.mostBits[i], this.leastBits[i]))
+				hash += Long.hashCode(this.mostBits[i] ^ this.leastBits[i]);
+		}
+
+		return hash;
+	}
+
+	private int indexOf(long mostBits, long leastBits) {
+		int index = mix(mostBits, leastBits) & this.mask;
+
+		while (!isZero(this.mostBits[index], this.leastBits[index])) {
+			if (this.mostBits[index] == mostBits && this.leastBits[index] == leastBits)
+				return index;
+
+			index = (index + 1) & this.mask;
+		}
+
+		return -1;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	private static boolean isZero(long mostBits, long leastBits) {
+		return (mostBits | leastBits) == 0;
+	}
+
+	private static int mix(long mostBits, long leastBits) {
+		return PrimitiveHash.mix(mostBits ^ Long.rotateLeft(leastBits, 32));
+	}
+
+	private void rehash(int capacity) {
+		long[] mostBits = this.mostBits;
+		long[] leastBits = this.leastBits;
+		this.allocate(capacity);
+
+		for (int i = 0; i < mostBits.length; i++) {
+			if (!isZero(mostBits[i], leastBits[i])) {
+				int index = mix(mostBits[i], leastBits[i]) & this.mask;
+
+				while (!isZero(this.mostBits[index], this.leastBits[index]))
+					index = (index + 1) & this.mask;
+
+				this.mostBits[index] = mostBits[i];
+				this.leastBits[index] = leastBits[i];
+			}
+		}
+	}
+
+	public boolean remove(UUID value) {
+		return this.remove(value.getMostSignificantBits(), value.getLeastSignificantBits());
+	}
+
+	public boolean remove(long mostBits, long leastBits) {
+		if (isZero(mostBits, leastBits)) {
+			if (!this.hasZero)
+				return false;
+
+			this.hasZero = false;
+			this.size--;
+			return true;
+		}
+
+		int index = this.indexOf(mostBits, leastBits);
+
+		if (index == -1)
+			return false;
+
+		this.size--;
+		int last;
+
+		// Shift back values that probed past the removed slot
+		while (true) {
+			index = ((last = index) + 1) & this.mask;
+
+			while (true) {
+				if (isZero(this.mostBits[index], this.leastBits[index])) {
+					this.mostBits[last] = 0;
+					this.leastBits[last] = 0;
+					return true;
+				}
+
+				int slot = mix(this.mostBits[index], this.leastBits[index]) & this.mask;
+
+				if (last <= index ? last >= slot || slot > index : last >= slot && slot > index)
+					break;
+
+				index = (index + 1) & this.mask;
+			}
+
+			this.mostBits[last] = this.mostBits[index];
+			this.leastBits[last] = this.leastBits[index];
+		}
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Gets all values in this set.
+	 *
+	 * @return New list holding the values.
+	 */
+	public List<UUID> toList() {
+		List<UUID> values = new ArrayList<>(this.size);
+		this.forEach((mostBits, leastBits) -> values.add(new UUID(mostBits, leastBits)));
+		return values;
+	}
+
+	@Override
+	public String toString() {
+		return this.toList().toString();
+	}
+
+}
@@ -0,0 +1,14 @@
+package net.netcoding.nifty.core.util.concurrent.primitive;
+
+/**
+ * Represents an operation that accepts the two halves of a
+ * {@link java.util.UUID} key and a value.
+ *
+ * @param <V> type of values
+ */
+@FunctionalInterface
+public interface UUIDObjectConsumer<V> {
+
+	void accept(long mostBits, long leastBits, V value);
+
+}
@@ -0,0 +1,694 @@
+package net.netcoding.nifty.core.util.concurrent.trie;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A hash array mapped trie that shares its structure between copies.
+ * <p>
+ * Copying this map with {@link #HashTrieMap(Map)} takes constant time, as both
+ * maps keep pointing at the same nodes. Any modification made afterwards only
+ * copies the path from the root to the changed entry, making each write
+ * O(log32 n) instead of the O(n) of copying an entire {@link java.util.HashMap}.
+ * <p>
+ * Nodes are only modified in place by the map that created them, a copied map
+ * will never see changes made to the map it was copied from and vice versa.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public class HashTrieMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
+
+	static final int BITS = 5;
+	static final int MASK = (1 << BITS) - 1;
+	static final int MAX_DEPTH = 8;
+	@SuppressWarnings("rawtypes")
+	private static final BitmapNode EMPTY = new BitmapNode<>(null, 0, new Object[0]);
+	private Node<K, V> root;
+	private int size;
+	private Object owner = new Object();
+	private transient Set<Entry<K, V>> entrySet;
+
+	/**
+	 * Create a new trie map.
+	 */
+	@SuppressWarnings("unchecked")
+	public HashTrieMap() {
+		this.root = EMPTY;
+	}
+
+	/**
+	 * Create a new trie map and fill it with the given map.
+	 * <p>
+	 * If the given map is also a trie map, its nodes are shared instead of copied.
+	 */
+	public HashTrieMap(Map<? extends K, ? extends V> map) {
+		this();
+		this.putAll(map);
+	}
+
+	static int hash(Object key) {
+		int hash = Objects.hashCode(key);
+		return hash ^ (hash >>> 16);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public final void clear() {
+		this.root = EMPTY;
+		this.size = 0;
+	}
+
+	@Override
+	public final boolean containsKey(Object key) {
+		return this.root.find(0, hash(key), key) != null;
+	}
+
+	@Override
+	public final Set<Entry<K, V>> entrySet() {
+		return this.entrySet != null ? this.entrySet : (this.entrySet = new EntrySet());
+	}
+
+	@Override
+	public final V get(Object key) {
+		Leaf<K, V> leaf = this.root.find(0, hash(key), key);
+		return leaf != null ? leaf.value : null;
+	}
+
+	@Override
+	public final boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	@Override
+	public final V put(K key, V value) {
+		Change<V> change = new Change<>();
+		this.root = this.root.put(this.owner, 0, new Leaf<>(hash(key), key, value), change);
+
+		if (change.added)
+			this.size++;
+
+		return change.old;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public final void putAll(Map<? extends K, ? extends V> map) {
+		if (this.isEmpty() && map instanceof HashTrieMap) {
+			HashTrieMap<K, V> other = (HashTrieMap<K, V>)map;
+			other.owner = new Object();
+			this.root = other.root;
+			this.size = other.size;
+		} else
+			map.forEach(this::put);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public final V remove(Object key) {
+		Change<V> change = new Change<>();
+		Object updated = this.root.remove(this.owner, 0, hash(key), key, change);
+
+		if (change.modified) {
+			this.root = updated == null ? EMPTY : (Node<K, V>)updated;
+			this.size--;
+		}
+
+		return change.old;
+	}
+
+	@Override
+	public final int size() {
+		return this.size;
+	}
+
+	/**
+	 * Records the outcome of a single put or remove.
+	 */
+	static final class Change<V> {
+
+		boolean added;
+		boolean modified;
+		V old;
+
+	}
+
+	/**
+	 * An immutable key-value pair stored in the trie.
+	 */
+	static final class Leaf<K, V> implements Entry<K, V> {
+
+		final int hash;
+		final K key;
+		final V value;
+
+		Leaf(int hash, K key, V value) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this)
+				return true;
+			else if (!(obj instanceof Entry))
+				return false;
+			else {
+				Entry<?, ?> that = (Entry<?, ?>)obj;
+				return Objects.equals(this.key, that.getKey()) && Objects.equals(this.value, that.getValue());
+			}
+		}
+
+		@Override
+		public K getKey() {
+			return this.key;
+		}
+
+		@Override
+		public V getValue() {
+			return this.value;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(this.key) ^ Objects.hashCode(this.value);
+		}
+
+		boolean matches(int hash, Object key) {
+			return this.hash == hash && Objects.equals(this.key, key);
+		}
+
+		@Override
+		public V setValue(V value) {
+			throw new UnsupportedOperationException("Entries of a trie map are immutable!");
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + this.value;
+		}
+
+	}
+
+	/**
+	 * A branch in the trie, children are either {@link Leaf leaves} or other nodes.
+	 */
+	static abstract class Node<K, V> {
+
+		Object owner;
+
+		Node(Object owner) {
+			this.owner = owner;
+		}
+
+		abstract Object[] children();
+
+		abstract Leaf<K, V> find(int shift, int hash, Object key);
+
+		/**
+		 * Returns this node when modified in place, otherwise the node replacing it.
+		 */
+		abstract Node<K, V> put(Object owner, int shift, Leaf<K, V> leaf, Change<V> change);
+
+		/**
+		 * Returns this node when modified in place or unchanged, otherwise the node
+		 * or single leaf replacing it, or null when it no longer has any children.
+		 */
+		abstract Object remove(Object owner, int shift, int hash, Object key, Change<V> change);
+
+	}
+
+	static final class BitmapNode<K, V> extends Node<K, V> {
+
+		int bitmap;
+		Object[] array;
+
+		BitmapNode(Object owner, int bitmap, Object[] array) {
+			super(owner);
+			this.bitmap = bitmap;
+			this.array = array;
+		}
+
+		private static int bit(int hash, int shift) {
+			return 1 << ((hash >>> shift) & MASK);
+		}
+
+		@Override
+		Object[] children() {
+			return this.array;
+		}
+
+		private BitmapNode<K, V> editable(Object owner) {
+			return this.owner == owner ? this : new BitmapNode<>(owner, this.bitmap, this.array.clone());
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		Leaf<K, V> find(int shift, int hash, Object key) {
+			int bit = bit(hash, shift);
+
+			if ((this.bitmap & bit) == 0)
+				return null;
+
+			Object child = this.array[this.index(bit)];
+
+			if (child instanceof Leaf) {
+				Leaf<K, V> leaf = (Leaf<K, V>)child;
+				return leaf.matches(hash, key) ? leaf : null;
+			} else
+				return ((Node<K, V>)child).find(shift + BITS, hash, key);
+		}
+
+		private int index(int bit) {
+			return Integer.bitCount(this.bitmap & (bit - 1));
+		}
+
+		private BitmapNode<K, V> insert(Object owner, int bit, int index, Object child) {
+			Object[] array = new Object[this.array.length + 1];
+			System.arraycopy(this.array, 0, array, 0, index);
+			System.arraycopy(this.array, index, array, index + 1, this.array.length - index);
+			array[index] = child;
+
+			if (this.owner == owner) {
+				this.array = array;
+				this.bitmap |= bit;
+				return this;
+			}
+
+			return new BitmapNode<>(owner, this.bitmap | bit, array);
+		}
+
+		private static <K, V> Node<K, V> merge(Object owner, int shift, Leaf<K, V> first, Leaf<K, V> second) {
+			if (first.hash == second.hash)
+				return new CollisionNode<>(owner, first.hash, new Object[] { first, second });
+
+			int firstBit = bit(first.hash, shift);
+			int secondBit = bit(second.hash, shift);
+
+			if (firstBit == secondBit)
+				return new BitmapNode<>(owner, firstBit, new Object[] { merge(owner, shift + BITS, first, second) });
+
+			return new BitmapNode<>(owner, firstBit | secondBit, Integer.compareUnsigned(firstBit, secondBit) < 0 ? new Object[] { first, second } : new Object[] { second, first });
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		Node<K, V> put(Object owner, int shift, Leaf<K, V> leaf, Change<V> change) {
+			int bit = bit(leaf.hash, shift);
+			int index = this.index(bit);
+
+			if ((this.bitmap & bit) == 0) {
+				change.added = change.modified = true;
+				return this.insert(owner, bit, index, leaf);
+			}
+
+			Object child = this.array[index];
+
+			if (child instanceof Leaf) {
+				Leaf<K, V> current = (Leaf<K, V>)child;
+				change.modified = true;
+
+				if (current.matches(leaf.hash, leaf.key)) {
+					change.old = current.value;
+					return this.replace(owner, index, leaf);
+				}
+
+				change.added = true;
+				return this.replace(owner, index, merge(owner, shift + BITS, current, leaf));
+			}
+
+			Node<K, V> node = (Node<K, V>)child;
+			Node<K, V> updated = node.put(owner, shift + BITS, leaf, change);
+			return updated == node ? this : this.replace(owner, index, updated);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		Object remove(Object owner, int shift, int hash, Object key, Change<V> change) {
+			int bit = bit(hash, shift);
+
+			if ((this.bitmap & bit) == 0)
+				return this;
+
+			int index = this.index(bit);
+			Object child = this.array[index];
+			Object updated;
+
+			if (child instanceof Leaf) {
+				Leaf<K, V> current = (Leaf<K, V>)child;
+
+				if (!current.matches(hash, key))
+					return this;
+
+				change.modified = true;
+				change.old = current.value;
+				updated = null;
+			} else {
+				updated = ((Node<K, V>)child).remove(owner, shift + BITS, hash, key, change);
+
+				if (updated == child)
+					return this;
+			}
+
+			if (updated == null) {
+				if (this.array.length == 1)
+					return null;
+
+				// Collapse a lone remaining leaf into the parent
+				if (shift > 0 && this.array.length == 2 && this.array[index ^ 1] instanceof Leaf)
+					return this.array[index ^ 1];
+
+				return this.without(owner, bit, index);
+			}
+
+			if (shift > 0 && this.array.length == 1 && updated instanceof Leaf)
+				return updated;
+
+			return this.replace(owner, index, updated);
+		}
+
+		private BitmapNode<K, V> replace(Object owner, int index, Object child) {
+			BitmapNode<K, V> node = this.editable(owner);
+			node.array[index] = child;
+			return node;
+		}
+
+		private BitmapNode<K, V> without(Object owner, int bit, int index) {
+			Object[] array = new Object[this.array.length - 1];
+			System.arraycopy(this.array, 0, array, 0, index);
+			System.arraycopy(this.array, index + 1, array, index, array.length - index);
+
+			if (this.owner == owner) {
+				this.array = array;
+				this.bitmap ^= bit;
+				return this;
+			}
+
+			return new BitmapNode<>(owner, this.bitmap ^ bit, array);
+		}
+
+	}
+
+	/**
+	 * Holds leaves whose keys share the exact same hash.
+	 */
+	static final class CollisionNode<K, V> extends Node<K, V> {
+
+		final int hash;
+		Object[] leaves;
+
+		CollisionNode(Object owner, int hash, Object[] leaves) {
+			super(owner);
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+
+		@Override
+		Object[] children() {
+			return this.leaves;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		Leaf<K, V> find(int shift, int hash, Object key) {
+			int index = this.indexOf(hash, key);
+			return index != -1 ? (Leaf<K, V>)this.leaves[index] : null;
+		}
+
+		private int indexOf(int hash, Object key) {
+			if (this.hash == hash) {
+				for (int i = 0; i < this.leaves.length; i++) {
+					if (((Leaf<?, ?>)this.leaves[i]).matches(hash, key))
+						return i;
+				}
+			}
+
+			return -1;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		Node<K, V> put(Object owner, int shift, Leaf<K, V> leaf, Change<V> change) {
+			if (leaf.hash != this.hash) {
+				// Push this node one level down next to the new leaf
+				BitmapNode<K, V> parent = new BitmapNode<>(owner, 1 << ((this.hash >>> shift) & MASK), new Object[] { this });
+				return parent.put(owner, shift, leaf, change);
+			}
+
+			int index = this.indexOf(leaf.hash, leaf.key);
+			Object[] leaves;
+			change.modified = true;
+
+			if (index != -1) {
+				change.old = ((Leaf<K, V>)this.leaves[index]).value;
+				leaves = this.owner == owner ? this.leaves : this.leaves.clone();
+				leaves[index] = leaf;
+			} else {
+				change.added = true;
+				leaves = new Object[this.leaves.length + 1];
+				System.arraycopy(this.leaves, 0, leaves, 0, this.leaves.length);
+				leaves[this.leaves.length] = leaf;
+			}
+
+			if (this.owner == owner) {
+				this.leaves = leaves;
+				return this;
+			}
+
+			return new CollisionNode<>(owner, this.hash, leaves);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		Object remove(Object owner, int shift, int hash, Object key, Change<V> change) {
+			int index = this.indexOf(hash, key);
+
+			if (index == -1)
+				return this;
+
+			change.modified = true;
+			change.old = ((Leaf<K, V>)this.leaves[index]).value;
+
+			if (this.leaves.length == 2)
+				return this.leaves[index ^ 1];
+
+			Object[] leaves = new Object[this.leaves.length - 1];
+			System.arraycopy(this.leaves, 0, leaves, 0, index);
+			System.arraycopy(this.leaves, index + 1, leaves, index, leaves.length - index);
+
+			if (this.owner == owner) {
+				this.leaves = leaves;
+				return this;
+			}
+
+			return new CollisionNode<>(owner, this.hash, leaves);
+		}
+
+	}
+
+	private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+		@Override
+		public void clear() {
+			HashTrieMap.this.clear();
+		}
+
+		@Override
+		public boolean contains(Object obj) {
+			if (!(obj instanceof Entry))
+				return false;
+
+			Entry<?, ?> entry = (Entry<?, ?>)obj;
+			Leaf<K, V> leaf = HashTrieMap.this.root.find(0, hash(entry.getKey()), entry.getKey());
+			return leaf != null && Objects.equals(leaf.value, entry.getValue());
+		}
+
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return new TrieIterator();
+		}
+
+		@Override
+		public boolean remove(Object obj) {
+			if (!this.contains(obj))
+				return false;
+
+			HashTrieMap.this.remove(((Entry<?, ?>)obj).getKey());
+			return true;
+		}
+
+		@Override
+		public int size() {
+			return HashTrieMap.this.size;
+		}
+
+		@Override
+		public Spliterator<Entry<K, V>> spliterator() {
+			return new TrieSpliterator<>(HashTrieMap.this.root.children(), 0, HashTrieMap.this.root.children().length, HashTrieMap.this.size);
+		}
+
+	}
+
+	/**
+	 * Splits the trie along its branches, handing each half of a node's
+	 * children to a separate spliterator and descending into a lone child node
+	 * when there is nothing left to split at the current level.
+	 */
+	static final class TrieSpliterator<K, V> implements Spliterator<Entry<K, V>> {
+
+		private final Object[][] stack = new Object[MAX_DEPTH][];
+		private final int[] cursor = new int[MAX_DEPTH];
+		private int depth = -1;
+		private Object[] level;
+		private int index;
+		private int fence;
+		private long estimate;
+
+		TrieSpliterator(Object[] level, int index, int fence, long estimate) {
+			this.level = level;
+			this.index = index;
+			this.fence = fence;
+			this.estimate = estimate;
+		}
+
+		@Override
+		public int characteristics() {
+			return DISTINCT | NONNULL;
+		}
+
+		@Override
+		public long estimateSize() {
+			return this.estimate;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+			while (true) {
+				Object child;
+
+				if (this.depth >= 0) {
+					Object[] children = this.stack[this.depth];
+
+					if (this.cursor[this.depth] >= children.length) {
+						this.depth--;
+						continue;
+					}
+
+					child = children[this.cursor[this.depth]++];
+				} else if (this.index < this.fence)
+					child = this.level[this.index++];
+				else
+					return false;
+
+				if (child instanceof Leaf) {
+					action.accept((Leaf<K, V>)child);
+					return true;
+				}
+
+				this.stack[++this.depth] = ((Node<K, V>)child).children();
+				this.cursor[this.depth] = 0;
+			}
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Spliterator<Entry<K, V>> trySplit() {
+			if (this.depth >= 0)
+				return null;
+
+			// A single remaining branch is split by its own children
+			while (this.fence - this.index == 1 && this.level[this.index] instanceof Node) {
+				this.level = ((Node<K, V>)this.level[this.index]).children();
+				this.index = 0;
+				this.fence = this.level.length;
+			}
+
+			if (this.fence - this.index < 2)
+				return null;
+
+			int middle = (this.index + this.fence) >>> 1;
+			long half = this.estimate >>> 1;
+			TrieSpliterator<K, V> prefix = new TrieSpliterator<>(this.level, this.index, middle, half);
+			this.index = middle;
+			this.estimate -= half;
+			return prefix;
+		}
+
+	}
+
+	/**
+	 * Walks the leaves of the root captured at creation.
+	 */
+	private final class TrieIterator implements Iterator<Entry<K, V>> {
+
+		private final Object[][] stack = new Object[MAX_DEPTH][];
+		private final int[] cursor = new int[MAX_DEPTH];
+		private int depth = 0;
+		private Leaf<K, V> next;
+		private Leaf<K, V> last;
+
+		TrieIterator() {
+			this.stack[0] = HashTrieMap.this.root.children();
+			this.advance();
+		}
+
+		@SuppressWarnings("unchecked")
+		private void advance() {
+			while (this.depth >= 0) {
+				Object[] level = this.stack[this.depth];
+
+				if (this.cursor[this.depth] < level.length) {
+					Object child = level[this.cursor[this.depth]++];
+
+					if (child instanceof Leaf) {
+						this.next = (Leaf<K, V>)child;
+						return;
+					}
+
+					this.stack[++this.depth] = ((Node<K, V>)child).children();
+					this.cursor[this.depth] = 0;
+				} else
+					this.depth--;
+			}
+
+			this.next = null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.next != null;
+		}
+
+		@Override
+		public Entry<K, V> next() {
+			if (this.next == null)
+				throw new NoSuchElementException();
+
+			this.last = this.next;
+			this.advance();
+			return this.last;
+		}
+
+		@Override
+		public void remove() {
+			if (this.last == null)
+				throw new IllegalStateException();
+
+			// Stop the nodes being walked from being modified in place
+			HashTrieMap.this.owner = new Object();
+			HashTrieMap.this.remove(this.last.key);
+			this.last = null;
+		}
+
+	}
+
+}
@@ -0,0 +1,162 @@
+package net.netcoding.nifty.core.util.concurrent.trie;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A set that keeps a hash index for each registered {@link KeyIndex}, so
+ * elements can be looked up by any of their keys in O(1).
+ * <p>
+ * The elements and every index are stored in {@link HashTrieMap HashTrieMaps},
+ * copying this set with {@link #IndexedTrieSet(IndexedTrieSet)} takes constant
+ * time and each modification afterwards only copies the changed paths.
+ * <p>
+ * Keys are expected to be unique and not to change while their element is in
+ * this set. An element sharing a key with another replaces it in that index,
+ * elements with a null key are not indexed. Null elements are not permitted.
+ *
+ * @param <E> type of elements
+ */
+public class IndexedTrieSet<E> extends AbstractSet<E> implements Set<E> {
+
+	private final KeyIndex<? super E, ?>[] indexes;
+	private final HashTrieMap<E, E> elements;
+	private final HashTrieMap<Object, E>[] keys;
+
+	/**
+	 * Create a new indexed set.
+	 *
+	 * @param indexes Indexes to maintain.
+	 */
+	@SafeVarargs
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public IndexedTrieSet(KeyIndex<? super E, ?>... indexes) {
+		this.indexes = indexes.clone();
+		this.elements = new HashTrieMap<>();
+		this.keys = new HashTrieMap[indexes.length];
+
+		for (int i = 0; i < this.keys.length; i++)
+			this.keys[i] = new HashTrieMap<>();
+	}
+
+	/**
+	 * Create a new indexed set sharing the elements, indexes and nodes of the given set.
+	 *
+	 * @param set Set to copy.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public IndexedTrieSet(IndexedTrieSet<E> set) {
+		this.indexes = set.indexes;
+		this.elements = new HashTrieMap<>(set.elements);
+		this.keys = new HashTrieMap[set.keys.length];
+
+		for (int i = 0; i < this.keys.length; i++)
+			this.keys[i] = new HashTrieMap<>(set.keys[i]);
+	}
+
+	@Override
+	public final boolean add(E element) {
+		Objects.requireNonNull(element);
+
+		if (this.elements.containsKey(element))
+			return false;
+
+		this.elements.put(element, element);
+
+		for (int i = 0; i < this.indexes.length; i++) {
+			Object key = this.indexes[i].keyOf(element);
+
+			if (key != null)
+				this.keys[i].put(key, element);
+		}
+
+		return true;
+	}
+
+	@Override
+	public final void clear() {
+		this.elements.clear();
+
+		for (HashTrieMap<Object, E> index : this.keys)
+			index.clear();
+	}
+
+	@Override
+	public final boolean contains(Object obj) {
+		return this.elements.containsKey(obj);
+	}
+
+	/**
+	 * Gets the element with the given key in the given index.
+	 *
+	 * @param index Index to look in.
+	 * @param key Key of the element.
+	 * @param <K> Type of key.
+	 * @return Element with the given key, or null.
+	 * @throws IllegalArgumentException When the index is not registered with this set.
+	 */
+	public final <K> E get(KeyIndex<? super E, K> index, K key) {
+		for (int i = 0; i < this.indexes.length; i++) {
+			if (this.indexes[i] == index)
+				return this.keys[i].get(index.normalize(key));
+		}
+
+		throw new IllegalArgumentException("Index is not registered with this set!");
+	}
+
+	@Override
+	public final Iterator<E> iterator() {
+		return new Itr();
+	}
+
+	@Override
+	public final boolean remove(Object obj) {
+		E element = this.elements.remove(obj);
+
+		if (element == null)
+			return false;
+
+		this.unindex(element);
+		return true;
+	}
+
+	@Override
+	public final int size() {
+		return this.elements.size();
+	}
+
+	private void unindex(E element) {
+		for (int i = 0; i < this.indexes.length; i++) {
+			Object key = this.indexes[i].keyOf(element);
+
+			if (key != null)
+				this.keys[i].remove(key, element);
+		}
+	}
+
+	private final class Itr implements Iterator<E> {
+
+		private final Iterator<E> iterator = IndexedTrieSet.this.elements.keySet().iterator();
+		private E last;
+
+		@Override
+		public boolean hasNext() {
+			return this.iterator.hasNext();
+		}
+
+		@Override
+		public E next() {
+			return this.last = this.iterator.next();
+		}
+
+		@Override
+		public void remove() {
+			this.iterator.remove();
+			IndexedTrieSet.this.unindex(this.last);
+		}
+
+	}
+
+}
@@ -0,0 +1,67 @@
+package net.netcoding.nifty.core.util.concurrent.trie;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A hash index over one attribute of the elements of an {@link IndexedTrieSet}.
+ * <p>
+ * The same index instance is used to register the attribute with a set and to
+ * look elements up by it, indexes are compared by identity.
+ *
+ * @param <E> type of elements
+ * @param <K> type of keys
+ */
+public final class KeyIndex<E, K> {
+
+	private final Function<? super E, ? extends K> keyExtractor;
+	private final boolean ignoreCase;
+
+	private KeyIndex(Function<? super E, ? extends K> keyExtractor, boolean ignoreCase) {
+		this.keyExtractor = Objects.requireNonNull(keyExtractor);
+		this.ignoreCase = ignoreCase;
+	}
+
+	/**
+	 * Creates an index over the keys returned by the given function.
+	 *
+	 * @param keyExtractor Function returning the key of an element.
+	 * @param <E> Type of elements.
+	 * @param <K> Type of keys.
+	 * @return New index.
+	 */
+	public static <E, K> KeyIndex<E, K> of(Function<? super E, ? extends K> keyExtractor) {
+		return new KeyIndex<>(keyExtractor, false);
+	}
+
+	/**
+	 * Creates an index over the string keys returned by the given function,
+	 * ignoring their case.
+	 *
+	 * @param keyExtractor Function returning the key of an element.
+	 * @param <E> Type of elements.
+	 * @return New index.
+	 */
+	public static <E> KeyIndex<E, String> ignoreCase(Function<? super E, String> keyExtractor) {
+		return new KeyIndex<>(keyExtractor, true);
+	}
+
+	/**
+	 * Gets if this index ignores the case of its keys.
+	 *
+	 * @return True if case is ignored.
+	 */
+	public boolean isIgnoringCase() {
+		return this.ignoreCase;
+	}
+
+	Object keyOf(E element) {
+		return this.normalize(this.keyExtractor.apply(element));
+	}
+
+	Object normalize(Object key) {
+		return this.ignoreCase && key != null ? key.toString().toLowerCase(Locale.ROOT) : key;
+	}
+
+}
@@ -0,0 +1,444 @@
+package net.netcoding.nifty.core.util.concurrent.trie;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * A bit-partitioned vector trie that shares its structure between copies.
+ * <p>
+ * Elements are stored in leaves of 32, indexed through branches of 32, with
+ * the last leaf kept aside as a tail that appends write to directly. The trie
+ * can grow on either side of its first element, so both appending and
+ * prepending only copy the path to the changed leaf, as do indexed updates
+ * and removing elements from either end, making each of them O(log32 n).
+ * <p>
+ * Copying this list with {@link #VectorTrieList(Collection)} or taking a
+ * {@link #slice(int, int)} of it takes O(log32 n), as both lists keep pointing
+ * at the same nodes. Nodes are only modified in place by the list that created
+ * them, a copied list will never see changes made to the list it was copied
+ * from and vice versa.
+ * <p>
+ * Inserting or removing elsewhere moves the elements on the shorter side of
+ * the index, and is O(n) like any array backed list.
+ *
+ * @param <E> type of elements
+ */
+public class VectorTrieList<E> extends AbstractList<E> implements List<E>, RandomAccess {
+
+	static final int BITS = 5;
+	static final int WIDTH = 1 << BITS;
+	static final int MASK = WIDTH - 1;
+	private Node root;
+	private Node tail;
+	private long origin;
+	private int shift = BITS;
+	private int size;
+	private Object owner = new Object();
+
+	/**
+	 * Create a new vector list.
+	 */
+	public VectorTrieList() { }
+
+	/**
+	 * Create a new vector list and fill it with the given collection.
+	 * <p>
+	 * If the given collection is also a vector list, its nodes are shared instead of copied.
+	 */
+	public VectorTrieList(Collection<? extends E> collection) {
+		this.addAll(collection);
+	}
+
+	@Override
+	public final boolean add(E element) {
+		long index = this.origin + this.size;
+
+		if (this.size == 0) {
+			this.clear();
+			this.tail = new Node(this.owner);
+			index = 0;
+		} else if ((index & MASK) == 0) {
+			if (index >= this.capacity())
+				this.grow(0);
+
+			this.root = this.pushLeaf(this.root, this.shift, index - WIDTH, this.tail);
+			this.tail = new Node(this.owner);
+		} else
+			this.tail = this.editable(this.tail);
+
+		this.tail.array[(int)(index & MASK)] = element;
+		this.size++;
+		this.modCount++;
+		return true;
+	}
+
+	@Override
+	public final void add(int index, E element) {
+		if (index < 0 || index > this.size)
+			throw new IndexOutOfBoundsException(outOfBounds(index, this.size));
+
+		if (index == this.size)
+			this.add(element);
+		else if (index == 0)
+			this.prepend(element);
+		else if (index < this.size >>> 1) {
+			this.prepend(this.get(0));
+
+			for (int i = 1; i < index; i++)
+				this.update(i, this.get(i + 1));
+
+			this.update(index, element);
+		} else {
+			this.add(this.get(this.size - 1));
+
+			for (int i = this.size - 2; i > index; i--)
+				this.update(i, this.get(i - 1));
+
+			this.update(index, element);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public final boolean addAll(Collection<? extends E> collection) {
+		if (this.isEmpty() && collection instanceof VectorTrieList) {
+			VectorTrieList<E> other = (VectorTrieList<E>)collection;
+			other.owner = new Object();
+			this.adopt(other);
+			this.modCount++;
+			return !other.isEmpty();
+		}
+
+		boolean modified = false;
+
+		for (E element : collection)
+			modified |= this.add(element);
+
+		return modified;
+	}
+
+	private void adopt(VectorTrieList<E> other) {
+		this.root = other.root;
+		this.tail = other.tail;
+		this.origin = other.origin;
+		this.shift = other.shift;
+		this.size = other.size;
+	}
+
+	private Object[] arrayFor(long index) {
+		if (index >= this.tailBase())
+			return this.tail.array;
+
+		Node node = this.root;
+
+		for (int level = this.shift; level > 0 && node != null; level -= BITS)
+			node = (Node)node.array[(int)((index >>> level) & MASK)];
+
+		return node != null ? node.array : null;
+	}
+
+	private Node assoc(Node node, int level, long index, Object element) {
+		Node edit = this.editable(node);
+		int slot = (int)((index >>> level) & MASK);
+		edit.array[slot] = level == 0 ? element : this.assoc((Node)edit.array[slot], level - BITS, index, element);
+		return edit;
+	}
+
+	private long capacity() {
+		return 1L << (this.shift + BITS);
+	}
+
+	@Override
+	public final void clear() {
+		this.root = null;
+		this.tail = null;
+		this.origin = 0;
+		this.shift = BITS;
+		this.size = 0;
+		this.modCount++;
+	}
+
+	private Node editable(Node node) {
+		if (node == null)
+			return new Node(this.owner);
+
+		return node.owner == this.owner ? node : new Node(this.owner, node.array.clone());
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public final E get(int index) {
+		if (index < 0 || index >= this.size)
+			throw new IndexOutOfBoundsException(outOfBounds(index, this.size));
+
+		long position = this.origin + index;
+		Object[] array = this.arrayFor(position);
+		return array != null ? (E)array[(int)(position & MASK)] : null;
+	}
+
+	/**
+	 * Adds a level above the root, placing the current root at the given slot.
+	 */
+	private void grow(int slot) {
+		Node parent = new Node(this.owner);
+		parent.array[slot] = this.root;
+		this.root = parent;
+		this.origin += (long)slot << (this.shift + BITS);
+		this.shift += BITS;
+	}
+
+	@Override
+	public final boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	private static String outOfBounds(int index, int size) {
+		return "Index: " + index + ", Size: " + size; // Cannot use StringUtil!
+	}
+
+	private void prepend(E element) {
+		if (this.size == 0) {
+			this.add(element);
+			return;
+		}
+
+		if (this.origin == 0) {
+			if (this.tailBase() == 0) {
+				this.root = null;
+				this.origin = WIDTH;
+			} else
+				this.grow(WIDTH >>> 1);
+		}
+
+		long index = this.origin - 1;
+
+		if (index >= this.tailBase()) {
+			this.tail = this.editable(this.tail);
+			this.tail.array[(int)(index & MASK)] = element;
+		} else
+			this.root = this.assoc(this.root, this.shift, index, element);
+
+		this.origin = index;
+		this.size++;
+		this.modCount++;
+	}
+
+	private Node pushLeaf(Node node, int level, long index, Node leaf) {
+		Node edit = this.editable(node);
+		int slot = (int)((index >>> level) & MASK);
+		edit.array[slot] = level == BITS ? leaf : this.pushLeaf((Node)edit.array[slot], level - BITS, index, leaf);
+		return edit;
+	}
+
+	@Override
+	public final E remove(int index) {
+		E element = this.get(index);
+
+		if (index < this.size >>> 1) {
+			for (int i = index; i > 0; i--)
+				this.update(i, this.get(i - 1));
+
+			this.retain(1, this.size);
+		} else {
+			for (int i = index; i < this.size - 1; i++)
+				this.update(i, this.get(i + 1));
+
+			this.retain(0, this.size - 1);
+		}
+
+		return element;
+	}
+
+	@Override
+	public final boolean removeAll(Collection<?> collection) {
+		Objects.requireNonNull(collection);
+		return this.removeIf(collection::contains);
+	}
+
+	@Override
+	public final boolean removeIf(Predicate<? super E> filter) {
+		Objects.requireNonNull(filter);
+		VectorTrieList<E> kept = new VectorTrieList<>();
+
+		for (E element : this) {
+			if (!filter.test(element))
+				kept.add(element);
+		}
+
+		if (kept.size == this.size)
+			return false;
+
+		this.owner = kept.owner;
+		this.adopt(kept);
+		this.modCount++;
+		return true;
+	}
+
+	@Override
+	protected final void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex == 0 || toIndex == this.size)
+			this.retain(fromIndex == 0 ? toIndex : 0, fromIndex == 0 ? this.size : fromIndex);
+		else
+			super.removeRange(fromIndex, toIndex);
+	}
+
+	/**
+	 * Keeps only the elements in the given range, sharing every node that lies
+	 * entirely within it.
+	 */
+	private void retain(int fromIndex, int toIndex) {
+		if (fromIndex == toIndex) {
+			this.clear();
+			return;
+		}
+
+		long from = this.origin + fromIndex;
+		long to = this.origin + toIndex;
+		long tailBase = (to - 1) & ~MASK;
+		Node tail = this.tail;
+
+		if (tailBase != this.tailBase()) {
+			Object[] array = this.arrayFor(tailBase);
+			tail = new Node(this.owner, array != null ? array.clone() : new Object[WIDTH]);
+		}
+
+		int first = (int)Math.max(0, from - tailBase);
+		int last = (int)(to - tailBase);
+
+		if (first > 0 || last < WIDTH) {
+			tail = this.editable(tail);
+
+			for (int i = 0; i < WIDTH; i++) {
+				if (i < first || i >= last)
+					tail.array[i] = null;
+			}
+		}
+
+		this.root = from < tailBase ? this.trim(this.root, this.shift, 0, from, tailBase) : null;
+		this.tail = tail;
+		this.origin = from;
+		this.size = toIndex - fromIndex;
+
+		if (tailBase <= from) {
+			this.root = null;
+			this.origin &= MASK;
+			this.shift = BITS;
+		} else {
+			long end = from + this.size - 1;
+
+			while (this.shift > BITS && (this.origin >>> this.shift) == (end >>> this.shift)) {
+				int slot = (int)((this.origin >>> this.shift) & MASK);
+				this.root = this.root != null ? (Node)this.root.array[slot] : null;
+				this.origin -= (long)slot << this.shift;
+				end -= (long)slot << this.shift;
+				this.shift -= BITS;
+			}
+		}
+
+		this.modCount++;
+	}
+
+	@Override
+	public final boolean retainAll(Collection<?> collection) {
+		Objects.requireNonNull(collection);
+		return this.removeIf(element -> !collection.contains(element));
+	}
+
+	@Override
+	public final E set(int index, E element) {
+		E old = this.get(index);
+		this.update(index, element);
+		return old;
+	}
+
+	@Override
+	public final int size() {
+		return this.size;
+	}
+
+	/**
+	 * Creates a new list of the elements in the given range, sharing every
+	 * node that lies entirely within it.
+	 *
+	 * @param fromIndex Index of the first element, inclusive.
+	 * @param toIndex Index of the last element, exclusive.
+	 * @return New list of the elements in the given range.
+	 */
+	public final VectorTrieList<E> slice(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > this.size || fromIndex > toIndex)
+			throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + this.size); // Cannot use StringUtil!
+
+		VectorTrieList<E> slice = new VectorTrieList<>(this);
+
+		if (fromIndex != 0 || toIndex != this.size)
+			slice.retain(fromIndex, toIndex);
+
+		return slice;
+	}
+
+	private long tailBase() {
+		return (this.origin + this.size - 1) & ~MASK;
+	}
+
+	/**
+	 * Copies the given node, keeping only the elements in the given range.
+	 * Nodes entirely within the range are shared, those outside of it dropped.
+	 */
+	private Node trim(Node node, int level, long base, long from, long to) {
+		long span = 1L << level;
+		long end = base + (span << BITS);
+
+		if (node == null || to <= base || end <= from)
+			return null;
+
+		if (from <= base && end <= to)
+			return node;
+
+		Node edit = this.editable(node);
+
+		for (int i = 0; i < WIDTH; i++) {
+			long start = base + i * span;
+
+			if (start + span <= from || to <= start)
+				edit.array[i] = null;
+			else if (level > 0)
+				edit.array[i] = this.trim((Node)edit.array[i], level - BITS, start, from, to);
+		}
+
+		return edit;
+	}
+
+	private void update(int index, E element) {
+		long position = this.origin + index;
+
+		if (position >= this.tailBase()) {
+			this.tail = this.editable(this.tail);
+			this.tail.array[(int)(position & MASK)] = element;
+		} else
+			this.root = this.assoc(this.root, this.shift, position, element);
+	}
+
+	/**
+	 * A branch or leaf of the trie, a missing node holds only null elements.
+	 */
+	static final class Node {
+
+		final Object owner;
+		final Object[] array;
+
+		Node(Object owner) {
+			this(owner, new Object[WIDTH]);
+		}
+
+		Node(Object owner, Object[] array) {
+			this.owner = owner;
+			this.array = array;
+		}
+
+	}
+
+}